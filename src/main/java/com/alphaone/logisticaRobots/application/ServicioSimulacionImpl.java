@@ -166,9 +166,7 @@ public class ServicioSimulacionImpl implements ServicioSimulacion {
             mensajeEstado = "Simulación finalizada: estado estable alcanzado";
 
             // Loggear pedidos fallidos
-            List<Pedido> pedidosFallidos = redLogistica.getPedidos().stream()
-                .filter(p -> p.getEstado() == Pedido.EstadoPedido.FALLIDO)
-                .collect(Collectors.toList());
+            List<Pedido> pedidosFallidos = redLogistica.getPedidos(Pedido.EstadoPedido.FALLIDO);
             if (!pedidosFallidos.isEmpty()) {
                 LoggerMovimientosRobots.getInstancia().agregarInformacionPedidosFallidos(pedidosFallidos);
             }
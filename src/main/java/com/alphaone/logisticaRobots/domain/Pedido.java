@@ -19,6 +19,7 @@ public class Pedido {
     private final CofreLogistico cofreDestino;
     private EstadoPedido estado;
     private PrioridadPedido prioridad;
+    private RegistroPedidos registro; // Registro al que se avisa cada cambio de estado
 
 
     public Pedido(Item item, int cantidad, CofreLogistico origen, CofreLogistico destino,PrioridadPedido prioridad) {
@@ -39,17 +40,28 @@ public class Pedido {
     public EstadoPedido getEstado() { return estado; }
     public PrioridadPedido getPrioridad() { return prioridad; }
 
+    RegistroPedidos getRegistro() { return registro; }
+    void setRegistro(RegistroPedidos registro) { this.registro = registro; }
+
     // Estados
     public void marcarEnProceso() {
-        estado = EstadoPedido.EN_PROCESO;
+        cambiarEstado(EstadoPedido.EN_PROCESO);
     }
 
     public void marcarCompletado() {
-        estado = EstadoPedido.COMPLETADO;
+        cambiarEstado(EstadoPedido.COMPLETADO);
     }
 
     public void marcarFallido() {
-        estado = EstadoPedido.FALLIDO;
+        cambiarEstado(EstadoPedido.FALLIDO);
+    }
+
+    private void cambiarEstado(EstadoPedido nuevoEstado) {
+        EstadoPedido anterior = estado;
+        estado = nuevoEstado;
+        if (registro != null && anterior != nuevoEstado) {
+            registro.actualizar(this, anterior);
+        }
     }
 
     public boolean estaCompletado() {
@@ -12,7 +12,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
     private Set<Robopuerto> robopuertos;
     private Set<CofreLogistico> cofres;
     private Set<RobotLogistico> robotsLogisticos;
-    private List<Pedido> pedidos;
+    private RegistroPedidos pedidos;
     private final GrillaEspacial grillaEspacial;
     private final Planificador planificador;
 
@@ -23,7 +23,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
         this.robopuertos = new HashSet<>();
         this.cofres = new HashSet<>();
         this.robotsLogisticos = new HashSet<>();
-        this.pedidos = new ArrayList<>();
+        this.pedidos = new RegistroPedidos();
         this.grillaEspacial = new GrillaEspacial(new Punto(0, 0), 100, 100); // Origen en (0,0) con ancho 100 y alto 100
         this.planificador = new Planificador(robopuertos, grillaEspacial, cofres, robotsLogisticos, pedidos);
     }
@@ -33,8 +33,8 @@ public class RedLogistica { // es el universo donde se componen las cosas
         this.grillaEspacial = grillaEspacial;
         this.cofres = cofres;
         this.robotsLogisticos = robotsLogisticos;
-        this.pedidos = pedidos;
-        this.planificador = new Planificador(robopuertos, grillaEspacial, cofres, robotsLogisticos, pedidos);
+        this.pedidos = new RegistroPedidos(pedidos);
+        this.planificador = new Planificador(robopuertos, grillaEspacial, cofres, robotsLogisticos, this.pedidos);
     }
 
     public Set<Robopuerto> getRobopuertos() {
@@ -54,7 +54,133 @@ public class RedLogistica { // es el universo donde se componen las cosas
     }
 
     public List<Pedido> getPedidos() {
-        return pedidos;
+        return pedidos.getPedidos();
+    }
+
+    /**
+     * @return los pedidos en el estado dado, en el orden en que el planificador los asigna
+     */
+    public List<Pedido> getPedidos(Pedido.EstadoPedido estado) {
+        return pedidos.getPedidos(estado);
+    }
+
+    /**
+     * Informa al planificador que un robot cambió de posición, para que actualice
+     * la ocupación de la grilla sin recorrer todos los robots.
+     *
+     * @param robot Robot que se movió
+     * @param nuevaPosicion Posición que pasa a ocupar
+     */
+    public void notificarCambioPosicion(RobotLogistico robot, Punto nuevaPosicion) {
+        planificador.actualizarPosicionRobot(robot, nuevaPosicion);
+    }
+
+    /**
+     * Agrega un cofre a la red y lo marca como obstáculo en el grafo del planificador.
+     */
+    public void agregarCofre(CofreLogistico cofre) {
+        if (cofres.add(cofre)) {
+            planificador.agregarCofre(cofre);
+        }
+    }
+
+    /**
+     * Quita un cofre de la red y libera su celda en el grafo del planificador.
+     */
+    public void quitarCofre(CofreLogistico cofre) {
+        if (cofres.remove(cofre)) {
+            planificador.quitarCofre(cofre);
+        }
+    }
+
+    /**
+     * Habilita un robopuerto en la red.
+     */
+    public void agregarRobopuerto(Robopuerto robopuerto) {
+        if (robopuertos.add(robopuerto)) {
+            planificador.agregarRobopuerto(robopuerto);
+        }
+    }
+
+    /**
+     * Deshabilita un robopuerto de la red.
+     */
+    public void quitarRobopuerto(Robopuerto robopuerto) {
+        if (robopuertos.remove(robopuerto)) {
+            planificador.quitarRobopuerto(robopuerto);
+        }
+    }
+
+    /**
+     * Calcula el siguiente paso de un robot hacia su destino usando el replanificador
+     * incremental del planificador.
+     *
+     * @return Siguiente posición (la actual si debe esperar su turno), o null si el planificador no encuentra camino
+     */
+    public Punto calcularSiguientePaso(RobotLogistico robot, Punto destino) {
+        return planificador.calcularSiguientePaso(robot, destino);
+    }
+
+    /**
+     * @return Lo que le falta recorrer al robot de su ruta planificada hacia el destino, o una
+     *         lista vacía si no tiene una vigente
+     */
+    public List<Punto> getRutaPlanificada(RobotLogistico robot, Punto destino) {
+        return planificador.getRutaPlanificada(robot, destino);
+    }
+
+    /**
+     * Activa la planificación cooperativa de movimientos (WHCA*) con la ventana indicada.
+     */
+    public void activarPlanificacionCooperativa(int ventana) {
+        planificador.activarPlanificacionCooperativa(ventana);
+    }
+
+    public void desactivarPlanificacionCooperativa() {
+        planificador.desactivarPlanificacionCooperativa();
+    }
+
+    /**
+     * Activa la resolución de atascos entre robots con CBS, con el presupuesto de tiempo indicado
+     * para cada resolución.
+     */
+    public void activarResolucionConflictos(long presupuestoMillis) {
+        planificador.activarResolucionConflictos(presupuestoMillis);
+    }
+
+    public void desactivarResolucionConflictos() {
+        planificador.desactivarResolucionConflictos();
+    }
+
+    /**
+     * Informa al planificador que el robot terminó su misión actual.
+     */
+    public void finalizarMision(RobotLogistico robot) {
+        planificador.finalizarMision(robot);
+    }
+
+    /**
+     * Informa al planificador que el robot dejó de moverse y ya no necesita su replanificador.
+     */
+    public void liberarMision(RobotLogistico robot) {
+        planificador.liberarMision(robot);
+    }
+
+    /**
+     * Agrega un pedido a la red y avisa al planificador para que lo asigne en el próximo ciclo.
+     */
+    public void agregarPedido(Pedido pedido) {
+        if (pedido == null) throw new IllegalArgumentException("El pedido no puede ser null");
+        pedidos.agregar(pedido);
+        planificador.notificarPedidoNuevo(pedido);
+    }
+
+    public void notificarPedidoFallido(Pedido pedido) {
+        planificador.notificarPedidoFallido(pedido);
+    }
+
+    public void notificarCambioStock(CofreLogistico cofre) {
+        planificador.notificarCambioStock(cofre);
     }
 
     public boolean estaVacia() {
@@ -62,7 +188,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
             robopuertos.isEmpty()
             && cofres.isEmpty()
             && robotsLogisticos.isEmpty()
-            && pedidos.isEmpty();
+            && pedidos.getPedidos().isEmpty();
     }
 
     /**
@@ -74,6 +200,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
     public void simularCiclo(int cicloActual) {
         // Verificar que todos los robots tengan la red configurada
         verificarConfiguracionRobots();
+        planificador.iniciarCiclo(cicloActual);
         
         // Utilizar el planificador para calcular las rutas más eficientes y asignar pedidos a robots
         boolean todosPedidosSatisfechos = planificador.ejecutarRutas();
@@ -91,7 +218,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
                 System.out.println("Robot " + robot + " procesando pedido");
                 // Si el robot NO tiene pedido actual ni pendientes, y está en un robopuerto, cambiar a PASIVO
                 boolean sinPedidos = robot.getPedidosPendientes().isEmpty() && robot.getHistorialPedidos().size() > 0 && robot.getEstado() == EstadoRobot.EN_MISION && robot.getRutaActual().isEmpty();
-                boolean enRobopuerto = robopuertos.stream().anyMatch(rp -> robot.getPosicion().equals(rp.getPosicion()));
+                boolean enRobopuerto = hayRobopuertoEn(robot.getPosicion());
                 if (sinPedidos && enRobopuerto) {
                     robot.cambiarEstado(EstadoRobot.PASIVO);
                     System.out.println("Robot " + robot + " llegó a robopuerto y pasa a PASIVO");
@@ -101,21 +228,20 @@ public class RedLogistica { // es el universo donde se componen las cosas
                 System.out.println("Robot " + robot + " iniciando nuevo pedido");
             } else if (robot.getEstado() == EstadoRobot.PASIVO || robot.getEstado() == EstadoRobot.CARGANDO) {
                 // Si el robot está en un robopuerto, intentamos recargarlo
-                for (Robopuerto robopuerto : robopuertos) {
-                    if (robot.getPosicion().equals(robopuerto.getPosicion())) {
-                        try {
-                            robopuerto.recargarRobot(robot);
-                            System.out.println("Robot " + robot + " recargando en " + robopuerto);
-
-                            // Si la batería está llena, cambiar a estado activo
-                            if (robot.getBateriaActual() >= robot.getBateriaMaxima()) {
-                                robot.cambiarEstado(EstadoRobot.ACTIVO);
-                            }
-                        } catch (IllegalStateException e) {
-                            // El robot ya está cargado o no está en estado válido
-                            System.out.println("No se pudo recargar el robot: " + e.getMessage());
+                Robopuerto robopuerto = getRobopuertoEn(robot.getPosicion());
+                if (robopuerto != null) {
+                    try {
+                        robopuerto.recargarRobot(robot);
+                        System.out.println("Robot " + robot + " recargando en " + robopuerto);
+
+                        // Si la batería está llena, cambiar a estado activo
+                        if (robot.getBateriaActual() >= robot.getBateriaMaxima()) {
+                            robot.cambiarEstado(EstadoRobot.ACTIVO);
+                            planificador.notificarRobotLibre(robot);
                         }
-                        break;
+                    } catch (IllegalStateException e) {
+                        // El robot ya está cargado o no está en estado válido
+                        System.out.println("No se pudo recargar el robot: " + e.getMessage());
                     }
                 }
             }
@@ -141,13 +267,12 @@ public class RedLogistica { // es el universo donde se componen las cosas
      */
     public boolean haAlcanzadoEstadoEstable() {
         // Verificar si hay pedidos pendientes
-        boolean pedidosPendientes = pedidos.stream()
-                .anyMatch(p -> p.getEstado() == Pedido.EstadoPedido.NUEVO || p.getEstado() == Pedido.EstadoPedido.EN_PROCESO);
+        boolean pedidosPendientes = pedidos.hayPendientes();
 
         // Verificar que todos los robots estén en un robopuerto y en estado PASIVO, CARGANDO o ACTIVO
         boolean todosRobotsEstables = robotsLogisticos.stream().allMatch(
             robot ->
-                (robopuertos.stream().anyMatch(rp -> robot.getPosicion().equals(rp.getPosicion()))) &&
+                hayRobopuertoEn(robot.getPosicion()) &&
                 (robot.getEstado() == EstadoRobot.PASIVO || robot.getEstado() == EstadoRobot.CARGANDO || robot.getEstado() == EstadoRobot.ACTIVO)
         );
 
@@ -172,8 +297,8 @@ public class RedLogistica { // es el universo donde se componen las cosas
         }
         
         // Verificar si algún pedido pendiente involucra cofres inaccesibles
-        for (Pedido pedido : pedidos) {
-            if (pedido.getEstado() == Pedido.EstadoPedido.NUEVO || pedido.getEstado() == Pedido.EstadoPedido.EN_PROCESO) {
+        for (Pedido.EstadoPedido estado : List.of(Pedido.EstadoPedido.NUEVO, Pedido.EstadoPedido.EN_PROCESO)) {
+            for (Pedido pedido : pedidos.getPedidos(estado)) {
                 CofreLogistico origen = pedido.getCofreOrigen();
                 CofreLogistico destino = pedido.getCofreDestino();
                 
@@ -231,7 +356,7 @@ public class RedLogistica { // es el universo donde se componen las cosas
         info.append("-".repeat(45)).append("\n");
         
         boolean hayPedidosAfectados = false;
-        for (Pedido pedido : pedidos) {
+        for (Pedido pedido : pedidos.getPedidos()) {
             if (pedido.getEstado() == Pedido.EstadoPedido.NUEVO || pedido.getEstado() == Pedido.EstadoPedido.EN_PROCESO) {
                 CofreLogistico origen = pedido.getCofreOrigen();
                 CofreLogistico destino = pedido.getCofreDestino();
@@ -273,38 +398,53 @@ public class RedLogistica { // es el universo donde se componen las cosas
         }
 
         // Verificar si hay al menos un robopuerto que pueda alcanzar el cofre
-        for (Robopuerto robopuerto : robopuertos) {
-            if (robopuerto.estaEnCobertura(cofre.getPosicion())) {
-                return true;
-            }
-        }
+        return estaEnCobertura(cofre.getPosicion());
+    }
 
-        return false;
+    /**
+     * Indica si algún robopuerto cubre la posición, con una sola lectura del mapa de cobertura
+     * del planificador.
+     */
+    public boolean estaEnCobertura(Punto posicion) {
+        return planificador.estaEnCobertura(posicion);
     }
 
     /**
-     * Encuentra el robopuerto más cercano a una posición dada
+     * Encuentra el robopuerto más cercano a una posición dada, usando el índice espacial del
+     * planificador en lugar de recorrer todos los robopuertos
      *
      * @param posicion Punto donde se quiere encontrar el robopuerto más cercano
      * @return Robopuerto más cercano, o null si no hay robopuertos
      */
     public Robopuerto getRobopuertoMasCercano(Punto posicion) {
-        if (robopuertos.isEmpty()) {
-            return null;
-        }
+        return planificador.getRobopuertoMasCercano(posicion);
+    }
+
+    public boolean hayRobopuertoEn(Punto posicion) {
+        return planificador.hayRobopuertoEn(posicion);
+    }
 
-        Robopuerto masCercano = null;
-        double distanciaMinima = Double.MAX_VALUE;
+    public boolean hayCofreEn(Punto posicion) {
+        return planificador.hayCofreEn(posicion);
+    }
 
-        for (Robopuerto robopuerto : robopuertos) {
-            double distancia = robopuerto.getPosicion().distanciaHacia(posicion);
-            if (distancia < distanciaMinima) {
-                distanciaMinima = distancia;
-                masCercano = robopuerto;
-            }
-        }
+    public Robopuerto getRobopuertoEn(Punto posicion) {
+        return planificador.getRobopuertoEn(posicion);
+    }
 
-        return masCercano;
+    /**
+     * @return Robots que están en la posición, según el registro de ocupación por celda que se
+     *         actualiza cada vez que un robot cambia de posición
+     */
+    public List<RobotLogistico> getRobotsEn(Punto posicion) {
+        return planificador.getRobotsEn(posicion);
+    }
+
+    /**
+     * Indica en O(1) si la posición está ocupada por un robot distinto del indicado.
+     */
+    public boolean hayOtroRobotEn(Punto posicion, RobotLogistico robot) {
+        return planificador.hayOtroRobotEn(posicion, robot);
     }
 
     /**
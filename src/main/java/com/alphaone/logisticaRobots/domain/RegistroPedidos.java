@@ -0,0 +1,154 @@
+package com.alphaone.logisticaRobots.domain;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registro de los pedidos de la red, con una cola por estado y prioridad y un contador por
+ * estado. Cada pedido avisa al registro cuando cambia de estado, así que saber si quedan
+ * pedidos pendientes cuesta O(1) y los pedidos de un estado se obtienen sin recorrer la lista.
+ * <p>
+ * Dentro de cada cola los pedidos quedan en el orden en que entraron a ese estado; para los
+ * NUEVO es el orden en que se registraron. Entre colas, {@link #getPedidos(Pedido.EstadoPedido)}
+ * sigue el orden en que el planificador asigna: de mayor a menor ordinal de prioridad, es decir
+ * NO_APLICA, BAJA, MEDIA y por último ALTA. La lista de todos los pedidos se mantiene aparte
+ * y se puede seguir recorriendo como antes.
+ */
+public final class RegistroPedidos {
+    private final List<Pedido> pedidos;
+    private final Map<Pedido.EstadoPedido, Map<Pedido.PrioridadPedido, Set<Pedido>>> colas = new EnumMap<>(Pedido.EstadoPedido.class);
+    private final Map<Pedido.EstadoPedido, Integer> cantidades = new EnumMap<>(Pedido.EstadoPedido.class);
+    private int cantidadRegistrada; // Pedidos de la lista ya incorporados a las colas
+
+    public RegistroPedidos() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * @param pedidos Lista de pedidos que pasa a ser la del registro
+     */
+    public RegistroPedidos(List<Pedido> pedidos) {
+        if (pedidos == null) throw new IllegalArgumentException("La lista de pedidos no puede ser null");
+        this.pedidos = pedidos;
+        for (Pedido.EstadoPedido estado : Pedido.EstadoPedido.values()) {
+            Map<Pedido.PrioridadPedido, Set<Pedido>> porPrioridad = new EnumMap<>(Pedido.PrioridadPedido.class);
+            for (Pedido.PrioridadPedido prioridad : Pedido.PrioridadPedido.values()) {
+                porPrioridad.put(prioridad, new LinkedHashSet<>());
+            }
+            colas.put(estado, porPrioridad);
+            cantidades.put(estado, 0);
+        }
+        sincronizar();
+    }
+
+    public void agregar(Pedido pedido) {
+        if (pedido == null) throw new IllegalArgumentException("El pedido no puede ser null");
+        sincronizar();
+        pedidos.add(pedido);
+        sincronizar();
+    }
+
+    /**
+     * Incorpora a las colas los pedidos que se agregaron directamente a la lista.
+     */
+    public void sincronizar() {
+        while (cantidadRegistrada < pedidos.size()) {
+            Pedido pedido = pedidos.get(cantidadRegistrada++);
+            if (pedido.getRegistro() != null && pedido.getRegistro() != this) {
+                throw new IllegalStateException("El pedido ya pertenece a otro registro");
+            }
+            pedido.setRegistro(this);
+            encolar(pedido, pedido.getEstado());
+        }
+    }
+
+    /**
+     * Mueve el pedido a la cola de su nuevo estado. Lo llama el pedido al cambiar de estado.
+     */
+    void actualizar(Pedido pedido, Pedido.EstadoPedido anterior) {
+        if (colaDe(anterior, pedido).remove(pedido)) {
+            cantidades.merge(anterior, -1, Integer::sum);
+            encolar(pedido, pedido.getEstado());
+        }
+    }
+
+    private void encolar(Pedido pedido, Pedido.EstadoPedido estado) {
+        if (colaDe(estado, pedido).add(pedido)) {
+            cantidades.merge(estado, 1, Integer::sum);
+        }
+    }
+
+    private Set<Pedido> colaDe(Pedido.EstadoPedido estado, Pedido pedido) {
+        return colas.get(estado).get(prioridadDe(pedido));
+    }
+
+    private static Pedido.PrioridadPedido prioridadDe(Pedido pedido) {
+        return pedido.getPrioridad() != null ? pedido.getPrioridad() : Pedido.PrioridadPedido.NO_APLICA;
+    }
+
+    /**
+     * @return todos los pedidos, en el orden en que se registraron
+     */
+    public List<Pedido> getPedidos() {
+        return pedidos;
+    }
+
+    public int getCantidad(Pedido.EstadoPedido estado) {
+        sincronizar();
+        return cantidades.get(estado);
+    }
+
+    /**
+     * @return true si hay pedidos nuevos o en proceso
+     */
+    public boolean hayPendientes() {
+        return getCantidad(Pedido.EstadoPedido.NUEVO) > 0 || getCantidad(Pedido.EstadoPedido.EN_PROCESO) > 0;
+    }
+
+    /**
+     * @return los pedidos en el estado y con la prioridad dados, en el orden en que entraron al estado
+     */
+    public List<Pedido> getPedidos(Pedido.EstadoPedido estado, Pedido.PrioridadPedido prioridad) {
+        sincronizar();
+        return new ArrayList<>(colas.get(estado).get(prioridad));
+    }
+
+    /**
+     * Primer pedido NUEVO en el orden de {@link #getPedidos(Pedido.EstadoPedido)}, sin copiar la
+     * cola. Como asignar o fallar un pedido lo saca de NUEVO, el planificador puede pedir el
+     * siguiente hasta que no quede ninguno.
+     *
+     * @return el próximo pedido a asignar, o null si no hay pedidos nuevos
+     */
+    public Pedido siguienteNuevo() {
+        sincronizar();
+        Map<Pedido.PrioridadPedido, Set<Pedido>> porPrioridad = colas.get(Pedido.EstadoPedido.NUEVO);
+        Pedido.PrioridadPedido[] prioridades = Pedido.PrioridadPedido.values();
+        for (int i = prioridades.length - 1; i >= 0; i--) {
+            Set<Pedido> cola = porPrioridad.get(prioridades[i]);
+            if (!cola.isEmpty()) {
+                return cola.iterator().next();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return los pedidos en el estado dado, en el orden en que el planificador los asigna: de
+     *         mayor a menor ordinal de prioridad y, dentro de cada una, en el orden en que entraron al estado
+     */
+    public List<Pedido> getPedidos(Pedido.EstadoPedido estado) {
+        sincronizar();
+        List<Pedido> resultado = new ArrayList<>(cantidades.get(estado));
+        Map<Pedido.PrioridadPedido, Set<Pedido>> porPrioridad = colas.get(estado);
+        Pedido.PrioridadPedido[] prioridades = Pedido.PrioridadPedido.values();
+        for (int i = prioridades.length - 1; i >= 0; i--) {
+            resultado.addAll(porPrioridad.get(prioridades[i]));
+        }
+        return resultado;
+    }
+}
@@ -92,6 +92,7 @@ public class Robopuerto implements Ubicable {
                     + robot.getEstado());
         }
 
-        robot.recargarBateria(this.tasaRecarga);
+        // La última recarga completa la batería sin pasarse del máximo
+        robot.recargarBateria(Math.min(this.tasaRecarga, robot.getBateriaMaxima() - robot.getBateriaActual()));
     }
 }
\ No newline at end of file
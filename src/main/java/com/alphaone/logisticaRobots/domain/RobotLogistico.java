@@ -1,5 +1,6 @@
 package com.alphaone.logisticaRobots.domain;
 
+import com.alphaone.logisticaRobots.domain.pathfinding.PlanMision;
 import com.alphaone.logisticaRobots.domain.pathfinding.Punto;
 import com.alphaone.logisticaRobots.shared.ParametrosGenerales;
 import com.alphaone.logisticaRobots.infrastructure.logging.LoggerMovimientosRobots;
@@ -16,6 +17,8 @@ public class RobotLogistico implements Ubicable {
     private Punto posicion;
     private final int bateriaMaxima;
     private int bateriaActual;
+    public static final int CONSUMO_MANIOBRA = 2; // Acercarse al cofre desde una diagonal o cargar los ítems
+    private static final double FACTOR_CONSUMO_CARGADO = 1.5; // Con ítems cargados cada paso consume más
     private final static int capacidadPedidosTraslado = 10; // Los robots transportan una cantidad predefinida de ítems en cada viaje. Esta cantidad debe ser configurable a nivel global al momento de correr la simulación.
     private EstadoRobot estado;
     private Map<Item, Integer> cargaActual;  // Los ítems que está transportando y su cantidad
@@ -24,6 +27,11 @@ public class RobotLogistico implements Ubicable {
     private final List<Pedido> historialPedidos = new ArrayList<>();
 
     private Pedido pedidoActual;
+    private final Map<Pedido, PlanMision> planesPendientes = new HashMap<>(); // Parada de recarga planificada para cada pedido
+    private PlanMision planActual; // Plan del pedido actual, null si no necesita recargar
+    private final Map<Pedido, Integer> ciclosSalida = new HashMap<>(); // Ciclo desde el que puede moverse para cada pedido
+    private int cicloSalida; // Ciclo desde el que puede moverse para el pedido actual
+    private boolean paradaRealizada;
     private RedLogistica redLogistica; // Referencia a la red logística para verificaciones
 
     public RobotLogistico(int id, Punto posicion, Robopuerto robopuertoBase, int bateriaMaxima, int capacidadPedidosTraslado) {
@@ -54,6 +62,10 @@ public class RobotLogistico implements Ubicable {
     @Override
     public void setPosicion(Punto posicion) {
         this.posicion = posicion;
+        // Mantener actualizada la ocupación de la grilla que usa el planificador
+        if (redLogistica != null) {
+            redLogistica.notificarCambioPosicion(this, posicion);
+        }
     }
 
     public EstadoRobot getEstado() {return estado;}
@@ -67,6 +79,9 @@ public class RobotLogistico implements Ubicable {
      */
     public void setRedLogistica(RedLogistica redLogistica) {
         this.redLogistica = redLogistica;
+        if (redLogistica != null) {
+            redLogistica.notificarCambioPosicion(this, posicion);
+        }
         System.out.println("Robot " + id + ": Red logística configurada");
     }
 
@@ -84,9 +99,41 @@ public class RobotLogistico implements Ubicable {
         pedidosPendientes.add(pedido);
     }
 
+    /**
+     * Agrega un pedido junto con la parada de recarga con la que fue planificado.
+     *
+     * @param plan Plan de la misión, o null si no necesita recargar
+     */
+    public void agregarPedido(Pedido pedido, PlanMision plan) {
+        agregarPedido(pedido);
+        if (plan != null && plan.tieneParada()) {
+            planesPendientes.put(pedido, plan);
+        }
+    }
+
+    /**
+     * Agrega un pedido con su plan y el ciclo en que el planificador reservó su salida: hasta
+     * ese ciclo el robot espera en su celda para no cruzarse con otro robot.
+     *
+     * @param plan Plan de la misión, o null si no necesita recargar
+     * @param cicloSalida Primer ciclo en el que puede moverse
+     */
+    public void agregarPedido(Pedido pedido, PlanMision plan, int cicloSalida) {
+        agregarPedido(pedido, plan);
+        ciclosSalida.put(pedido, cicloSalida);
+    }
+
     private void finalizarPedido() {
+        if (redLogistica != null && pedidoActual.estaFallido()) {
+            redLogistica.notificarPedidoFallido(pedidoActual);
+        }
         historialPedidos.add(pedidoActual);
         pedidoActual = null;
+        planActual = null;
+        paradaRealizada = false;
+        if (redLogistica != null) {
+            redLogistica.finalizarMision(this);
+        }
         // Si hay más pedidos pendientes, el robot seguirá en EN_MISION cuando tome el siguiente pedido
         // Si NO hay más pedidos pendientes, el robot debe volver a un robopuerto y permanecer en EN_MISION hasta llegar
         if (!pedidosPendientes.isEmpty()) {
@@ -107,6 +154,14 @@ public class RobotLogistico implements Ubicable {
     public boolean procesarSiguientePedido(int cicloActual) {
         // Si ya hay un pedido en proceso, continuar con él
         if (pedidoActual != null) {
+            if (getEstado() == EstadoRobot.ACTIVO) {
+                cambiarEstado(EstadoRobot.EN_MISION); // Retoma el pedido después de la parada de recarga
+            }
+            if (cicloActual < cicloSalida) {
+                // Espera en su celda la demora de salida que reservó el planificador
+                LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "espera_salida", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
+                return true;
+            }
             return continuarPedidoActual(cicloActual);
         }
 
@@ -114,23 +169,30 @@ public class RobotLogistico implements Ubicable {
         if (!pedidosPendientes.isEmpty()) {
             pedidoActual = pedidosPendientes.poll();
             pedidoActual.marcarEnProceso();
+            planActual = planesPendientes.remove(pedidoActual);
+            cicloSalida = ciclosSalida.getOrDefault(pedidoActual, 0);
+            ciclosSalida.remove(pedidoActual);
+            paradaRealizada = false;
             cambiarEstado(EstadoRobot.EN_MISION);
             return true;
         }
 
         // Si no hay pedidos pendientes ni en proceso, pero el robot está en EN_MISION, debe volver a un robopuerto
         if (getEstado() == EstadoRobot.EN_MISION && redLogistica != null) {
-            boolean enRobopuerto = redLogistica.getRobopuertos().stream().anyMatch(rp -> getPosicion().equals(rp.getPosicion()));
+            boolean enRobopuerto = redLogistica.hayRobopuertoEn(getPosicion());
             if (!enRobopuerto) {
                 Robopuerto robopuertoCercano = redLogistica.getRobopuertoMasCercano(getPosicion());
                 if (robopuertoCercano != null) {
                     Punto destinoFinal = robopuertoCercano.getPosicion();
                     Punto siguientePaso = calcularSiguientePaso(getPosicion(), destinoFinal);
-                    if (siguientePaso != null && esMovimientoValido(siguientePaso, destinoFinal)) {
-                        setPosicion(siguientePaso);
-                        int consumoBateria = (int) Math.ceil(getPosicion().distanciaHacia(siguientePaso) * ParametrosGenerales.FACTOR_CONSUMO);
+                    if (getPosicion().equals(siguientePaso)) {
+                        // La planificación cooperativa indica esperar: no se mueve ni consume batería
+                        System.out.println("Robot " + id + " espera su turno para volver al robopuerto.");
+                    } else if (siguientePaso != null && esMovimientoValido(siguientePaso, destinoFinal)) {
+                        int consumoBateria = consumoPaso(getPosicion().distanciaHacia(siguientePaso), false);
                         try {
                             consumirBateria(consumoBateria);
+                            setPosicion(siguientePaso);
                             System.out.println("Robot " + id + " volviendo a robopuerto. Posición: " + getPosicion() + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
                         } catch (IllegalStateException e) {
                             // Si no puede moverse, simplemente no hace nada este ciclo
@@ -143,6 +205,44 @@ public class RobotLogistico implements Ubicable {
         return false;
     }
 
+    /**
+     * Avanza hacia el robopuerto de la parada de recarga planificada. Al llegar queda PASIVO
+     * para que la red lo recargue y retoma el pedido cuando vuelve a estar ACTIVO.
+     *
+     * @return true si el pedido sigue en proceso, false si falló
+     */
+    private boolean avanzarHaciaParadaRecarga(int cicloActual) {
+        Punto robopuerto = planActual.getParada().getPosicion();
+        if (posicion.equals(robopuerto)) {
+            paradaRealizada = true;
+            LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "parada_recarga", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
+            if (bateriaActual < bateriaMaxima) {
+                cambiarEstado(EstadoRobot.PASIVO);
+                System.out.println("Robot " + id + " se detiene a recargar en " + robopuerto + ". Batería actual: " + bateriaActual);
+            }
+            return true;
+        }
+        Punto siguientePaso = calcularSiguientePaso(posicion, robopuerto);
+        if (siguientePaso == null || posicion.equals(siguientePaso) || !esMovimientoValido(siguientePaso, robopuerto)) {
+            LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "espera_mov_recarga", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
+            System.out.println("Robot " + id + " espera su turno para avanzar hacia el robopuerto de recarga.");
+            return true;
+        }
+        int consumoBateria = consumoPaso(posicion.distanciaHacia(siguientePaso), cargaActual.containsKey(pedidoActual.getItem()));
+        try {
+            consumirBateria(consumoBateria);
+        } catch (IllegalStateException e) {
+            LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_bateria_mov_recarga", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
+            pedidoActual.marcarFallido();
+            finalizarPedido();
+            return false;
+        }
+        LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_hacia_recarga", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
+        setPosicion(siguientePaso);
+        System.out.println("Robot " + id + " moviéndose hacia robopuerto de recarga. Posición: " + posicion + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
+        return true;
+    }
+
     /**
      * Verifica si dos puntos son ortogonalmente adyacentes
      */
@@ -182,6 +282,10 @@ public class RobotLogistico implements Ubicable {
         CofreLogistico destino = pedidoActual.getCofreDestino();
         Item item = pedidoActual.getItem();
         int cantidad = pedidoActual.getCantidad();
+        // 0. Si el pedido se planificó con una parada de recarga, pasar por el robopuerto en el tramo que corresponde
+        if (planActual != null && !paradaRealizada && planActual.isParadaAntesDeCargar() != cargaActual.containsKey(item)) {
+            return avanzarHaciaParadaRecarga(cicloActual);
+        }
         // 1. Moverse a una celda adyacente al cofre de origen
         if (!cargaActual.containsKey(item)) {
             if (!esAdyacente(posicion, origen.getPosicion())) {
@@ -191,7 +295,7 @@ public class RobotLogistico implements Ubicable {
                         LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_adjacente_origen", posicion.toString(), posicionAdyacente.toString(), posicion.distanciaHacia(posicionAdyacente), bateriaActual + "/" + bateriaMaxima);
                         setPosicion(posicionAdyacente);
                         System.out.println("Robot " + id + " llegó a una celda adyacente al cofre de origen " + origen.getId());
-                        consumirBateria(2);
+                        consumirBateria(CONSUMO_MANIOBRA);
                     } else {
                         LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_adjacente_origen", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                         System.out.println("Robot " + id + " no puede encontrar posición adyacente libre al origen.");
@@ -201,19 +305,22 @@ public class RobotLogistico implements Ubicable {
                     }
                 } else {
                     Punto siguientePaso = calcularSiguientePaso(posicion, origen.getPosicion());
-                    if (siguientePaso != null && esMovimientoValido(siguientePaso)) {
-                        LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_hacia_origen", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
-                        setPosicion(siguientePaso);
-                        int consumoBateria = (int) Math.ceil(posicion.distanciaHacia(siguientePaso) * ParametrosGenerales.FACTOR_CONSUMO);
+                    if (posicion.equals(siguientePaso)) {
+                        LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "espera_mov_origen", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
+                        System.out.println("Robot " + id + " espera su turno para avanzar hacia el origen.");
+                    } else if (siguientePaso != null && esMovimientoValido(siguientePaso)) {
+                        int consumoBateria = consumoPaso(posicion.distanciaHacia(siguientePaso), false);
                         try {
                             consumirBateria(consumoBateria);
-                            System.out.println("Robot " + id + " moviéndose hacia cofre origen. Posición: " + posicion + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
                         } catch (IllegalStateException e) {
                             LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_bateria_mov_origen", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
                             pedidoActual.marcarFallido();
                             finalizarPedido();
                             return false;
                         }
+                        LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_hacia_origen", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
+                        setPosicion(siguientePaso);
+                        System.out.println("Robot " + id + " moviéndose hacia cofre origen. Posición: " + posicion + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
                     } else {
                         LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "bloqueo_mov_origen", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                         System.out.println("Robot " + id + " no puede moverse hacia el origen. Posición bloqueada.");
@@ -231,7 +338,7 @@ public class RobotLogistico implements Ubicable {
                             LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "cargar_item", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                             cargaActual.put(item, cantidad);
                             System.out.println("Robot " + id + " cargó " + cantidad + " unidades de " + item.getNombre() + " desde " + origen.getId());
-                            consumirBateria(2);
+                            consumirBateria(CONSUMO_MANIOBRA);
                         } else {
                             LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_carga_item", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                             pedidoActual.marcarFallido();
@@ -244,6 +351,10 @@ public class RobotLogistico implements Ubicable {
                         finalizarPedido();
                         return false;
                     }
+                    // Los ítems ya salieron del cofre: avisar fuera del try para no marcar fallido un pedido cargado
+                    if (redLogistica != null) {
+                        redLogistica.notificarCambioStock(origen);
+                    }
                 } else {
                     LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "sin_stock_origen", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                     System.out.println("Robot " + id + " no pudo cargar items. Cantidad insuficiente en " + origen.getId());
@@ -261,7 +372,7 @@ public class RobotLogistico implements Ubicable {
                     LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_adjacente_destino", posicion.toString(), posicionAdyacente.toString(), posicion.distanciaHacia(posicionAdyacente), bateriaActual + "/" + bateriaMaxima);
                     setPosicion(posicionAdyacente);
                     System.out.println("Robot " + id + " llegó a una celda adyacente al cofre de destino " + destino.getId());
-                    consumirBateria(2);
+                    consumirBateria(CONSUMO_MANIOBRA);
                 } else {
                     LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_adjacente_destino", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                     System.out.println("Robot " + id + " no puede encontrar posición adyacente libre al destino.");
@@ -271,19 +382,22 @@ public class RobotLogistico implements Ubicable {
                 }
             } else {
                 Punto siguientePaso = calcularSiguientePaso(posicion, destino.getPosicion());
-                if (siguientePaso != null && esMovimientoValido(siguientePaso)) {
-                    LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_hacia_destino", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
-                    setPosicion(siguientePaso);
-                    int consumoBateria = (int) Math.ceil(posicion.distanciaHacia(siguientePaso) * ParametrosGenerales.FACTOR_CONSUMO * 1.5);
+                if (posicion.equals(siguientePaso)) {
+                    LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "espera_mov_destino", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
+                    System.out.println("Robot " + id + " espera su turno para avanzar hacia el destino.");
+                } else if (siguientePaso != null && esMovimientoValido(siguientePaso)) {
+                    int consumoBateria = consumoPaso(posicion.distanciaHacia(siguientePaso), true);
                     try {
                         consumirBateria(consumoBateria);
-                        System.out.println("Robot " + id + " moviéndose hacia cofre destino. Posición: " + posicion + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
                     } catch (IllegalStateException e) {
                         LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "fallo_bateria_mov_destino", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
                         pedidoActual.marcarFallido();
                         finalizarPedido();
                         return false;
                     }
+                    LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "mover_hacia_destino", posicion.toString(), siguientePaso.toString(), posicion.distanciaHacia(siguientePaso), bateriaActual + "/" + bateriaMaxima);
+                    setPosicion(siguientePaso);
+                    System.out.println("Robot " + id + " moviéndose hacia cofre destino. Posición: " + posicion + ", Batería: " + bateriaActual + "/" + bateriaMaxima);
                 } else {
                     LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "bloqueo_mov_destino", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                     System.out.println("Robot " + id + " no puede moverse hacia el destino. Posición bloqueada.");
@@ -299,16 +413,19 @@ public class RobotLogistico implements Ubicable {
             try {
                 destino.agregarItem(item, cantidad);
                 LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "descargar_item", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
-                    cargaActual.remove(item);
-                    pedidoActual.marcarCompletado();
-                    finalizarPedido();
-                    return false;
+                cargaActual.remove(item);
             } catch (Exception e) {
                 LoggerMovimientosRobots.getInstancia().logMovimiento(id, cicloActual, pedidoActual.toString(), "excepcion_descarga_item", posicion.toString(), posicion.toString(), 0, bateriaActual + "/" + bateriaMaxima);
                 pedidoActual.marcarFallido();
                 finalizarPedido();
                 return false;
             }
+            if (redLogistica != null) {
+                redLogistica.notificarCambioStock(destino);
+            }
+            pedidoActual.marcarCompletado();
+            finalizarPedido();
+            return false;
         }
         return true;
     }
@@ -329,12 +446,24 @@ public class RobotLogistico implements Ubicable {
 
         // Si estamos adyacentes al destino (robopuerto), permitir entrar directamente
         if (redLogistica != null) {
-            boolean destinoEsRobopuerto = redLogistica.getRobopuertos().stream().anyMatch(rp -> rp.getPosicion().equals(destino));
+            boolean destinoEsRobopuerto = redLogistica.hayRobopuertoEn(destino);
             if (destinoEsRobopuerto && esAdyacente(posicionActual, destino)) {
                 return destino;
             }
+
+            // Seguir el camino mínimo del replanificador incremental, si es un movimiento válido
+            Punto pasoPlanificado = redLogistica.calcularSiguientePaso(this, destino);
+            if (posicionActual.equals(pasoPlanificado)) {
+                System.out.println("Robot " + id + ": Esperando turno para avanzar hacia " + destino);
+                return posicionActual; // La planificación cooperativa indica esperar
+            }
+            if (pasoPlanificado != null && esMovimientoValido(pasoPlanificado, destino)) {
+                System.out.println("Robot " + id + ": Movimiento planificado hacia " + pasoPlanificado + " (destino: " + destino + ")");
+                return pasoPlanificado;
+            }
         }
-        
+
+        // Si no hay camino planificado, avanzar en forma directa hacia el destino
         // Calcular dirección hacia el destino
         int dx = Integer.compare(destino.getX(), posicionActual.getX());
         int dy = Integer.compare(destino.getY(), posicionActual.getY());
@@ -405,7 +534,7 @@ public class RobotLogistico implements Ubicable {
         // Verificar si la posición es un robopuerto
         boolean esRobopuerto = false;
         if (redLogistica != null) {
-            esRobopuerto = redLogistica.getRobopuertos().stream().anyMatch(rp -> rp.getPosicion().equals(nuevaPosicion));
+            esRobopuerto = redLogistica.hayRobopuertoEn(nuevaPosicion);
         }
         // Si NO es robopuerto, verificar colisión con otros robots
         if (!esRobopuerto) {
@@ -455,8 +584,7 @@ public class RobotLogistico implements Ubicable {
             return false; // Si no hay red, asumimos que no hay colisiones
         }
         
-        boolean hayColision = redLogistica.getRobotsLogisticos().stream()
-                .anyMatch(robot -> robot.getPosicion().equals(posicion) && !robot.equals(this));
+        boolean hayColision = redLogistica.hayOtroRobotEn(posicion, this);
         
         if (hayColision) {
             System.out.println("Robot " + id + ": Colisión detectada con otro robot en posición " + posicion);
@@ -477,8 +605,7 @@ public class RobotLogistico implements Ubicable {
             return false; // Si no hay red, asumimos que no hay colisiones
         }
         
-        boolean hayColision = redLogistica.getRobopuertos().stream()
-                .anyMatch(robopuerto -> robopuerto.getPosicion().equals(posicion));
+        boolean hayColision = redLogistica.hayRobopuertoEn(posicion);
         
         if (hayColision) {
             System.out.println("Robot " + id + ": Colisión detectada con robopuerto en posición " + posicion);
@@ -499,8 +626,7 @@ public class RobotLogistico implements Ubicable {
             return false; // Si no hay red, asumimos que no hay colisiones
         }
         
-        boolean hayColision = redLogistica.getCofres().stream()
-                .anyMatch(cofre -> cofre.getPosicion().equals(posicion));
+        boolean hayColision = redLogistica.hayCofreEn(posicion);
         
         if (hayColision) {
             System.out.println("Robot " + id + ": Colisión detectada con cofre en posición " + posicion);
@@ -530,8 +656,7 @@ public class RobotLogistico implements Ubicable {
             return true; // Si no hay red, asumimos que siempre está dentro del alcance
         }
         
-        boolean dentroDelAlcance = redLogistica.getRobopuertos().stream()
-                .anyMatch(robopuerto -> robopuerto.estaEnCobertura(posicion));
+        boolean dentroDelAlcance = redLogistica.estaEnCobertura(posicion);
         
         if (!dentroDelAlcance) {
             System.out.println("Robot " + id + ": Posición " + posicion + " está fuera del alcance de todos los robopuertos");
@@ -600,6 +725,9 @@ public class RobotLogistico implements Ubicable {
         }
 
         this.estado = nuevoEstado;
+        if (nuevoEstado == EstadoRobot.PASIVO && redLogistica != null) {
+            redLogistica.liberarMision(this); // Detenido en un robopuerto hasta que lo recarguen
+        }
         registrarCambioEstado(); //mostramos el cambio de estado en pantalla (Registrar los movimientos, distancias y decisiones tomadas en cada ciclo.)
     }
 
@@ -653,6 +781,15 @@ public class RobotLogistico implements Ubicable {
         return bateria;
     }
 
+    /**
+     * Batería que consume un paso de la distancia dada. Con ítems cargados cada paso consume
+     * {@link #FACTOR_CONSUMO_CARGADO} veces más; el planificador usa esta misma cuenta para
+     * estimar la batería de una misión.
+     */
+    public static int consumoPaso(double distancia, boolean cargado) {
+        return (int) Math.ceil(distancia * ParametrosGenerales.FACTOR_CONSUMO * (cargado ? FACTOR_CONSUMO_CARGADO : 1.0));
+    }
+
     public boolean tieneSuficienteBateria(int bateriaNecesaria) {
         return this.bateriaActual >= bateriaNecesaria;
     }
@@ -681,15 +818,14 @@ public class RobotLogistico implements Ubicable {
     //Métodos para manejar movimientos
 
     public void moverA(Punto nuevaUbicacion) {
-        double distancia = posicion.distanciaHacia(nuevaUbicacion);
-        int bateriaNecesaria = (int) Math.ceil(distancia * ParametrosGenerales.FACTOR_CONSUMO);  // Asumiendo factor de consumo = 1 | a cambiar esto para que sea dinámico
+        int bateriaNecesaria = consumoPaso(posicion.distanciaHacia(nuevaUbicacion), false);
 
         if (!tieneSuficienteBateria(bateriaNecesaria)) {
             throw new IllegalStateException("Energía insuficiente para el movimiento");
         }
 
         consumirBateria(bateriaNecesaria);
-        this.posicion = nuevaUbicacion;
+        setPosicion(nuevaUbicacion);
     }
 
     // Métodos para manejar la carga (ítems)
@@ -718,7 +854,7 @@ public class RobotLogistico implements Ubicable {
             if (cofreEntrega != null && cofreSiguienteOrigen != null) {
                 ruta = calcularRutaReal(cofreEntrega.getPosicion(), cofreSiguienteOrigen.getPosicion());
                 // Si el origen es un cofre y la ruta termina en una celda adyacente, agregar el punto del cofre como último punto visual
-                boolean destinoEsCofre = redLogistica.getCofres().stream().anyMatch(c -> c.getPosicion().equals(cofreSiguienteOrigen.getPosicion()));
+                boolean destinoEsCofre = redLogistica.hayCofreEn(cofreSiguienteOrigen.getPosicion());
                 if (destinoEsCofre && !ruta.isEmpty()) {
                     Punto ultimo = ruta.get(ruta.size() - 1);
                     if (esAdyacente(ultimo, cofreSiguienteOrigen.getPosicion()) && !ultimo.equals(cofreSiguienteOrigen.getPosicion())) {
@@ -790,13 +926,18 @@ public class RobotLogistico implements Ubicable {
             }
         }
 
-        // Calcular la ruta real que seguirá el robot usando su algoritmo de movimiento
-        ruta = calcularRutaReal(posicion, puntoDestino);
+        // Usar la ruta que el robot ya tiene planificada; si no tiene una, simular su algoritmo de movimiento
+        if (redLogistica != null) {
+            ruta = redLogistica.getRutaPlanificada(this, puntoDestino);
+        }
+        if (ruta.isEmpty()) {
+            ruta = calcularRutaReal(posicion, puntoDestino);
+        }
 
         // Si el destino es un cofre y la ruta termina en una celda adyacente, agregar el punto del cofre como último punto visual
         boolean destinoEsCofre = false;
         if (puntoDestino != null && redLogistica != null) {
-            destinoEsCofre = redLogistica.getCofres().stream().anyMatch(c -> c.getPosicion().equals(puntoDestino));
+            destinoEsCofre = redLogistica.hayCofreEn(puntoDestino);
         }
         if (destinoEsCofre && !ruta.isEmpty()) {
             Punto ultimo = ruta.get(ruta.size() - 1);
@@ -0,0 +1,117 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Asignación de costo mínimo entre filas y columnas de una matriz (método húngaro con
+ * potenciales, O(n² m)). La matriz puede ser rectangular: se asignan tantos pares como el
+ * menor de sus lados. Los costos infinitos marcan pares prohibidos; una fila que solo puede
+ * quedar en pares prohibidos se devuelve sin asignar.
+ */
+public final class AsignadorHungaro {
+
+    private AsignadorHungaro() {
+    }
+
+    /**
+     * @param costos Matriz de costos, costos[fila][columna]; todas las filas del mismo largo
+     * @return Columna asignada a cada fila, o -1 si la fila queda sin asignar
+     */
+    public static int[] resolver(double[][] costos) {
+        int filas = costos.length;
+        int columnas = filas == 0 ? 0 : costos[0].length;
+        for (double[] fila : costos) {
+            if (fila.length != columnas) {
+                throw new IllegalArgumentException("Todas las filas de la matriz deben tener el mismo largo");
+            }
+        }
+        int[] asignacion = new int[filas];
+        Arrays.fill(asignacion, -1);
+        if (filas == 0 || columnas == 0) {
+            return asignacion;
+        }
+
+        // Los pares prohibidos cuestan más que cualquier asignación con pares permitidos
+        double maximo = 0.0;
+        for (double[] fila : costos) {
+            for (double costo : fila) {
+                if (costo != Double.POSITIVE_INFINITY) {
+                    maximo = Math.max(maximo, Math.abs(costo));
+                }
+            }
+        }
+        double prohibido = (maximo + 1.0) * (Math.min(filas, columnas) + 1);
+
+        // El algoritmo recorre el lado menor
+        boolean traspuesta = filas > columnas;
+        int n = traspuesta ? columnas : filas;
+        int m = traspuesta ? filas : columnas;
+        double[][] a = new double[n][m];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                double costo = traspuesta ? costos[j][i] : costos[i][j];
+                a[i][j] = costo == Double.POSITIVE_INFINITY ? prohibido : costo;
+            }
+        }
+
+        // Potenciales de filas (u) y columnas (v), indexados desde 1; p[j] es la fila de la columna j
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] camino = new int[m + 1];
+        double[] minimos = new double[m + 1];
+        boolean[] usadas = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            Arrays.fill(minimos, Double.POSITIVE_INFINITY);
+            Arrays.fill(usadas, false);
+            do {
+                usadas[j0] = true;
+                int i0 = p[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!usadas[j]) {
+                        double reducido = a[i0 - 1][j - 1] - u[i0] - v[j];
+                        if (reducido < minimos[j]) {
+                            minimos[j] = reducido;
+                            camino[j] = j0;
+                        }
+                        if (minimos[j] < delta) {
+                            delta = minimos[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (usadas[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minimos[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            // Invertir el camino aumentante
+            do {
+                int j1 = camino[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        for (int j = 1; j <= m; j++) {
+            if (p[j] == 0) {
+                continue;
+            }
+            int fila = traspuesta ? j - 1 : p[j] - 1;
+            int columna = traspuesta ? p[j] - 1 : j - 1;
+            if (costos[fila][columna] != Double.POSITIVE_INFINITY) {
+                asignacion[fila] = columna;
+            }
+        }
+        return asignacion;
+    }
+}
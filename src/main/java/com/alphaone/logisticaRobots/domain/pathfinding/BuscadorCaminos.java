@@ -0,0 +1,34 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+/**
+ * Estrategia de búsqueda de caminos mínimos sobre un {@link GrafoCompacto}, desde una celda
+ * origen hasta la más cercana de un conjunto de celdas objetivo.
+ */
+public interface BuscadorCaminos {
+    /**
+     * Busca el camino mínimo desde el origen hasta el objetivo más cercano del conjunto.
+     *
+     * @param origen Celda origen
+     * @param objetivos Celdas objetivo
+     * @param escalaHeuristica Costo mínimo de un paso entre celdas vecinas
+     * @return Celda objetivo alcanzada, o -1 si ninguna es alcanzable
+     */
+    int buscarHastaObjetivos(int origen, int[] objetivos, double escalaHeuristica);
+
+    /**
+     * Reconstruye, celda por celda, el camino de la última búsqueda hasta la celda dada.
+     *
+     * @return Celdas del camino (origen primero), o un arreglo vacío si no es alcanzable
+     */
+    int[] reconstruirCamino(int destino);
+
+    /**
+     * @return distancia mínima desde el último origen, o Double.MAX_VALUE si no es alcanzable
+     */
+    double getDistancia(int celda);
+
+    /**
+     * @return cantidad de nodos expandidos por la última búsqueda
+     */
+    int getNodosExpandidos();
+}
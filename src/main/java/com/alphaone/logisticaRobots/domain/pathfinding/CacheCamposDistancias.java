@@ -0,0 +1,119 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+
+/**
+ * Caché de campos de distancia por celda destino, con un presupuesto de memoria.
+ * Cuando se supera el presupuesto descarta los campos usados hace más tiempo (LRU),
+ * conservando siempre el último pedido. Es segura para uso concurrente: los hilos de
+ * evaluación de robots la consultan a la vez. Los campos que faltan se construyen fuera del
+ * lock, así que un hilo que calcula un campo no frena a los que piden otros; los que piden
+ * el mismo campo esperan a que termine esa construcción en lugar de repetirla.
+ */
+public class CacheCamposDistancias {
+    private final long presupuestoBytes;
+    private final LinkedHashMap<Integer, CampoDistancias> campos = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, CompletableFuture<CampoDistancias>> enConstruccion = new HashMap<>();
+    private long bytesEnUso;
+    private long generacion; // Cambia al invalidar: un campo que se estaba construyendo ya no se guarda
+
+    public CacheCamposDistancias(long presupuestoBytes) {
+        if (presupuestoBytes <= 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria debe ser positivo");
+        }
+        this.presupuestoBytes = presupuestoBytes;
+    }
+
+    /**
+     * Devuelve el campo hacia la celda destino, calculándolo con la fábrica si no está en caché.
+     */
+    public CampoDistancias obtener(int celdaDestino, IntFunction<CampoDistancias> fabrica) {
+        CompletableFuture<CampoDistancias> pendiente;
+        boolean construir;
+        long generacionConstruccion;
+        synchronized (this) {
+            CampoDistancias campo = campos.get(celdaDestino);
+            if (campo != null) {
+                return campo;
+            }
+            pendiente = enConstruccion.get(celdaDestino);
+            construir = pendiente == null;
+            if (construir) {
+                pendiente = new CompletableFuture<>();
+                enConstruccion.put(celdaDestino, pendiente);
+            }
+            generacionConstruccion = generacion;
+        }
+        if (!construir) {
+            // Otro hilo ya lo está construyendo: se espera fuera del lock
+            return esperar(pendiente);
+        }
+
+        CampoDistancias campo;
+        try {
+            campo = fabrica.apply(celdaDestino);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                enConstruccion.remove(celdaDestino, pendiente);
+            }
+            pendiente.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            enConstruccion.remove(celdaDestino, pendiente);
+            if (generacionConstruccion == generacion) {
+                campos.put(celdaDestino, campo);
+                bytesEnUso += campo.getTamanioBytes();
+                liberarExcedente();
+            }
+        }
+        pendiente.complete(campo);
+        return campo;
+    }
+
+    private static CampoDistancias esperar(CompletableFuture<CampoDistancias> pendiente) {
+        try {
+            return pendiente.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void liberarExcedente() {
+        Iterator<Map.Entry<Integer, CampoDistancias>> it = campos.entrySet().iterator();
+        while (bytesEnUso > presupuestoBytes && campos.size() > 1) {
+            bytesEnUso -= it.next().getValue().getTamanioBytes();
+            it.remove();
+        }
+    }
+
+    /**
+     * Descarta todos los campos, por ejemplo cuando cambian los obstáculos fijos.
+     */
+    public synchronized void invalidar() {
+        campos.clear();
+        enConstruccion.clear();
+        bytesEnUso = 0;
+        generacion++;
+    }
+
+    public synchronized int getCantidadCampos() {
+        return campos.size();
+    }
+
+    public synchronized long getBytesEnUso() {
+        return bytesEnUso;
+    }
+}
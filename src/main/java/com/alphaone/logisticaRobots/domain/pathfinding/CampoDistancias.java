@@ -0,0 +1,128 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Campo de distancias (flow field) hacia un conjunto de celdas objetivo: guarda para cada celda
+ * la cantidad de pasos hasta el objetivo más cercano, calculada con un BFS inverso desde los
+ * objetivos. Todos los robots que van al mismo destino comparten el campo y obtienen su
+ * siguiente paso en O(1) mirando a sus cuatro vecinas.
+ * <p>
+ * El campo solo considera las restricciones fijas de la celda; los robots se evitan al
+ * consultar, descartando las vecinas bloqueadas en el grafo en ese momento.
+ */
+public class CampoDistancias {
+    private static final int INALCANZABLE = Integer.MAX_VALUE;
+
+    private final GrafoCompacto grafo;
+    private final int[] pasos;
+
+    /**
+     * @param grafo Grafo sobre el que se calcula el campo
+     * @param objetivos Celdas objetivo
+     * @param celdaPermitida Indica si una celda puede formar parte del camino
+     */
+    public CampoDistancias(GrafoCompacto grafo, int[] objetivos, IntPredicate celdaPermitida) {
+        this.grafo = grafo;
+        this.pasos = new int[grafo.getCantidadCeldas()];
+        Arrays.fill(pasos, INALCANZABLE);
+
+        int[] cola = new int[pasos.length];
+        int cabeza = 0;
+        int fin = 0;
+        for (int objetivo : objetivos) {
+            if (pasos[objetivo] == INALCANZABLE && celdaPermitida.test(objetivo)) {
+                pasos[objetivo] = 0;
+                cola[fin++] = objetivo;
+            }
+        }
+        // La grilla es ortogonal y simétrica: recorrer desde los objetivos da la distancia hacia ellos
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            for (int arista = grafo.inicioAristas(actual), ultima = grafo.finAristas(actual); arista < ultima; arista++) {
+                int vecino = grafo.destino(arista);
+                if (pasos[vecino] == INALCANZABLE && celdaPermitida.test(vecino)) {
+                    pasos[vecino] = pasos[actual] + 1;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+    }
+
+    /**
+     * Elige la vecina libre más cercana al objetivo, siempre que acerque al robot.
+     * Una celda fuera del campo (por ejemplo, el robopuerto del que sale el robot) puede
+     * avanzar a cualquier vecina que pertenezca al campo.
+     *
+     * @param celdaActual Celda en la que está el robot
+     * @return Celda vecina hacia la que avanzar, la misma celda si ya es objetivo,
+     *         o -1 si todas las vecinas que acercan están ocupadas o no hay camino
+     */
+    public int siguientePaso(int celdaActual) {
+        int actual = pasos[celdaActual];
+        if (actual == 0) {
+            return celdaActual;
+        }
+        int mejor = -1;
+        int mejoresPasos = actual;
+        for (int arista = grafo.inicioAristas(celdaActual), fin = grafo.finAristas(celdaActual); arista < fin; arista++) {
+            int vecino = grafo.destino(arista);
+            if (pasos[vecino] < mejoresPasos && !grafo.estaBloqueada(vecino)) {
+                mejoresPasos = pasos[vecino];
+                mejor = vecino;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Recorre el campo cuesta abajo desde una celda hasta el objetivo, sin tener en cuenta a
+     * los robots: es el camino mínimo que seguiría un robot si nadie se le cruza.
+     *
+     * @param celdaInicio Celda de partida (puede estar fuera del campo, como un robopuerto)
+     * @return Celdas del camino, empezando en la de partida y terminando en un objetivo,
+     *         o null si no hay camino
+     */
+    public int[] caminoDesde(int celdaInicio) {
+        int actual = celdaInicio;
+        int actuales = pasos[actual];
+        if (actuales == INALCANZABLE) {
+            // Fuera del campo: el camino sigue por la mejor vecina que pertenece a él
+            for (int arista = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); arista < fin; arista++) {
+                actuales = Math.min(actuales, pasos[grafo.destino(arista)]);
+            }
+            if (actuales == INALCANZABLE) {
+                return null;
+            }
+            actuales++;
+        }
+        int[] camino = new int[actuales + 1];
+        camino[0] = actual;
+        for (int i = 1; i < camino.length; i++) {
+            for (int arista = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                if (pasos[vecino] == camino.length - 1 - i) {
+                    actual = vecino;
+                    break;
+                }
+            }
+            camino[i] = actual;
+        }
+        return camino;
+    }
+
+    /**
+     * @return pasos desde la celda hasta el objetivo más cercano, o -1 si no es alcanzable
+     */
+    public int getPasos(int celda) {
+        return pasos[celda] == INALCANZABLE ? -1 : pasos[celda];
+    }
+
+    /**
+     * @return memoria aproximada que ocupa el campo, en bytes
+     */
+    public long getTamanioBytes() {
+        return 4L * pasos.length;
+    }
+}
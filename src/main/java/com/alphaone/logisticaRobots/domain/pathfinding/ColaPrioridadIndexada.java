@@ -0,0 +1,184 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos sobre enteros densos (0..capacidad-1) con prioridad double.
+ * Permite disminuir la prioridad de un elemento ya encolado en O(log n) y se reutiliza entre
+ * búsquedas sin volver a reservar memoria. Opcionalmente cada elemento lleva una segunda
+ * prioridad que desempata cuando las primeras son iguales (orden lexicográfico).
+ */
+public class ColaPrioridadIndexada {
+    private int[] monticulo;      // elementos ordenados como montículo
+    private int[] posiciones;     // posición de cada elemento en el montículo, -1 si no está
+    private double[] prioridades; // prioridad de cada elemento encolado
+    private double[] desempates;  // segunda prioridad de cada elemento encolado
+    private int tamanio;
+
+    public ColaPrioridadIndexada(int capacidad) {
+        this.monticulo = new int[capacidad];
+        this.posiciones = new int[capacidad];
+        this.prioridades = new double[capacidad];
+        this.desempates = new double[capacidad];
+        Arrays.fill(posiciones, -1);
+    }
+
+    public int getCapacidad() {
+        return posiciones.length;
+    }
+
+    public boolean estaVacia() {
+        return tamanio == 0;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    public boolean contiene(int elemento) {
+        return posiciones[elemento] != -1;
+    }
+
+    public double getPrioridad(int elemento) {
+        return prioridades[elemento];
+    }
+
+    /**
+     * Agrega el elemento o actualiza su prioridad si ya estaba encolado.
+     */
+    public void insertarOActualizar(int elemento, double prioridad) {
+        insertarOActualizar(elemento, prioridad, 0.0);
+    }
+
+    /**
+     * Agrega el elemento o actualiza su prioridad si ya estaba encolado, con una segunda
+     * prioridad que desempata entre elementos de igual prioridad.
+     */
+    public void insertarOActualizar(int elemento, double prioridad, double desempate) {
+        int pos = posiciones[elemento];
+        if (pos == -1) {
+            monticulo[tamanio] = elemento;
+            posiciones[elemento] = tamanio;
+            prioridades[elemento] = prioridad;
+            desempates[elemento] = desempate;
+            subir(tamanio++);
+        } else {
+            double anterior = prioridades[elemento];
+            double desempateAnterior = desempates[elemento];
+            prioridades[elemento] = prioridad;
+            desempates[elemento] = desempate;
+            if (prioridad < anterior || (prioridad == anterior && desempate < desempateAnterior)) {
+                subir(pos);
+            } else if (prioridad > anterior || desempate > desempateAnterior) {
+                bajar(pos);
+            }
+        }
+    }
+
+    public int verMinimo() {
+        return monticulo[0];
+    }
+
+    public double verPrioridadMinima() {
+        return prioridades[monticulo[0]];
+    }
+
+    public double verDesempateMinimo() {
+        return desempates[monticulo[0]];
+    }
+
+    public int extraerMinimo() {
+        int minimo = monticulo[0];
+        quitarEn(0);
+        return minimo;
+    }
+
+    public void quitar(int elemento) {
+        int pos = posiciones[elemento];
+        if (pos != -1) {
+            quitarEn(pos);
+        }
+    }
+
+    /**
+     * Vacía la cola en O(tamaño) dejando todas las posiciones listas para reutilizar.
+     */
+    public void limpiar() {
+        for (int i = 0; i < tamanio; i++) {
+            posiciones[monticulo[i]] = -1;
+        }
+        tamanio = 0;
+    }
+
+    /**
+     * Amplía la capacidad conservando el contenido.
+     */
+    public void asegurarCapacidad(int capacidad) {
+        if (capacidad <= posiciones.length) {
+            return;
+        }
+        int anterior = posiciones.length;
+        monticulo = Arrays.copyOf(monticulo, capacidad);
+        prioridades = Arrays.copyOf(prioridades, capacidad);
+        desempates = Arrays.copyOf(desempates, capacidad);
+        posiciones = Arrays.copyOf(posiciones, capacidad);
+        Arrays.fill(posiciones, anterior, capacidad, -1);
+    }
+
+    private void quitarEn(int pos) {
+        int elemento = monticulo[pos];
+        posiciones[elemento] = -1;
+        tamanio--;
+        if (pos == tamanio) {
+            return;
+        }
+        int ultimo = monticulo[tamanio];
+        monticulo[pos] = ultimo;
+        posiciones[ultimo] = pos;
+        subir(pos);
+        bajar(posiciones[ultimo]);
+    }
+
+    private void subir(int pos) {
+        int elemento = monticulo[pos];
+        while (pos > 0) {
+            int padre = (pos - 1) >>> 1;
+            int elementoPadre = monticulo[padre];
+            if (!esMenor(elemento, elementoPadre)) {
+                break;
+            }
+            monticulo[pos] = elementoPadre;
+            posiciones[elementoPadre] = pos;
+            pos = padre;
+        }
+        monticulo[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+
+    private void bajar(int pos) {
+        int elemento = monticulo[pos];
+        int mitad = tamanio >>> 1;
+        while (pos < mitad) {
+            int hijo = 2 * pos + 1;
+            int derecho = hijo + 1;
+            if (derecho < tamanio && esMenor(monticulo[derecho], monticulo[hijo])) {
+                hijo = derecho;
+            }
+            int elementoHijo = monticulo[hijo];
+            if (!esMenor(elementoHijo, elemento)) {
+                break;
+            }
+            monticulo[pos] = elementoHijo;
+            posiciones[elementoHijo] = pos;
+            pos = hijo;
+        }
+        monticulo[pos] = elemento;
+        posiciones[elemento] = pos;
+    }
+
+    private boolean esMenor(int a, int b) {
+        double pa = prioridades[a];
+        double pb = prioridades[b];
+        return pa < pb || (pa == pb && desempates[a] < desempates[b]);
+    }
+}
@@ -0,0 +1,23 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+/**
+ * Estrategias de búsqueda de caminos disponibles para el planificador.
+ */
+public enum EstrategiaBusqueda {
+    /** A* sobre todas las celdas, válido para cualquier peso de arista. */
+    A_ESTRELLA {
+        @Override
+        public BuscadorCaminos crear(GrafoCompacto grafo) {
+            return new MotorBusqueda(grafo);
+        }
+    },
+    /** Jump Point Search de 4 vecinos; requiere que todas las aristas tengan el mismo peso. */
+    JUMP_POINT_SEARCH {
+        @Override
+        public BuscadorCaminos crear(GrafoCompacto grafo) {
+            return new BuscadorJPS(grafo);
+        }
+    };
+
+    public abstract BuscadorCaminos crear(GrafoCompacto grafo);
+}
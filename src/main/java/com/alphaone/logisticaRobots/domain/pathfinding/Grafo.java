@@ -10,10 +10,15 @@ public class Grafo {
     }
 
     public void agregarNodo(Nodo nodo) {
+        nodo.setIndice(nodos.size());
         nodos.add(nodo);
     }
 
     public List<Nodo> getNodos() {
         return nodos;
     }
+
+    public int getCantidadNodos() {
+        return nodos.size();
+    }
 }
\ No newline at end of file
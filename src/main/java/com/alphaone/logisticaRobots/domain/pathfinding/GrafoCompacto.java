@@ -0,0 +1,267 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Grafo de la grilla espacial en formato de filas dispersas comprimidas (CSR).
+ * Cada celda se identifica por el entero {@code (y - y0) * ancho + (x - x0)} y sus aristas
+ * salientes ocupan el rango {@code [inicios[celda], inicios[celda + 1])} de los arreglos
+ * {@code destinos} y {@code pesos}. Reemplaza los objetos Nodo/Arista/Punto por celda con
+ * tres arreglos primitivos contiguos, lo que reduce memoria y saltos de puntero al buscar.
+ * <p>
+ * Las aristas describen la topología completa de la grilla; qué celdas se pueden ocupar se
+ * guarda aparte en un bitset de celdas bloqueadas. Una arista solo se puede usar si su celda
+ * destino no está bloqueada, de modo que bloquear o liberar una celda cuesta O(1) y no obliga
+ * a reconstruir el grafo. Los {@link ObservadorGrafo} registrados se enteran de cada cambio.
+ */
+public class GrafoCompacto {
+
+    // Vecinos ortogonales en el mismo orden que usaba el grafo de objetos
+    private static final int[][] ORTOGONALES = { {1,0}, {-1,0}, {0,1}, {0,-1} };
+
+    private final int origenX;
+    private final int origenY;
+    private final int ancho;
+    private final int alto;
+    private final int[] inicios;
+    private final int[] destinos;
+    private final float[] pesos;
+    private final float pesoPaso;
+    private final BitSet bloqueadas;
+    private final List<ObservadorGrafo> observadores = new ArrayList<>();
+
+    private GrafoCompacto(int origenX, int origenY, int ancho, int alto, int[] inicios, int[] destinos, float[] pesos, float pesoPaso, BitSet bloqueadas) {
+        this.origenX = origenX;
+        this.origenY = origenY;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.inicios = inicios;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.pesoPaso = pesoPaso;
+        this.bloqueadas = bloqueadas;
+    }
+
+    /**
+     * Construye el grafo conectando cada celda con sus vecinas ortogonales.
+     * Las celdas no transitables quedan bloqueadas: existen en la topología, pero no se puede entrar a ellas.
+     *
+     * @param grilla Grilla espacial a representar
+     * @param transitable Indica, por índice de celda, si se puede entrar a la celda
+     * @param peso Peso de cada arista entre celdas vecinas
+     * @return Grafo compacto de la grilla
+     */
+    public static GrafoCompacto desdeGrilla(GrillaEspacial grilla, IntPredicate transitable, double peso) {
+        int ancho = grilla.getAncho();
+        int alto = grilla.getAlto();
+        int cantidadCeldas = ancho * alto;
+        float pesoArista = (float) peso;
+
+        // Primera pasada: contar aristas para dimensionar los arreglos
+        int[] inicios = new int[cantidadCeldas + 1];
+        for (int celda = 0; celda < cantidadCeldas; celda++) {
+            int x = celda % ancho;
+            int y = celda / ancho;
+            int grado = 0;
+            for (int[] dir : ORTOGONALES) {
+                int vx = x + dir[0];
+                int vy = y + dir[1];
+                if (vx >= 0 && vx < ancho && vy >= 0 && vy < alto) {
+                    grado++;
+                }
+            }
+            inicios[celda + 1] = inicios[celda] + grado;
+        }
+
+        // Segunda pasada: completar destinos y pesos
+        int[] destinos = new int[inicios[cantidadCeldas]];
+        float[] pesos = new float[inicios[cantidadCeldas]];
+        int arista = 0;
+        for (int celda = 0; celda < cantidadCeldas; celda++) {
+            int x = celda % ancho;
+            int y = celda / ancho;
+            for (int[] dir : ORTOGONALES) {
+                int vx = x + dir[0];
+                int vy = y + dir[1];
+                if (vx >= 0 && vx < ancho && vy >= 0 && vy < alto) {
+                    destinos[arista] = vy * ancho + vx;
+                    pesos[arista] = pesoArista;
+                    arista++;
+                }
+            }
+        }
+
+        BitSet bloqueadas = new BitSet(cantidadCeldas);
+        for (int celda = 0; celda < cantidadCeldas; celda++) {
+            if (!transitable.test(celda)) {
+                bloqueadas.set(celda);
+            }
+        }
+
+        Punto origen = grilla.getOrigen();
+        return new GrafoCompacto(origen.getX(), origen.getY(), ancho, alto, inicios, destinos, pesos, pesoArista, bloqueadas);
+    }
+
+    public int getCantidadCeldas() {
+        return ancho * alto;
+    }
+
+    public int getCantidadAristas() {
+        return destinos.length;
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    /**
+     * @return índice de la celda en (x, y), o -1 si está fuera de la grilla
+     */
+    public int indiceDe(int x, int y) {
+        int dx = x - origenX;
+        int dy = y - origenY;
+        if (dx < 0 || dx >= ancho || dy < 0 || dy >= alto) {
+            return -1;
+        }
+        return dy * ancho + dx;
+    }
+
+    public int indiceDe(Punto punto) {
+        return indiceDe(punto.getX(), punto.getY());
+    }
+
+    /**
+     * Devuelve la celda más cercana (en distancia euclídea) a un punto. Para puntos dentro de la
+     * grilla es su propia celda; para puntos fuera basta con acotar cada coordenada al rectángulo,
+     * por lo que no hace falta recorrer las celdas.
+     *
+     * @return índice de la celda más cercana, o -1 si la grilla no tiene celdas
+     */
+    public int celdaMasCercana(Punto punto) {
+        if (ancho <= 0 || alto <= 0) {
+            return -1;
+        }
+        int dx = Math.max(0, Math.min(ancho - 1, punto.getX() - origenX));
+        int dy = Math.max(0, Math.min(alto - 1, punto.getY() - origenY));
+        return dy * ancho + dx;
+    }
+
+    public int getX(int celda) {
+        return origenX + celda % ancho;
+    }
+
+    public int getY(int celda) {
+        return origenY + celda / ancho;
+    }
+
+    public Punto puntoDe(int celda) {
+        return new Punto(getX(celda), getY(celda));
+    }
+
+    public int inicioAristas(int celda) {
+        return inicios[celda];
+    }
+
+    public int finAristas(int celda) {
+        return inicios[celda + 1];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public float peso(int arista) {
+        return pesos[arista];
+    }
+
+    /**
+     * @return peso de cada arista entre celdas vecinas (todas las aristas pesan lo mismo)
+     */
+    public float getPesoPaso() {
+        return pesoPaso;
+    }
+
+    public boolean estaBloqueada(int celda) {
+        return bloqueadas.get(celda);
+    }
+
+    /**
+     * Indica si la arista se puede recorrer, es decir, si su celda destino no está bloqueada.
+     */
+    public boolean esAristaUtilizable(int arista) {
+        return !bloqueadas.get(destinos[arista]);
+    }
+
+    /**
+     * Marca una celda como no transitable. Las aristas que entran a ella dejan de poder usarse.
+     *
+     * @return true si la celda cambió de estado
+     */
+    public boolean bloquear(int celda) {
+        if (bloqueadas.get(celda)) {
+            return false;
+        }
+        bloqueadas.set(celda);
+        notificarObservadores(celda, true);
+        return true;
+    }
+
+    /**
+     * Marca una celda como transitable. Las aristas que entran a ella vuelven a poder usarse.
+     *
+     * @return true si la celda cambió de estado
+     */
+    public boolean liberar(int celda) {
+        if (!bloqueadas.get(celda)) {
+            return false;
+        }
+        bloqueadas.clear(celda);
+        notificarObservadores(celda, false);
+        return true;
+    }
+
+    public void registrarObservador(ObservadorGrafo observador) {
+        observadores.add(observador);
+    }
+
+    public void removerObservador(ObservadorGrafo observador) {
+        observadores.remove(observador);
+    }
+
+    private void notificarObservadores(int celda, boolean bloqueada) {
+        for (ObservadorGrafo observador : observadores) {
+            observador.celdaActualizada(celda, bloqueada);
+        }
+    }
+
+    /**
+     * Materializa el grafo como objetos Nodo/Arista con las aristas utilizables en este momento.
+     * Los nodos se agregan en orden de celda, por lo que el ordinal de cada Nodo coincide con su
+     * índice de celda.
+     */
+    public Grafo aGrafo() {
+        Grafo grafo = new Grafo();
+        int cantidadCeldas = getCantidadCeldas();
+        Nodo[] nodos = new Nodo[cantidadCeldas];
+        for (int celda = 0; celda < cantidadCeldas; celda++) {
+            nodos[celda] = new Nodo(puntoDe(celda));
+            grafo.agregarNodo(nodos[celda]);
+        }
+        for (int celda = 0; celda < cantidadCeldas; celda++) {
+            for (int arista = inicios[celda]; arista < inicios[celda + 1]; arista++) {
+                if (bloqueadas.get(destinos[arista])) {
+                    continue;
+                }
+                nodos[celda].agregarArista(new Arista(nodos[celda], nodos[destinos[arista]], pesos[arista]));
+            }
+        }
+        return grafo;
+    }
+}
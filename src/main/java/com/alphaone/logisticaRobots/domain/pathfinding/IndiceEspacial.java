@@ -0,0 +1,217 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Ubicable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice espacial por cubetas uniformes: el plano se divide en cuadrados de lado fijo y cada
+ * elemento se guarda en la cubeta de su posición. Las consultas por punto miran una sola
+ * cubeta y las de vecino más cercano recorren anillos de cubetas alrededor del punto,
+ * deteniéndose en cuanto ningún anillo restante puede tener algo más cerca.
+ * <p>
+ * Las posiciones pueden cambiar: {@link #actualizar(Ubicable)} mueve el elemento de cubeta si
+ * hace falta, en O(1). Ante distancias iguales gana el elemento agregado primero.
+ * No es seguro para uso concurrente.
+ */
+public final class IndiceEspacial<T extends Ubicable> {
+    private final int tamanioCubeta;
+    private final Map<Long, List<T>> cubetas = new HashMap<>();
+    private final Map<T, Long> cubetaPorElemento = new IdentityHashMap<>();
+    private final Map<T, Integer> ordenPorElemento = new IdentityHashMap<>();
+    private int siguienteOrden;
+
+    // Cubetas extremas ocupadas alguna vez, para acotar la búsqueda por anillos
+    private int minimoX = Integer.MAX_VALUE;
+    private int maximoX = Integer.MIN_VALUE;
+    private int minimoY = Integer.MAX_VALUE;
+    private int maximoY = Integer.MIN_VALUE;
+
+    /**
+     * @param tamanioCubeta Lado de cada cubeta, en celdas
+     */
+    public IndiceEspacial(int tamanioCubeta) {
+        if (tamanioCubeta <= 0) {
+            throw new IllegalArgumentException("El tamaño de cubeta debe ser positivo");
+        }
+        this.tamanioCubeta = tamanioCubeta;
+    }
+
+    public IndiceEspacial(int tamanioCubeta, Collection<? extends T> elementos) {
+        this(tamanioCubeta);
+        for (T elemento : elementos) {
+            agregar(elemento);
+        }
+    }
+
+    private static long clave(int cubetaX, int cubetaY) {
+        return ((long) cubetaX << 32) | (cubetaY & 0xFFFFFFFFL);
+    }
+
+    private long claveDe(Punto punto) {
+        return clave(Math.floorDiv(punto.getX(), tamanioCubeta), Math.floorDiv(punto.getY(), tamanioCubeta));
+    }
+
+    public void agregar(T elemento) {
+        if (cubetaPorElemento.containsKey(elemento)) {
+            return;
+        }
+        ordenPorElemento.put(elemento, siguienteOrden++);
+        insertar(elemento, claveDe(elemento.getPosicion()));
+    }
+
+    private void insertar(T elemento, long clave) {
+        cubetas.computeIfAbsent(clave, c -> new ArrayList<>()).add(elemento);
+        cubetaPorElemento.put(elemento, clave);
+        int cubetaX = (int) (clave >> 32);
+        int cubetaY = (int) clave;
+        minimoX = Math.min(minimoX, cubetaX);
+        maximoX = Math.max(maximoX, cubetaX);
+        minimoY = Math.min(minimoY, cubetaY);
+        maximoY = Math.max(maximoY, cubetaY);
+    }
+
+    public void quitar(T elemento) {
+        Long clave = cubetaPorElemento.remove(elemento);
+        if (clave != null) {
+            retirar(elemento, clave);
+            ordenPorElemento.remove(elemento);
+        }
+    }
+
+    private void retirar(T elemento, long clave) {
+        List<T> cubeta = cubetas.get(clave);
+        for (int i = 0; i < cubeta.size(); i++) {
+            if (cubeta.get(i) == elemento) {
+                cubeta.set(i, cubeta.get(cubeta.size() - 1));
+                cubeta.remove(cubeta.size() - 1);
+                break;
+            }
+        }
+        if (cubeta.isEmpty()) {
+            cubetas.remove(clave);
+        }
+    }
+
+    /**
+     * Refleja la posición actual del elemento, agregándolo si no estaba en el índice.
+     */
+    public void actualizar(T elemento) {
+        Long anterior = cubetaPorElemento.get(elemento);
+        if (anterior == null) {
+            agregar(elemento);
+            return;
+        }
+        long nueva = claveDe(elemento.getPosicion());
+        if (nueva != anterior) {
+            retirar(elemento, anterior);
+            insertar(elemento, nueva);
+        }
+    }
+
+    /**
+     * @return elementos cuya posición es exactamente el punto
+     */
+    public List<T> getEn(Punto punto) {
+        List<T> encontrados = new ArrayList<>(1);
+        List<T> cubeta = cubetas.get(claveDe(punto));
+        if (cubeta != null) {
+            for (T elemento : cubeta) {
+                if (elemento.getPosicion().equals(punto)) {
+                    encontrados.add(elemento);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    public boolean hayEn(Punto punto) {
+        List<T> cubeta = cubetas.get(claveDe(punto));
+        if (cubeta != null) {
+            for (T elemento : cubeta) {
+                if (elemento.getPosicion().equals(punto)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return el elemento más cercano al punto (distancia euclídea), o null si el índice está vacío
+     */
+    public T masCercano(Punto punto) {
+        if (cubetaPorElemento.isEmpty()) {
+            return null;
+        }
+        int cubetaX = Math.floorDiv(punto.getX(), tamanioCubeta);
+        int cubetaY = Math.floorDiv(punto.getY(), tamanioCubeta);
+        int anillos = Math.max(Math.max(cubetaX - minimoX, maximoX - cubetaX), Math.max(cubetaY - minimoY, maximoY - cubetaY));
+        T mejor = null;
+        double mejorDistancia = Double.MAX_VALUE;
+        for (int anillo = 0; anillo <= anillos; anillo++) {
+            for (int y = cubetaY - anillo; y <= cubetaY + anillo; y++) {
+                // En las filas intermedias del anillo solo hay que mirar los extremos
+                int paso = (y == cubetaY - anillo || y == cubetaY + anillo) ? 1 : Math.max(1, 2 * anillo);
+                for (int x = cubetaX - anillo; x <= cubetaX + anillo; x += paso) {
+                    List<T> cubeta = cubetas.get(clave(x, y));
+                    if (cubeta == null) {
+                        continue;
+                    }
+                    for (T elemento : cubeta) {
+                        double distancia = elemento.getPosicion().distanciaHacia(punto);
+                        if (distancia < mejorDistancia
+                                || (distancia == mejorDistancia && ordenPorElemento.get(elemento) < ordenPorElemento.get(mejor))) {
+                            mejorDistancia = distancia;
+                            mejor = elemento;
+                        }
+                    }
+                }
+            }
+            // Todo lo que está más allá de este anillo queda al menos a anillo * tamanioCubeta
+            if (mejor != null && mejorDistancia < (double) anillo * tamanioCubeta) {
+                break;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * @return elementos a distancia euclídea menor o igual al radio, en el orden en que se agregaron
+     */
+    public List<T> getDentroDeRadio(Punto punto, double radio) {
+        List<T> encontrados = new ArrayList<>();
+        if (radio < 0 || cubetaPorElemento.isEmpty()) {
+            return encontrados;
+        }
+        int alcance = (int) Math.ceil(radio);
+        int desdeX = Math.max(minimoX, Math.floorDiv(punto.getX() - alcance, tamanioCubeta));
+        int hastaX = Math.min(maximoX, Math.floorDiv(punto.getX() + alcance, tamanioCubeta));
+        int desdeY = Math.max(minimoY, Math.floorDiv(punto.getY() - alcance, tamanioCubeta));
+        int hastaY = Math.min(maximoY, Math.floorDiv(punto.getY() + alcance, tamanioCubeta));
+        for (int y = desdeY; y <= hastaY; y++) {
+            for (int x = desdeX; x <= hastaX; x++) {
+                List<T> cubeta = cubetas.get(clave(x, y));
+                if (cubeta == null) {
+                    continue;
+                }
+                for (T elemento : cubeta) {
+                    if (elemento.getPosicion().distanciaHacia(punto) <= radio) {
+                        encontrados.add(elemento);
+                    }
+                }
+            }
+        }
+        encontrados.sort((a, b) -> Integer.compare(ordenPorElemento.get(a), ordenPorElemento.get(b)));
+        return encontrados;
+    }
+
+    public int getCantidad() {
+        return cubetaPorElemento.size();
+    }
+}
@@ -0,0 +1,136 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cobertura de los robopuertos rasterizada sobre la grilla: cada celda guarda cuántos
+ * robopuertos la cubren, así que saber si un punto está dentro del alcance de alguno es una
+ * sola lectura del arreglo en lugar de una raíz cuadrada por robopuerto.
+ * Al agregar o quitar un robopuerto solo se recorren las celdas de su círculo de alcance.
+ * <p>
+ * Además guarda qué celdas cubre su robopuerto más cercano, la condición que exigen los
+ * robots para poder regresar; como el más cercano cambia con cualquier alta o baja, esa capa
+ * se recalcula a pedido. Los puntos fuera de la grilla se resuelven recorriendo los robopuertos.
+ */
+public final class MapaCobertura {
+    private final int origenX;
+    private final int origenY;
+    private final int ancho;
+    private final int alto;
+    private final int[] cantidadCobertura;
+    private final List<Robopuerto> robopuertos = new ArrayList<>();
+    private BitSet cubiertaPorElMasCercano; // null si hay que recalcularla
+
+    public MapaCobertura(GrillaEspacial grilla, Collection<Robopuerto> robopuertos) {
+        this.origenX = grilla.getOrigen().getX();
+        this.origenY = grilla.getOrigen().getY();
+        this.ancho = grilla.getAncho();
+        this.alto = grilla.getAlto();
+        this.cantidadCobertura = new int[ancho * alto];
+        for (Robopuerto robopuerto : robopuertos) {
+            agregar(robopuerto);
+        }
+    }
+
+    /**
+     * @return índice de la celda del punto, o -1 si está fuera de la grilla
+     */
+    private int indiceDe(Punto punto) {
+        int dx = punto.getX() - origenX;
+        int dy = punto.getY() - origenY;
+        if (dx < 0 || dx >= ancho || dy < 0 || dy >= alto) {
+            return -1;
+        }
+        return dy * ancho + dx;
+    }
+
+    public void agregar(Robopuerto robopuerto) {
+        robopuertos.add(robopuerto);
+        actualizarCirculo(robopuerto, 1);
+        cubiertaPorElMasCercano = null;
+    }
+
+    public void quitar(Robopuerto robopuerto) {
+        if (robopuertos.remove(robopuerto)) {
+            actualizarCirculo(robopuerto, -1);
+            cubiertaPorElMasCercano = null;
+        }
+    }
+
+    /**
+     * Suma o resta la cobertura del robopuerto en las celdas de su alcance, con el mismo
+     * criterio de distancia que {@link Robopuerto#estaEnCobertura(Punto)}.
+     */
+    private void actualizarCirculo(Robopuerto robopuerto, int delta) {
+        Punto centro = robopuerto.getPosicion();
+        int radio = (int) Math.floor(robopuerto.getAlcance());
+        int desdeX = Math.max(origenX, centro.getX() - radio);
+        int hastaX = Math.min(origenX + ancho - 1, centro.getX() + radio);
+        int desdeY = Math.max(origenY, centro.getY() - radio);
+        int hastaY = Math.min(origenY + alto - 1, centro.getY() + radio);
+        for (int y = desdeY; y <= hastaY; y++) {
+            for (int x = desdeX; x <= hastaX; x++) {
+                Punto punto = new Punto(x, y);
+                if (robopuerto.estaEnCobertura(punto)) {
+                    cantidadCobertura[(y - origenY) * ancho + (x - origenX)] += delta;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true si algún robopuerto cubre el punto
+     */
+    public boolean estaCubierto(Punto punto) {
+        int celda = indiceDe(punto);
+        if (celda == -1) {
+            return robopuertos.stream().anyMatch(robopuerto -> robopuerto.estaEnCobertura(punto));
+        }
+        return cantidadCobertura[celda] > 0;
+    }
+
+    /**
+     * @return cantidad de robopuertos que cubren la celda
+     */
+    public int getCantidadCobertura(int celda) {
+        return cantidadCobertura[celda];
+    }
+
+    /**
+     * @return true si el robopuerto más cercano a la celda la cubre
+     */
+    public boolean estaCubiertaPorElMasCercano(int celda) {
+        if (cubiertaPorElMasCercano == null) {
+            cubiertaPorElMasCercano = calcularCubiertaPorElMasCercano();
+        }
+        return cubiertaPorElMasCercano.get(celda);
+    }
+
+    private BitSet calcularCubiertaPorElMasCercano() {
+        BitSet cubiertas = new BitSet(cantidadCobertura.length);
+        for (int celda = 0; celda < cantidadCobertura.length; celda++) {
+            if (cantidadCobertura[celda] == 0) {
+                continue; // Si nadie la cubre, tampoco el más cercano
+            }
+            Punto punto = new Punto(origenX + celda % ancho, origenY + celda / ancho);
+            Robopuerto masCercano = null;
+            double distanciaMinima = Double.MAX_VALUE;
+            for (Robopuerto robopuerto : robopuertos) {
+                double distancia = robopuerto.getPosicion().distanciaHacia(punto);
+                if (distancia < distanciaMinima) {
+                    distanciaMinima = distancia;
+                    masCercano = robopuerto;
+                }
+            }
+            if (masCercano != null && masCercano.estaEnCobertura(punto)) {
+                cubiertas.set(celda);
+            }
+        }
+        return cubiertas;
+    }
+}
@@ -0,0 +1,218 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.EstadoRobot;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ocupación de las celdas de la grilla por capas: cofres, robopuertos y robots.
+ * Cada capa es un bitset indexado por celda, de modo que consultar si una celda está ocupada
+ * es una sola prueba de bit. Los robots se encadenan por celda (varios robots pueden compartir
+ * un robopuerto), y al moverse solo se actualizan la celda que dejan y la que ocupan.
+ * Las posiciones fuera de la grilla no se registran.
+ */
+public class MapaOcupacion {
+    private final int origenX;
+    private final int origenY;
+    private final int ancho;
+    private final int alto;
+
+    private final BitSet cofres;
+    private final BitSet robopuertos;
+    private final BitSet robots;
+
+    // Robots encadenados por celda: primeroPorCelda -> siguientePorRanura -> ...
+    private final int[] primeroPorCelda;
+    private final Map<RobotLogistico, Integer> ranuraPorRobot = new IdentityHashMap<>();
+    private RobotLogistico[] robotPorRanura = new RobotLogistico[8];
+    private int[] celdaPorRanura = new int[8];
+    private int[] siguientePorRanura = new int[8];
+
+    public MapaOcupacion(GrillaEspacial grilla) {
+        this.origenX = grilla.getOrigen().getX();
+        this.origenY = grilla.getOrigen().getY();
+        this.ancho = grilla.getAncho();
+        this.alto = grilla.getAlto();
+        int cantidadCeldas = ancho * alto;
+        this.cofres = new BitSet(cantidadCeldas);
+        this.robopuertos = new BitSet(cantidadCeldas);
+        this.robots = new BitSet(cantidadCeldas);
+        this.primeroPorCelda = new int[cantidadCeldas];
+        Arrays.fill(primeroPorCelda, -1);
+    }
+
+    /**
+     * @return índice de la celda del punto, o -1 si está fuera de la grilla
+     */
+    public int indiceDe(Punto punto) {
+        int dx = punto.getX() - origenX;
+        int dy = punto.getY() - origenY;
+        if (dx < 0 || dx >= ancho || dy < 0 || dy >= alto) {
+            return -1;
+        }
+        return dy * ancho + dx;
+    }
+
+    // Capas estáticas
+
+    public void marcarCofre(Punto posicion) {
+        int celda = indiceDe(posicion);
+        if (celda != -1) cofres.set(celda);
+    }
+
+    public void desmarcarCofre(Punto posicion) {
+        int celda = indiceDe(posicion);
+        if (celda != -1) cofres.clear(celda);
+    }
+
+    public void marcarRobopuerto(Punto posicion) {
+        int celda = indiceDe(posicion);
+        if (celda != -1) robopuertos.set(celda);
+    }
+
+    public void desmarcarRobopuerto(Punto posicion) {
+        int celda = indiceDe(posicion);
+        if (celda != -1) robopuertos.clear(celda);
+    }
+
+    // Capa de robots
+
+    /**
+     * Registra un robot en la celda de su posición actual.
+     */
+    public void registrarRobot(RobotLogistico robot) {
+        if (ranuraPorRobot.containsKey(robot)) {
+            return;
+        }
+        int ranura = ranuraPorRobot.size();
+        if (ranura == robotPorRanura.length) {
+            int capacidad = ranura * 2;
+            robotPorRanura = Arrays.copyOf(robotPorRanura, capacidad);
+            celdaPorRanura = Arrays.copyOf(celdaPorRanura, capacidad);
+            siguientePorRanura = Arrays.copyOf(siguientePorRanura, capacidad);
+        }
+        ranuraPorRobot.put(robot, ranura);
+        robotPorRanura[ranura] = robot;
+        celdaPorRanura[ranura] = -1;
+        enlazar(ranura, indiceDe(robot.getPosicion()));
+    }
+
+    /**
+     * Actualiza la ocupación cuando un robot cambia de posición. Solo toca la celda que deja
+     * y la que pasa a ocupar.
+     *
+     * @return celda que dejó el robot, o -1 si no ocupaba ninguna o no cambió de celda
+     */
+    public int moverRobot(RobotLogistico robot, Punto nuevaPosicion) {
+        Integer ranura = ranuraPorRobot.get(robot);
+        if (ranura == null) {
+            registrarRobot(robot);
+            return -1;
+        }
+        int celdaAnterior = celdaPorRanura[ranura];
+        int nuevaCelda = indiceDe(nuevaPosicion);
+        if (celdaAnterior == nuevaCelda) {
+            return -1;
+        }
+        desenlazar(ranura);
+        enlazar(ranura, nuevaCelda);
+        return celdaAnterior;
+    }
+
+    private void enlazar(int ranura, int celda) {
+        celdaPorRanura[ranura] = celda;
+        if (celda == -1) {
+            return;
+        }
+        siguientePorRanura[ranura] = primeroPorCelda[celda];
+        primeroPorCelda[celda] = ranura;
+        robots.set(celda);
+    }
+
+    private void desenlazar(int ranura) {
+        int celda = celdaPorRanura[ranura];
+        if (celda == -1) {
+            return;
+        }
+        if (primeroPorCelda[celda] == ranura) {
+            primeroPorCelda[celda] = siguientePorRanura[ranura];
+        } else {
+            int anterior = primeroPorCelda[celda];
+            while (siguientePorRanura[anterior] != ranura) {
+                anterior = siguientePorRanura[anterior];
+            }
+            siguientePorRanura[anterior] = siguientePorRanura[ranura];
+        }
+        if (primeroPorCelda[celda] == -1) {
+            robots.clear(celda);
+        }
+        celdaPorRanura[ranura] = -1;
+    }
+
+    // Consultas
+
+    public boolean hayCofre(int celda) {
+        return cofres.get(celda);
+    }
+
+    public boolean hayRobopuerto(int celda) {
+        return robopuertos.get(celda);
+    }
+
+    public boolean hayRobot(int celda) {
+        return robots.get(celda);
+    }
+
+    /**
+     * Indica si hay en la celda algún robot distinto del indicado.
+     */
+    public boolean hayOtroRobot(int celda, RobotLogistico robot) {
+        if (!robots.get(celda)) {
+            return false;
+        }
+        for (int ranura = primeroPorCelda[celda]; ranura != -1; ranura = siguientePorRanura[ranura]) {
+            if (robotPorRanura[ranura] != robot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<RobotLogistico> getRobotsEn(int celda) {
+        List<RobotLogistico> resultado = new ArrayList<>();
+        for (int ranura = primeroPorCelda[celda]; ranura != -1; ranura = siguientePorRanura[ranura]) {
+            resultado.add(robotPorRanura[ranura]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Determina si una celda es transitable para un robot dado.
+     * Si robotPlanificador es null, se asume para construcción general del grafo.
+     */
+    public boolean esTransitable(int celda, RobotLogistico robotPlanificador) {
+        // Cofres: la celda es obstáculo
+        if (cofres.get(celda)) return false;
+        // Robots: la celda es obstáculo, salvo que sea el propio robot planificando
+        if (robots.get(celda)) {
+            if (robotPlanificador == null) return false;
+            if (hayOtroRobot(celda, robotPlanificador)) return false;
+        }
+        // Robopuertos: obstáculo solo si hay un robot ACTIVO en la celda
+        if (robopuertos.get(celda) && robots.get(celda)) {
+            for (int ranura = primeroPorCelda[celda]; ranura != -1; ranura = siguientePorRanura[ranura]) {
+                RobotLogistico robotEnRobopuerto = robotPorRanura[ranura];
+                if (robotEnRobopuerto.getEstado() == EstadoRobot.ACTIVO && robotEnRobopuerto != robotPlanificador) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
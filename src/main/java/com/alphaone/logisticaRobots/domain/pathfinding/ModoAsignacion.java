@@ -0,0 +1,24 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+/**
+ * Formas en que el planificador reparte los pedidos pendientes entre los robots.
+ */
+public enum ModoAsignacion {
+    /**
+     * Un pedido por vez, en orden de prioridad: cada uno se lleva el mejor robot que quede.
+     */
+    POR_PEDIDO,
+    /**
+     * Primero se resuelve una asignación de costo mínimo entre los robots libres y los pedidos
+     * pendientes, con los costos estimados por los landmarks y ponderados por prioridad.
+     * Cada par se confirma con la evaluación exacta; los pedidos que quedan sin robot se
+     * asignan de a uno como en {@link #POR_PEDIDO}.
+     */
+    POR_LOTE,
+    /**
+     * Como {@link #POR_LOTE}, pero los pares salen de una subasta: cada robot libre oferta por
+     * sus pedidos más baratos, en paralelo si la evaluación paralela está activa, y el
+     * subastador adjudica de la oferta más barata a la más cara.
+     */
+    POR_SUBASTA
+}
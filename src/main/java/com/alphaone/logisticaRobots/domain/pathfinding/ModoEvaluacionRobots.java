@@ -0,0 +1,18 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+/**
+ * Formas en que el planificador mide el costo de cada robot candidato para un pedido.
+ */
+public enum ModoEvaluacionRobots {
+    /**
+     * Una búsqueda por robot hasta el adyacente al origen más cercano y otra desde allí hasta
+     * el destino. El costo de un pedido crece con la cantidad de robots.
+     */
+    POR_ROBOT,
+    /**
+     * Dos búsquedas inversas por pedido, sin importar cuántos robots haya: una desde los
+     * adyacentes al destino hasta los adyacentes al origen, y otra desde estos hasta todos
+     * los robots. Cada robot queda con el costo exacto del mejor recorrido robot -> origen -> destino.
+     */
+    BUSQUEDA_INVERSA
+}
@@ -0,0 +1,302 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Motor de caminos mínimos (Dijkstra y A*) sobre las celdas de un {@link GrafoCompacto}.
+ * Guarda distancias y predecesores en arreglos densos y usa un montículo indexado,
+ * por lo que una búsqueda cuesta O((V + E) log V) en lugar de O(V²).
+ * Los arreglos se reutilizan entre búsquedas: cada búsqueda incrementa una marca de
+ * generación y solo considera válidas las celdas escritas en la generación actual.
+ * No es seguro para uso concurrente.
+ */
+public class MotorBusqueda implements BuscadorCaminos {
+    private final GrafoCompacto grafo;
+
+    private double[] distancias;
+    private int[] predecesores;
+    private int[] generaciones;   // generación en la que se escribió cada distancia
+    private int[] cerrados;       // generación en la que cada nodo quedó definitivo
+    private int[] objetivos;      // generación en la que cada nodo fue marcado como objetivo
+    private ColaPrioridadIndexada abiertos;
+    private int generacion;
+    private int origen = -1;
+    private int nodosExpandidos;
+    private OraculoLandmarks oraculo; // opcional: refuerza la heurística de A*
+
+    public MotorBusqueda(GrafoCompacto grafo) {
+        this.grafo = grafo;
+        int capacidad = Math.max(1, grafo.getCantidadCeldas());
+        this.distancias = new double[capacidad];
+        this.predecesores = new int[capacidad];
+        this.generaciones = new int[capacidad];
+        this.cerrados = new int[capacidad];
+        this.objetivos = new int[capacidad];
+        this.abiertos = new ColaPrioridadIndexada(capacidad);
+    }
+
+    /**
+     * Define un oráculo de landmarks para reforzar la heurística de A*, o null para usar solo
+     * la distancia Manhattan. El oráculo debe haberse construido sobre este mismo grafo.
+     */
+    public void setOraculo(OraculoLandmarks oraculo) {
+        this.oraculo = oraculo;
+    }
+
+    /**
+     * Calcula las distancias mínimas desde el nodo origen a todos los nodos alcanzables.
+     *
+     * @param origen Celda origen
+     */
+    public void calcularDesde(int origen) {
+        iniciarBusqueda(origen);
+        abiertos.insertarOActualizar(origen, 0.0);
+
+        while (!abiertos.estaVacia()) {
+            int actual = abiertos.extraerMinimo();
+            cerrados[actual] = generacion;
+            nodosExpandidos++;
+            double distanciaActual = distancias[actual];
+
+            for (int arista = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                if (cerrados[vecino] == generacion || grafo.estaBloqueada(vecino)) {
+                    continue;
+                }
+                double distanciaAlternativa = distanciaActual + grafo.peso(arista);
+                if (generaciones[vecino] != generacion || distanciaAlternativa < distancias[vecino]) {
+                    generaciones[vecino] = generacion;
+                    distancias[vecino] = distanciaAlternativa;
+                    predecesores[vecino] = actual;
+                    abiertos.insertarOActualizar(vecino, distanciaAlternativa);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra con varios orígenes, cada uno con un costo inicial: la distancia de una celda es
+     * el mínimo, entre todos los orígenes, del costo inicial más el camino desde él. Se detiene
+     * cuando todas las celdas de interés quedan definitivas, o antes si se agotan las alcanzables.
+     * Sobre la grilla, que es simétrica, sirve para medir en una sola pasada la distancia desde
+     * muchas celdas hacia el conjunto de orígenes.
+     *
+     * @param origenes Celdas origen
+     * @param costosIniciales Costo inicial de cada origen; Double.MAX_VALUE lo descarta
+     * @param celdasDeInteres Celdas cuya distancia se necesita
+     */
+    public void calcularDesdeVarios(int[] origenes, double[] costosIniciales, int[] celdasDeInteres) {
+        if (origenes.length != costosIniciales.length) {
+            throw new IllegalArgumentException("Cada origen debe tener su costo inicial");
+        }
+        nuevaGeneracion();
+        this.origen = -1;
+        int pendientes = 0;
+        for (int celda : celdasDeInteres) {
+            if (objetivos[celda] != generacion) {
+                objetivos[celda] = generacion;
+                pendientes++;
+            }
+        }
+        for (int i = 0; i < origenes.length; i++) {
+            int celda = origenes[i];
+            if (costosIniciales[i] == Double.MAX_VALUE) {
+                continue;
+            }
+            if (generaciones[celda] != generacion || costosIniciales[i] < distancias[celda]) {
+                generaciones[celda] = generacion;
+                distancias[celda] = costosIniciales[i];
+                predecesores[celda] = -1;
+                abiertos.insertarOActualizar(celda, costosIniciales[i]);
+            }
+        }
+
+        while (!abiertos.estaVacia() && pendientes > 0) {
+            int actual = abiertos.extraerMinimo();
+            cerrados[actual] = generacion;
+            nodosExpandidos++;
+            if (objetivos[actual] == generacion) {
+                pendientes--;
+            }
+            double distanciaActual = distancias[actual];
+
+            for (int arista = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                if (cerrados[vecino] == generacion || grafo.estaBloqueada(vecino)) {
+                    continue;
+                }
+                double distanciaAlternativa = distanciaActual + grafo.peso(arista);
+                if (generaciones[vecino] != generacion || distanciaAlternativa < distancias[vecino]) {
+                    generaciones[vecino] = generacion;
+                    distancias[vecino] = distanciaAlternativa;
+                    predecesores[vecino] = actual;
+                    abiertos.insertarOActualizar(vecino, distanciaAlternativa);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return origen del que proviene el camino mínimo hasta la celda en la última búsqueda,
+     *         o -1 si la celda no fue alcanzada
+     */
+    public int getRaiz(int celda) {
+        if (!esAlcanzado(celda)) {
+            return -1;
+        }
+        int nodo = celda;
+        while (predecesores[nodo] != -1) {
+            nodo = predecesores[nodo];
+        }
+        return nodo;
+    }
+
+    /**
+     * Busca con A* el camino mínimo desde el origen hasta el objetivo más cercano del conjunto.
+     * La búsqueda se detiene al extraer el primer objetivo, por lo que solo explora la región
+     * entre el origen y los objetivos. Usa como heurística la distancia Manhattan al objetivo
+     * más cercano multiplicada por la escala, que es admisible mientras ninguna arista entre
+     * celdas ortogonales cueste menos que la escala. Si hay un oráculo de landmarks se usa
+     * además su cota, que rodea los obstáculos fijos y reduce los nodos expandidos.
+     *
+     * @param origen Celda origen
+     * @param objetivos Celdas objetivo
+     * @param escalaHeuristica Costo mínimo de un paso entre celdas vecinas
+     * @return Celda objetivo alcanzada, o -1 si ninguna es alcanzable
+     */
+    @Override
+    public int buscarHastaObjetivos(int origen, int[] objetivos, double escalaHeuristica) {
+        iniciarBusqueda(origen);
+        if (objetivos.length == 0) {
+            return -1;
+        }
+        int[] xObjetivos = new int[objetivos.length];
+        int[] yObjetivos = new int[objetivos.length];
+        for (int i = 0; i < objetivos.length; i++) {
+            this.objetivos[objetivos[i]] = generacion;
+            xObjetivos[i] = grafo.getX(objetivos[i]);
+            yObjetivos[i] = grafo.getY(objetivos[i]);
+        }
+        abiertos.insertarOActualizar(origen, heuristica(origen, objetivos, xObjetivos, yObjetivos, escalaHeuristica));
+
+        while (!abiertos.estaVacia()) {
+            int actual = abiertos.extraerMinimo();
+            if (this.objetivos[actual] == generacion) {
+                return actual;
+            }
+            cerrados[actual] = generacion;
+            nodosExpandidos++;
+            double distanciaActual = distancias[actual];
+
+            for (int arista = grafo.inicioAristas(actual), fin = grafo.finAristas(actual); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                if (cerrados[vecino] == generacion || grafo.estaBloqueada(vecino)) {
+                    continue;
+                }
+                double distanciaAlternativa = distanciaActual + grafo.peso(arista);
+                if (generaciones[vecino] != generacion || distanciaAlternativa < distancias[vecino]) {
+                    generaciones[vecino] = generacion;
+                    distancias[vecino] = distanciaAlternativa;
+                    predecesores[vecino] = actual;
+                    abiertos.insertarOActualizar(vecino, distanciaAlternativa + heuristica(vecino, objetivos, xObjetivos, yObjetivos, escalaHeuristica));
+                }
+            }
+        }
+        return -1;
+    }
+
+    private double heuristica(int celda, int[] objetivos, int[] xObjetivos, int[] yObjetivos, double escala) {
+        int x = grafo.getX(celda);
+        int y = grafo.getY(celda);
+        if (oraculo != null) {
+            double minimoConLandmarks = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < objetivos.length; i++) {
+                double manhattan = (Math.abs(x - xObjetivos[i]) + Math.abs(y - yObjetivos[i])) * escala;
+                minimoConLandmarks = Math.min(minimoConLandmarks, Math.max(manhattan, oraculo.cotaInferior(celda, objetivos[i])));
+            }
+            return minimoConLandmarks;
+        }
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0; i < xObjetivos.length; i++) {
+            minimo = Math.min(minimo, Math.abs(x - xObjetivos[i]) + Math.abs(y - yObjetivos[i]));
+        }
+        return minimo * escala;
+    }
+
+    /**
+     * Reconstruye el camino desde el origen de la última búsqueda hasta el nodo dado.
+     *
+     * @return Celdas del camino (origen primero), o un arreglo vacío si no es alcanzable
+     */
+    @Override
+    public int[] reconstruirCamino(int destino) {
+        if (!esAlcanzado(destino)) {
+            return new int[0];
+        }
+        int longitud = 1;
+        for (int nodo = destino; predecesores[nodo] != -1; nodo = predecesores[nodo]) {
+            longitud++;
+        }
+        int[] camino = new int[longitud];
+        int nodo = destino;
+        for (int i = longitud - 1; i >= 0; i--) {
+            camino[i] = nodo;
+            nodo = predecesores[nodo];
+        }
+        return camino;
+    }
+
+    /**
+     * @return cantidad de nodos expandidos por la última búsqueda
+     */
+    @Override
+    public int getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    public int getOrigen() {
+        return origen;
+    }
+
+    public boolean esAlcanzado(int nodo) {
+        return generaciones[nodo] == generacion;
+    }
+
+    /**
+     * @return distancia mínima desde el último origen, o Double.MAX_VALUE si no es alcanzable
+     */
+    @Override
+    public double getDistancia(int nodo) {
+        return esAlcanzado(nodo) ? distancias[nodo] : Double.MAX_VALUE;
+    }
+
+    /**
+     * @return celda predecesora en el camino mínimo, o -1 para el origen y los no alcanzables
+     */
+    public int getPredecesor(int nodo) {
+        return esAlcanzado(nodo) ? predecesores[nodo] : -1;
+    }
+
+    private void iniciarBusqueda(int origen) {
+        if (origen < 0 || origen >= grafo.getCantidadCeldas()) {
+            throw new IllegalArgumentException("La celda origen no pertenece al grafo: " + origen);
+        }
+        nuevaGeneracion();
+        this.origen = origen;
+        generaciones[origen] = generacion;
+        distancias[origen] = 0.0;
+        predecesores[origen] = -1;
+    }
+
+    private void nuevaGeneracion() {
+        abiertos.limpiar();
+        if (++generacion == Integer.MAX_VALUE) {
+            // Tras agotar las marcas se reinicia todo para no confundir generaciones viejas
+            Arrays.fill(generaciones, 0);
+            Arrays.fill(cerrados, 0);
+            Arrays.fill(objetivos, 0);
+            generacion = 1;
+        }
+        this.nodosExpandidos = 0;
+    }
+}
@@ -6,12 +6,21 @@ import java.util.List;
 public class Nodo {
     private Punto nodo; // Puede ser Cofre o com.alphaone.logisticaRobots.domain.Robopuerto
     private List<Arista> aristas;
+    private int indice = -1; // Ordinal dentro del grafo, lo asigna Grafo.agregarNodo
 
     public Nodo(Punto elemento) {
         this.nodo = elemento;
         this.aristas = new ArrayList<>();
     }
 
+    void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
     public void agregarArista(Arista arista) {
         this.aristas.add(arista);
     }
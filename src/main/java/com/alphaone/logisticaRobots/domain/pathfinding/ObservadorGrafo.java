@@ -0,0 +1,16 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+/**
+ * Interfaz para los componentes que mantienen información derivada del grafo
+ * (caminos, sectores, campos de distancia) y necesitan enterarse cuando una celda
+ * se bloquea o se libera.
+ */
+@FunctionalInterface
+public interface ObservadorGrafo {
+    /**
+     * Metodo llamado por el grafo cada vez que cambia el estado de una celda.
+     * @param celda Índice de la celda que cambió
+     * @param bloqueada true si la celda quedó bloqueada, false si quedó libre
+     */
+    void celdaActualizada(int celda, boolean bloqueada);
+}
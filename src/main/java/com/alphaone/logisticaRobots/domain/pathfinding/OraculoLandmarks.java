@@ -0,0 +1,116 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Oráculo de cotas inferiores de distancia basado en landmarks (técnica ALT: A*, Landmarks y
+ * desigualdad Triangular). Guarda la distancia desde unas pocas celdas de referencia a todas
+ * las demás y acota la distancia entre dos celdas cualesquiera en O(#landmarks) como
+ * max |d(L, a) - d(L, b)|.
+ * <p>
+ * Las distancias se calculan considerando solo los obstáculos fijos (por ejemplo, cofres).
+ * Como los obstáculos móviles solo pueden alargar los caminos, las cotas siguen siendo
+ * admisibles aunque los robots se muevan; solo hay que reconstruir el oráculo cuando cambian
+ * los obstáculos fijos. Requiere aristas de peso uniforme.
+ */
+public class OraculoLandmarks {
+    private static final int INALCANZABLE = Integer.MAX_VALUE;
+
+    private final GrafoCompacto grafo;
+    private final int[] landmarks;
+    private final int[][] pasos; // pasos[l][celda]: pasos desde el landmark l, INALCANZABLE si no hay camino
+    private final double pesoPaso;
+
+    /**
+     * @param grafo Grafo sobre el que se miden las distancias
+     * @param candidatos Celdas candidatas a landmark, en orden de preferencia
+     * @param celdaLibre Indica si una celda está libre de obstáculos fijos
+     * @param maximoLandmarks Cantidad máxima de landmarks a usar
+     */
+    public OraculoLandmarks(GrafoCompacto grafo, int[] candidatos, IntPredicate celdaLibre, int maximoLandmarks) {
+        this.grafo = grafo;
+        this.pesoPaso = grafo.getPesoPaso();
+
+        int[] elegidos = new int[Math.min(maximoLandmarks, candidatos.length)];
+        int cantidad = 0;
+        for (int candidato : candidatos) {
+            if (cantidad == elegidos.length) break;
+            if (candidato < 0 || candidato >= grafo.getCantidadCeldas() || !celdaLibre.test(candidato)) continue;
+            boolean repetido = false;
+            for (int i = 0; i < cantidad && !repetido; i++) {
+                repetido = elegidos[i] == candidato;
+            }
+            if (!repetido) {
+                elegidos[cantidad++] = candidato;
+            }
+        }
+        this.landmarks = Arrays.copyOf(elegidos, cantidad);
+
+        this.pasos = new int[cantidad][];
+        int[] cola = new int[grafo.getCantidadCeldas()];
+        for (int l = 0; l < cantidad; l++) {
+            pasos[l] = recorrer(landmarks[l], celdaLibre, cola);
+        }
+    }
+
+    /**
+     * BFS desde el landmark entrando solo a celdas libres de obstáculos fijos.
+     */
+    private int[] recorrer(int landmark, IntPredicate celdaLibre, int[] cola) {
+        int[] distancias = new int[grafo.getCantidadCeldas()];
+        Arrays.fill(distancias, INALCANZABLE);
+        distancias[landmark] = 0;
+        int cabeza = 0;
+        int fin = 0;
+        cola[fin++] = landmark;
+        while (cabeza < fin) {
+            int actual = cola[cabeza++];
+            for (int arista = grafo.inicioAristas(actual), ultima = grafo.finAristas(actual); arista < ultima; arista++) {
+                int vecino = grafo.destino(arista);
+                if (distancias[vecino] == INALCANZABLE && celdaLibre.test(vecino)) {
+                    distancias[vecino] = distancias[actual] + 1;
+                    cola[fin++] = vecino;
+                }
+            }
+        }
+        return distancias;
+    }
+
+    public int getCantidadLandmarks() {
+        return landmarks.length;
+    }
+
+    /**
+     * Cota inferior de la distancia entre dos celdas libres: el máximo entre la distancia Manhattan
+     * y las diferencias de distancia a cada landmark.
+     *
+     * @return Cota inferior del costo, o infinito si las celdas no se conectan ni siquiera sin obstáculos móviles
+     */
+    public double cotaInferior(int desde, int hasta) {
+        int mejor = Math.abs(grafo.getX(desde) - grafo.getX(hasta)) + Math.abs(grafo.getY(desde) - grafo.getY(hasta));
+        for (int[] distancias : pasos) {
+            int a = distancias[desde];
+            int b = distancias[hasta];
+            if (a == INALCANZABLE || b == INALCANZABLE) {
+                if (a != b) {
+                    return Double.POSITIVE_INFINITY; // Una celda está en otra componente que el landmark
+                }
+                continue;
+            }
+            mejor = Math.max(mejor, Math.abs(a - b));
+        }
+        return mejor * pesoPaso;
+    }
+
+    /**
+     * @return la menor cota inferior desde la celda hasta cualquiera de los objetivos
+     */
+    public double cotaInferior(int desde, int[] objetivos) {
+        double minimo = Double.POSITIVE_INFINITY;
+        for (int objetivo : objetivos) {
+            minimo = Math.min(minimo, cotaInferior(desde, objetivo));
+        }
+        return minimo;
+    }
+}
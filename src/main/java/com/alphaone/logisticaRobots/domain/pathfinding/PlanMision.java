@@ -0,0 +1,68 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+
+/**
+ * Plan de batería de una misión robot -> cofre origen -> cofre destino: indica si el robot
+ * puede hacerla de un tirón o en qué robopuerto debe detenerse a recargar, y si la parada va
+ * antes de cargar los ítems o después, ya cargado, camino al destino.
+ */
+public final class PlanMision {
+    private final Robopuerto parada;
+    private final boolean paradaAntesDeCargar;
+    private final double pasos;
+    private final int ciclosRecarga;
+
+    private PlanMision(Robopuerto parada, boolean paradaAntesDeCargar, double pasos, int ciclosRecarga) {
+        this.parada = parada;
+        this.paradaAntesDeCargar = paradaAntesDeCargar;
+        this.pasos = pasos;
+        this.ciclosRecarga = ciclosRecarga;
+    }
+
+    /**
+     * Misión que no necesita recargar.
+     */
+    public static PlanMision directa(double pasos) {
+        return new PlanMision(null, false, pasos, 0);
+    }
+
+    /**
+     * Misión con una parada de recarga.
+     *
+     * @param parada Robopuerto donde recarga
+     * @param antesDeCargar true si se detiene antes de pasar por el cofre origen
+     * @param pasos Pasos totales, incluido el desvío hasta el robopuerto
+     * @param ciclosRecarga Ciclos que espera en el robopuerto hasta completar la batería
+     */
+    public static PlanMision conParada(Robopuerto parada, boolean antesDeCargar, double pasos, int ciclosRecarga) {
+        return new PlanMision(parada, antesDeCargar, pasos, ciclosRecarga);
+    }
+
+    public boolean tieneParada() {
+        return parada != null;
+    }
+
+    public Robopuerto getParada() {
+        return parada;
+    }
+
+    public boolean isParadaAntesDeCargar() {
+        return paradaAntesDeCargar;
+    }
+
+    public double getPasos() {
+        return pasos;
+    }
+
+    public int getCiclosRecarga() {
+        return ciclosRecarga;
+    }
+
+    /**
+     * @return ciclos estimados de la misión: pasos más espera de recarga
+     */
+    public double getDuracion() {
+        return pasos + ciclosRecarga;
+    }
+}
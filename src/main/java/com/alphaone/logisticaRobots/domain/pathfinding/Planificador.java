@@ -7,155 +7,431 @@ import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisio
 import com.alphaone.logisticaRobots.shared.ParametrosGenerales;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class Planificador { //lo está haciendo tomi
-    private Grafo grafo; //tiene un mapa
-    private List<Pedido> pedidos; //tiene una lista de pedidos que priorizar y laburar
+    private GrafoCompacto grafoCompacto; // Grilla en formato CSR sobre la que corren las búsquedas
+    private Grafo grafo; // Vista de objetos del grafo, se construye a pedido
+    private RegistroPedidos pedidos; //tiene los pedidos que priorizar y laburar, con colas por estado y prioridad
     private Set<Robopuerto> robopuertos;
     private Set<CofreLogistico> cofres;
     private Set<RobotLogistico> robotsLogisticos;
     private final GrillaEspacial grillaEspacial;
-    private Map<RobotLogistico, List<Punto>> rutasAsignadas; // Para evitar colisiones entre robots
+    private TablaReservas tablaReservas; // Celdas reservadas por ciclo, para evitar colisiones entre robots
+    private PlanificadorCooperativo planificadorCooperativo; // WHCA*, null si cada robot planifica por su cuenta
+    private SolucionadorCBS solucionadorCBS; // Destraba grupos de robots bloqueados entre sí, null si está desactivado
+    private MotorBusqueda motorBusqueda; // Se reutiliza entre búsquedas para no reservar memoria por llamada
+    private EstrategiaBusqueda estrategiaBusqueda = EstrategiaBusqueda.A_ESTRELLA;
+    private ModoEvaluacionRobots modoEvaluacionRobots = ModoEvaluacionRobots.POR_ROBOT;
+    private ModoAsignacion modoAsignacion = ModoAsignacion.POR_PEDIDO;
+    private BuscadorCaminos buscadorCaminos; // Búsquedas robot -> cofre según la estrategia elegida
+    private ForkJoinPool poolEvaluacion; // Evalúa robots candidatos en paralelo, null si se evalúan de a uno
+    private BuscadorCaminos[] buscadoresParalelos; // Uno por hilo de evaluación, se construyen a pedido
+    private PlanificadorJerarquico planificadorJerarquico; // Solo para grillas grandes, se construye a pedido
+    private MapaOcupacion mapaOcupacion; // Cofres, robopuertos y robots por celda
+    private MapaCobertura mapaCobertura; // Robopuertos que cubren cada celda
+    private IndiceEspacial<Robopuerto> indiceRobopuertos; // Consultas de robopuerto más cercano
+    private IndiceEspacial<CofreLogistico> indiceCofres;
+    private IndiceEspacial<RobotLogistico> indiceRobots;
+    private OraculoLandmarks oraculoLandmarks; // Cotas inferiores de distancia, se construye a pedido
+    private final CacheCamposDistancias camposDistancia = new CacheCamposDistancias(PRESUPUESTO_CAMPOS_DISTANCIA_BYTES); // Un campo por destino, compartido entre robots
+    private final Map<RobotLogistico, Mision> misiones = new HashMap<>(); // Replanificador de cada robot en movimiento
+    private final Map<RobotLogistico, Integer> destinosEnCurso = new HashMap<>(); // Celda de destino de cada robot en movimiento
+    private final Map<RobotLogistico, PlanConjunto> planesConjuntos = new HashMap<>(); // Caminos acordados por CBS
+    private final Map<RobotLogistico, Integer> ultimoIntentoCBS = new HashMap<>();
+    private final Map<RobotLogistico, RutaEnCurso> rutasEnCurso = new HashMap<>(); // Camino que sigue cada robot hacia su destino
+    private final Map<RobotLogistico, PlanMision> planesCandidatos = new HashMap<>(); // Plan de batería de cada robot evaluado para el pedido en curso
+    private final Map<RobotLogistico, Integer> ciclosSalida = new HashMap<>(); // Ciclo desde el que cada robot puede moverse según su reserva
+    private boolean seguimientoRutas = true;
+    // Eventos que pueden dar trabajo de asignación, acumulados desde la última pasada de ejecutarRutas
+    private final Set<Pedido> pedidosPorRevisar = new LinkedHashSet<>(); // Pedidos nuevos o fallidos
+    private final Set<RobotLogistico> robotsLiberados = new LinkedHashSet<>();
+    private final Set<CofreLogistico> cofresConCambioStock = new LinkedHashSet<>();
+    private int cantidadPedidosRevisada = -1; // Detecta pedidos agregados a la lista sin avisar
+    private boolean ultimoResultadoRutas = true;
+    private int cantidadPasadas; // Pasadas de asignación que efectivamente corrieron
+    private int cicloActual;
 
     public static final double factorConsumo = ParametrosGenerales.FACTOR_CONSUMO;
 
-    public Planificador(Set<Robopuerto> robopuertos, GrillaEspacial grillaEspacial, Set<CofreLogistico> cofres, Set<RobotLogistico> robotsLogisticos, List<Pedido> pedidos) {
+    // A partir de este tamaño de grilla, las consultas de larga distancia usan la búsqueda jerárquica
+    private static final int CELDAS_MINIMAS_BUSQUEDA_JERARQUICA = 250_000;
+    private static final int TAMANIO_SECTOR = 20;
+    private static final int MAXIMO_LANDMARKS = 16;
+    private static final long PRESUPUESTO_CAMPOS_DISTANCIA_BYTES = 32L * 1024 * 1024;
+    private static final int HORIZONTE_RESERVAS = 256;
+    private static final int DEMORA_MAXIMA_SALIDA = 4; // Ciclos que un robot puede esperar para no chocar
+    private static final double TOLERANCIA_COTA = 1e-9; // Margen por redondeo entre cotas y costos exactos
+    private static final int RADIO_GRUPO_CBS = 2; // Distancia a la que otro robot forma parte del mismo atasco
+    private static final int MAXIMO_ROBOTS_CBS = 4;
+    private static final int HORIZONTE_CBS = 48;
+    private static final int CICLOS_ENTRE_INTENTOS_CBS = 5; // Tras un intento fallido, no se reintenta enseguida
+    private static final int TAMANIO_CUBETA_INDICE = 8;
+    private static final int RESERVA_BATERIA = 10; // Batería por debajo de la cual el robot deja de trabajar y espera recarga
+    private static final int MAXIMO_OFERTAS_POR_ROBOT = 3;
+
+    public Planificador(Set<Robopuerto> robopuertos, GrillaEspacial grillaEspacial, Set<CofreLogistico> cofres, Set<RobotLogistico> robotsLogisticos, RegistroPedidos pedidos) {
         this.robopuertos = robopuertos;
         this.grillaEspacial = grillaEspacial;
         this.cofres = cofres;
         this.robotsLogisticos = robotsLogisticos;
         this.pedidos = pedidos;
-        this.rutasAsignadas = new HashMap<>();
         construirGrafo();
+        this.tablaReservas = new TablaReservas(grafoCompacto.getCantidadCeldas(), HORIZONTE_RESERVAS);
     }
 
 
     private void construirGrafo() {
-        this.grafo = new Grafo();
-
-        // Crear un nodo por cada celda de la grilla espacial (dentro del rectángulo)
-        Map<Punto, Nodo> mapaNodos = new HashMap<>();
-        Punto origen = grillaEspacial.getOrigen();
-        int x0 = origen.getX();
-        int y0 = origen.getY();
-        int ancho = grillaEspacial.getAncho();
-        int alto = grillaEspacial.getAlto();
-
-        // Primero, identificar las posiciones ocupadas por cofres, robots y robopuertos
-        Set<Punto> posicionesCofres = cofres.stream().map(CofreLogistico::getPosicion).collect(Collectors.toSet());
-        Set<Punto> posicionesRobots = robotsLogisticos.stream().map(RobotLogistico::getPosicion).collect(Collectors.toSet());
-        Map<Punto, RobotLogistico> robotsPorPosicion = robotsLogisticos.stream().collect(Collectors.toMap(RobotLogistico::getPosicion, r -> r));
-        Set<Punto> posicionesRobopuertos = robopuertos.stream().map(Robopuerto::getPosicion).collect(Collectors.toSet());
-
-        // Crear nodos para cada celda válida
-        for (int dx = 0; dx < ancho; dx++) {
-            for (int dy = 0; dy < alto; dy++) {
-                Punto p = new Punto(x0 + dx, y0 + dy);
-                if (grillaEspacial.dentroDeGrilla(p)) {
-                    Nodo nodo = new Nodo(p);
-                    grafo.agregarNodo(nodo);
-                    mapaNodos.put(p, nodo);
-                }
-            }
+        // Primero, registrar las posiciones ocupadas por cofres, robots y robopuertos
+        this.mapaOcupacion = new MapaOcupacion(grillaEspacial);
+        for (CofreLogistico cofre : cofres) {
+            mapaOcupacion.marcarCofre(cofre.getPosicion());
+        }
+        for (Robopuerto robopuerto : robopuertos) {
+            mapaOcupacion.marcarRobopuerto(robopuerto.getPosicion());
+        }
+        for (RobotLogistico robot : robotsLogisticos) {
+            mapaOcupacion.registrarRobot(robot);
         }
+        this.mapaCobertura = new MapaCobertura(grillaEspacial, robopuertos);
+        this.indiceRobopuertos = new IndiceEspacial<>(TAMANIO_CUBETA_INDICE, robopuertos);
+        this.indiceCofres = new IndiceEspacial<>(TAMANIO_CUBETA_INDICE, cofres);
+        this.indiceRobots = new IndiceEspacial<>(TAMANIO_CUBETA_INDICE, robotsLogisticos);
+
+        // Una celda por cada posición de la grilla, conectada ortogonalmente con sus vecinas transitables
+        this.grafoCompacto = GrafoCompacto.desdeGrilla(grillaEspacial, celda -> mapaOcupacion.esTransitable(celda, null), factorConsumo);
+        this.grafo = null;
+        // La vista de objetos queda desactualizada en cuanto cambia una celda
+        grafoCompacto.registrarObservador((celda, bloqueada) -> grafo = null);
+        this.motorBusqueda = new MotorBusqueda(grafoCompacto);
+        this.planificadorJerarquico = null;
+        this.oraculoLandmarks = null;
+        this.camposDistancia.invalidar();
+        this.buscadorCaminos = estrategiaBusqueda == EstrategiaBusqueda.A_ESTRELLA ? motorBusqueda : estrategiaBusqueda.crear(grafoCompacto);
+        this.buscadoresParalelos = null;
+    }
 
-        // Conectar nodos ortogonalmente si ambas celdas son transitables
-        int[][] ortogonales = { {1,0}, {-1,0}, {0,1}, {0,-1} };
-        for (Nodo nodo : grafo.getNodos()) {
-            Punto p = nodo.getNodo();
-            for (int[] dir : ortogonales) {
-                Punto vecino = new Punto(p.getX() + dir[0], p.getY() + dir[1]);
-                Nodo nodoVecino = mapaNodos.get(vecino);
-                if (nodoVecino != null && esTransitable(vecino, null, posicionesCofres, posicionesRobots, robotsPorPosicion, posicionesRobopuertos)) {
-                    double peso = p.distanciaHacia(vecino) * factorConsumo;
-                    nodo.agregarArista(new Arista(nodo, nodoVecino, peso));
+    /**
+     * Elige el algoritmo con el que se buscan las rutas de los robots hacia los cofres.
+     * Todas las estrategias devuelven rutas del mismo costo; difieren en cuántos nodos expanden.
+     */
+    public void setEstrategiaBusqueda(EstrategiaBusqueda estrategiaBusqueda) {
+        this.estrategiaBusqueda = Objects.requireNonNull(estrategiaBusqueda, "La estrategia de búsqueda no puede ser null");
+        this.buscadorCaminos = estrategiaBusqueda == EstrategiaBusqueda.A_ESTRELLA ? motorBusqueda : estrategiaBusqueda.crear(grafoCompacto);
+        this.buscadoresParalelos = null;
+    }
+
+    public EstrategiaBusqueda getEstrategiaBusqueda() {
+        return estrategiaBusqueda;
+    }
+
+    /**
+     * Activa la planificación cooperativa (WHCA*): los robots planifican sus movimientos en
+     * espacio-tiempo sobre reservas compartidas y esperan su turno en lugar de bloquearse.
+     *
+     * @param ventana Cantidad de ciclos que planifica y reserva cada robot
+     */
+    public void activarPlanificacionCooperativa(int ventana) {
+        this.planificadorCooperativo = new PlanificadorCooperativo(grafoCompacto, ventana);
+    }
+
+    public void desactivarPlanificacionCooperativa() {
+        this.planificadorCooperativo = null;
+    }
+
+    public boolean esPlanificacionCooperativa() {
+        return planificadorCooperativo != null;
+    }
+
+    /**
+     * Activa la resolución de atascos con Conflict-Based Search: cuando un robot queda sin
+     * paso porque otros robots le ocupan las celdas que lo acercan al destino, se buscan caminos
+     * sin conflictos para él y los robots en movimiento que lo rodean. Si la búsqueda agota el
+     * presupuesto, cada robot sigue con la estrategia habitual.
+     *
+     * @param presupuestoMillis Tiempo máximo de cada resolución
+     */
+    public void activarResolucionConflictos(long presupuestoMillis) {
+        this.solucionadorCBS = new SolucionadorCBS(grafoCompacto, HORIZONTE_CBS, presupuestoMillis);
+    }
+
+    public void desactivarResolucionConflictos() {
+        this.solucionadorCBS = null;
+        planesConjuntos.clear();
+        ultimoIntentoCBS.clear();
+    }
+
+    public boolean esResolucionConflictos() {
+        return solucionadorCBS != null;
+    }
+
+    /**
+     * Evalúa en paralelo a los robots candidatos de cada pedido. Cada hilo busca con su propio
+     * motor y los resultados se comparan en el mismo orden que la evaluación secuencial, así
+     * que el robot elegido es el mismo con cualquier cantidad de hilos.
+     *
+     * @param hilos Cantidad de robots que se evalúan a la vez
+     */
+    public void activarEvaluacionParalela(int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser positiva");
+        }
+        desactivarEvaluacionParalela();
+        this.poolEvaluacion = new ForkJoinPool(hilos);
+    }
+
+    public void desactivarEvaluacionParalela() {
+        if (poolEvaluacion != null) {
+            poolEvaluacion.shutdown();
+            poolEvaluacion = null;
+        }
+        buscadoresParalelos = null;
+    }
+
+    public boolean esEvaluacionParalela() {
+        return poolEvaluacion != null;
+    }
+
+    /**
+     * Motores de búsqueda de los hilos de evaluación, configurados igual que el principal
+     * para que encuentren exactamente las mismas rutas.
+     */
+    private BuscadorCaminos[] getBuscadoresParalelos() {
+        if (buscadoresParalelos == null || buscadoresParalelos.length != poolEvaluacion.getParallelism()) {
+            buscadoresParalelos = new BuscadorCaminos[poolEvaluacion.getParallelism()];
+            for (int i = 0; i < buscadoresParalelos.length; i++) {
+                if (estrategiaBusqueda == EstrategiaBusqueda.A_ESTRELLA) {
+                    MotorBusqueda motor = new MotorBusqueda(grafoCompacto);
+                    motor.setOraculo(oraculoLandmarks);
+                    buscadoresParalelos[i] = motor;
+                } else {
+                    buscadoresParalelos[i] = estrategiaBusqueda.crear(grafoCompacto);
                 }
             }
         }
+        return buscadoresParalelos;
     }
 
     /**
-     * Determina si una celda es transitable para un robot dado.
-     * Si robotPlanificador es null, se asume para construcción general del grafo.
+     * Con el seguimiento de rutas, cada robot guarda el camino planificado hacia su destino y
+     * avanza por él un índice por ciclo; solo lo rehace si la celda siguiente está ocupada.
+     * Sin él, el siguiente paso se recalcula en cada ciclo desde el campo de distancias.
      */
-    private boolean esTransitable(Punto punto, RobotLogistico robotPlanificador, Set<Punto> posicionesCofres, Set<Punto> posicionesRobots, Map<Punto, RobotLogistico> robotsPorPosicion, Set<Punto> posicionesRobopuertos) {
-        // Cofres: la celda es obstáculo
-        if (posicionesCofres.contains(punto)) return false;
-        // Robots: la celda es obstáculo, salvo que sea el propio robot planificando
-        if (posicionesRobots.contains(punto)) {
-            if (robotPlanificador == null) return false;
-            RobotLogistico robotEnCelda = robotsPorPosicion.get(punto);
-            if (robotEnCelda != null && !robotEnCelda.equals(robotPlanificador)) return false;
+    public void setSeguimientoRutas(boolean seguimientoRutas) {
+        this.seguimientoRutas = seguimientoRutas;
+        if (!seguimientoRutas) {
+            rutasEnCurso.clear();
         }
-        // Robopuertos: obstáculo solo si hay un robot ACTIVO en la celda
-        if (posicionesRobopuertos.contains(punto)) {
-            RobotLogistico robotEnRobopuerto = robotsPorPosicion.get(punto);
-            if (robotEnRobopuerto != null && robotEnRobopuerto.getEstado() == EstadoRobot.ACTIVO) {
-                if (robotPlanificador == null || !robotEnRobopuerto.equals(robotPlanificador)) return false;
-            }
+    }
+
+    public boolean esSeguimientoRutas() {
+        return seguimientoRutas;
+    }
+
+    /**
+     * Informa el ciclo de simulación en curso, que usa la planificación cooperativa para
+     * fechar sus reservas.
+     */
+    public void iniciarCiclo(int ciclo) {
+        this.cicloActual = ciclo;
+        if (planificadorCooperativo != null) {
+            planificadorCooperativo.iniciarCiclo(ciclo);
         }
-        return true;
     }
 
-    // Contador para generar IDs únicos para las rutas
-    private static final AtomicInteger rutaIdCounter = new AtomicInteger(1);
+    /**
+     * Elige cómo se mide el costo de cada robot candidato al asignar un pedido.
+     */
+    public void setModoEvaluacionRobots(ModoEvaluacionRobots modoEvaluacionRobots) {
+        this.modoEvaluacionRobots = Objects.requireNonNull(modoEvaluacionRobots, "El modo de evaluación no puede ser null");
+    }
+
+    public ModoEvaluacionRobots getModoEvaluacionRobots() {
+        return modoEvaluacionRobots;
+    }
 
     /**
-     * Calcula las rutas óptimas desde un nodo de origen a todos los demás nodos
-     * utilizando el algoritmo de Dijkstra.
+     * Elige cómo se reparten los pedidos pendientes entre los robots en cada ciclo.
+     */
+    public void setModoAsignacion(ModoAsignacion modoAsignacion) {
+        this.modoAsignacion = Objects.requireNonNull(modoAsignacion, "El modo de asignación no puede ser null");
+    }
+
+    public ModoAsignacion getModoAsignacion() {
+        return modoAsignacion;
+    }
+
+    /**
+     * Devuelve el grafo compacto sobre el que corren las búsquedas, por ejemplo para registrar
+     * un {@link ObservadorGrafo}.
+     */
+    public GrafoCompacto getGrafoCompacto() {
+        return grafoCompacto;
+    }
+
+    /**
+     * Reservas de los recorridos asignados en la última pasada.
+     */
+    TablaReservas getTablaReservas() {
+        return tablaReservas;
+    }
+
+    /**
+     * Devuelve la vista de objetos (Nodo/Arista) del grafo. Se materializa a pedido a partir del
+     * grafo compacto, ya que el planificador solo la necesita para la API basada en nodos.
+     * El ordinal de cada nodo coincide con su índice de celda.
+     */
+    public Grafo getGrafo() {
+        if (grafo == null) {
+            grafo = grafoCompacto.aGrafo();
+        }
+        return grafo;
+    }
+
+    /**
+     * Actualiza la ocupación de la grilla cuando un robot cambia de posición.
      *
-     * @param origen Nodo de origen
-     * @return Mapa con las rutas óptimas a cada nodo
+     * @param robot Robot que se movió
+     * @param nuevaPosicion Posición que pasa a ocupar
      */
-    public Map<Nodo, Ruta> calcularRutasOptimas(Nodo origen) { //TODO: Dijkstra comienza acá
-        Map<Nodo, Double> distancias = new HashMap<>();
-        Map<Nodo, Nodo> predecesores = new HashMap<>();
-        Set<Nodo> nodosNoVisitados = new HashSet<>();
-
-        // Inicialización
-        for (Nodo nodo : grafo.getNodos()) {
-            distancias.put(nodo, Double.MAX_VALUE);
-            predecesores.put(nodo, null);
-            nodosNoVisitados.add(nodo);
-        }
-        distancias.put(origen, 0.0);
-
-        while (!nodosNoVisitados.isEmpty()) {
-            // Encontrar el nodo no visitado con la menor distancia
-            Nodo actual = null;
-            double menorDistancia = Double.MAX_VALUE;
-            for (Nodo nodo : nodosNoVisitados) {
-                if (distancias.get(nodo) < menorDistancia) {
-                    menorDistancia = distancias.get(nodo);
-                    actual = nodo;
-                }
-            }
+    public void actualizarPosicionRobot(RobotLogistico robot, Punto nuevaPosicion) {
+        int celdaAnterior = mapaOcupacion.moverRobot(robot, nuevaPosicion);
+        indiceRobots.actualizar(robot);
+        if (celdaAnterior != -1) {
+            sincronizarCelda(celdaAnterior);
+        }
+        sincronizarCelda(mapaOcupacion.indiceDe(nuevaPosicion));
+    }
 
-            if (actual == null || menorDistancia == Double.MAX_VALUE) {
-                break; // No hay más nodos alcanzables
-            }
+    /**
+     * Registra un cofre agregado a la red: su celda pasa a ser un obstáculo.
+     */
+    public void agregarCofre(CofreLogistico cofre) {
+        mapaOcupacion.marcarCofre(cofre.getPosicion());
+        indiceCofres.agregar(cofre);
+        sincronizarCelda(mapaOcupacion.indiceDe(cofre.getPosicion()));
+        marcarObstaculoFijo(mapaOcupacion.indiceDe(cofre.getPosicion()), true);
+        invalidarEstructurasFijas();
+    }
 
-            nodosNoVisitados.remove(actual);
+    /**
+     * Registra un cofre quitado de la red: su celda vuelve a ser transitable si nada más la ocupa.
+     */
+    public void quitarCofre(CofreLogistico cofre) {
+        mapaOcupacion.desmarcarCofre(cofre.getPosicion());
+        indiceCofres.quitar(cofre);
+        sincronizarCelda(mapaOcupacion.indiceDe(cofre.getPosicion()));
+        marcarObstaculoFijo(mapaOcupacion.indiceDe(cofre.getPosicion()), false);
+        invalidarEstructurasFijas();
+    }
+
+    /**
+     * Registra un robopuerto habilitado en la red.
+     */
+    public void agregarRobopuerto(Robopuerto robopuerto) {
+        mapaOcupacion.marcarRobopuerto(robopuerto.getPosicion());
+        mapaCobertura.agregar(robopuerto);
+        indiceRobopuertos.agregar(robopuerto);
+        sincronizarCelda(mapaOcupacion.indiceDe(robopuerto.getPosicion()));
+        planificadorJerarquico = null; // La cobertura cambia en todo el alcance del robopuerto
+        invalidarEstructurasFijas();
+    }
 
-            // Actualizar distancias de los vecinos
-            for (Arista arista : actual.getAristas()) {
-                Nodo vecino = arista.getDestino();
-                double distanciaAlternativa = distancias.get(actual) + arista.getPeso();
+    /**
+     * Registra un robopuerto deshabilitado en la red.
+     */
+    public void quitarRobopuerto(Robopuerto robopuerto) {
+        mapaOcupacion.desmarcarRobopuerto(robopuerto.getPosicion());
+        mapaCobertura.quitar(robopuerto);
+        indiceRobopuertos.quitar(robopuerto);
+        sincronizarCelda(mapaOcupacion.indiceDe(robopuerto.getPosicion()));
+        planificadorJerarquico = null;
+        invalidarEstructurasFijas();
+    }
 
-                if (distanciaAlternativa < distancias.get(vecino)) {
-                    distancias.put(vecino, distanciaAlternativa);
-                    predecesores.put(vecino, actual);
-                }
+    /**
+     * Devuelve el oráculo de landmarks, construyéndolo si hace falta. Los landmarks son los
+     * robopuertos y las esquinas de la grilla, y las distancias solo consideran a los cofres
+     * como obstáculos: los robots se mueven todo el tiempo y solo pueden alargar los caminos,
+     * así que las cotas siguen siendo válidas sin recalcular nada cuando se desplazan.
+     */
+    OraculoLandmarks getOraculoLandmarks() {
+        if (oraculoLandmarks == null) {
+            int[] candidatos = new int[robopuertos.size() + 4];
+            int cantidad = 0;
+            for (Robopuerto robopuerto : robopuertos) {
+                candidatos[cantidad++] = grafoCompacto.indiceDe(robopuerto.getPosicion());
             }
+            int ancho = grafoCompacto.getAncho();
+            candidatos[cantidad++] = 0;
+            candidatos[cantidad++] = grafoCompacto.getCantidadCeldas() - 1;
+            candidatos[cantidad++] = ancho - 1;
+            candidatos[cantidad] = grafoCompacto.getCantidadCeldas() - ancho;
+            oraculoLandmarks = new OraculoLandmarks(grafoCompacto, candidatos, celda -> !mapaOcupacion.hayCofre(celda), MAXIMO_LANDMARKS);
+            motorBusqueda.setOraculo(oraculoLandmarks);
+            buscadoresParalelos = null;
         }
+        return oraculoLandmarks;
+    }
+
+    /**
+     * Descarta el oráculo de landmarks y los campos de distancia cuando cambian los obstáculos
+     * fijos o los robopuertos. Los movimientos de robots no los invalidan.
+     */
+    private void invalidarEstructurasFijas() {
+        oraculoLandmarks = null;
+        motorBusqueda.setOraculo(null);
+        buscadoresParalelos = null;
+        camposDistancia.invalidar();
+        rutasEnCurso.clear();
+    }
+
+    /**
+     * Avisa a la búsqueda jerárquica que cambió un obstáculo fijo. Su abstracción no escucha al
+     * grafo, así que los movimientos de robots no la invalidan.
+     */
+    private void marcarObstaculoFijo(int celda, boolean bloqueada) {
+        if (celda != -1 && planificadorJerarquico != null) {
+            planificadorJerarquico.celdaActualizada(celda, bloqueada);
+        }
+    }
+
+    /**
+     * Bloquea o libera una celda del grafo según su ocupación actual. Solo se toca esa celda:
+     * las aristas que entran a ella dejan o vuelven a poder usarse sin reconstruir el grafo.
+     */
+    private void sincronizarCelda(int celda) {
+        if (celda == -1) {
+            return;
+        }
+        if (mapaOcupacion.esTransitable(celda, null)) {
+            grafoCompacto.liberar(celda);
+        } else {
+            grafoCompacto.bloquear(celda);
+        }
+    }
+
+    // Contador para generar IDs únicos para las rutas
+    private static final AtomicInteger rutaIdCounter = new AtomicInteger(1);
+
+    /**
+     * Calcula las rutas óptimas desde un nodo de origen a todos los demás nodos
+     * utilizando el algoritmo de Dijkstra (ver {@link MotorBusqueda}).
+     *
+     * @param origen Nodo de origen
+     * @return Mapa con las rutas óptimas a cada nodo
+     */
+    public Map<Nodo, Ruta> calcularRutasOptimas(Nodo origen) {
+        motorBusqueda.calcularDesde(origen.getIndice());
 
         // Construir las rutas óptimas
         Map<Nodo, Ruta> rutasOptimas = new HashMap<>();
-        for (Nodo destino : grafo.getNodos()) {
-            if (predecesores.get(destino) != null || destino.equals(origen)) {
-                Ruta ruta = construirRuta(origen, destino, predecesores);
+        for (Nodo destino : getGrafo().getNodos()) {
+            if (motorBusqueda.getPredecesor(destino.getIndice()) != -1 || destino.equals(origen)) {
+                Ruta ruta = construirRuta(origen, destino);
                 rutasOptimas.put(destino, ruta);
             }
         }
@@ -165,14 +441,13 @@ public class Planificador { //lo está haciendo tomi
 
     /**
      * Construye una ruta desde un nodo de origen a un nodo de destino
-     * utilizando los predecesores calculados por el algoritmo de Dijkstra.
+     * utilizando los predecesores calculados por la última búsqueda del motor.
      *
      * @param origen Nodo de origen
      * @param destino Nodo de destino
-     * @param predecesores Mapa de predecesores
      * @return Ruta óptima desde el origen al destino
      */
-    private Ruta construirRuta(Nodo origen, Nodo destino, Map<Nodo, Nodo> predecesores) {
+    private Ruta construirRuta(Nodo origen, Nodo destino) {
         // Generar un ID único para la ruta
         int rutaId = rutaIdCounter.getAndIncrement();
 
@@ -182,7 +457,7 @@ public class Planificador { //lo está haciendo tomi
         }
 
         // Si no hay predecesor para el destino, no hay ruta
-        if (predecesores.get(destino) == null) {
+        if (motorBusqueda.getPredecesor(destino.getIndice()) == -1) {
             return null;
         }
 
@@ -190,60 +465,660 @@ public class Planificador { //lo está haciendo tomi
         return new Ruta(rutaId, origen.getNodo(), destino.getNodo());
     }
 
+    /**
+     * Calcula la ruta más corta desde un nodo hasta el más cercano de un conjunto de
+     * nodos objetivo (por ejemplo, las celdas transitables adyacentes a un cofre), con la
+     * estrategia de búsqueda elegida (A* por defecto).
+     * A diferencia de {@link #calcularRutasOptimas(Nodo)}, no recorre todo el grafo: se detiene
+     * al alcanzar el primer objetivo, guiada por la distancia Manhattan.
+     *
+     * @param origen Nodo de origen
+     * @param objetivos Nodos objetivo
+     * @return Ruta con las celdas recorridas y su costo, o null si ningún objetivo es alcanzable
+     */
+    public Ruta calcularRutaMasCorta(Nodo origen, Collection<Nodo> objetivos) {
+        int[] celdasObjetivo = new int[objetivos.size()];
+        int i = 0;
+        for (Nodo objetivo : objetivos) {
+            celdasObjetivo[i++] = objetivo.getIndice();
+        }
+        return calcularRutaMasCorta(origen.getIndice(), celdasObjetivo);
+    }
+
+    private Ruta calcularRutaMasCorta(int celdaOrigen, int[] celdasObjetivo) {
+        return calcularRutaMasCorta(celdaOrigen, celdasObjetivo, buscadorCaminos);
+    }
+
+    /**
+     * @param buscador Motor con el que se busca; cada hilo de evaluación usa el suyo
+     */
+    private Ruta calcularRutaMasCorta(int celdaOrigen, int[] celdasObjetivo, BuscadorCaminos buscador) {
+        if (usarBusquedaJerarquica(celdaOrigen, celdasObjetivo)) {
+            return calcularRutaJerarquica(celdaOrigen, celdasObjetivo);
+        }
+        int alcanzada = buscador.buscarHastaObjetivos(celdaOrigen, celdasObjetivo, factorConsumo);
+        if (alcanzada == -1) {
+            return null;
+        }
+
+        List<Punto> puntos = new ArrayList<>();
+        for (int celda : buscador.reconstruirCamino(alcanzada)) {
+            puntos.add(grafoCompacto.puntoDe(celda));
+        }
+        return new Ruta(rutaIdCounter.getAndIncrement(), puntos, buscador.getDistancia(alcanzada));
+    }
+
+    /**
+     * Misión en curso de un robot: el destino hacia el que se mueve y el replanificador
+     * incremental que conserva su árbol de búsqueda entre ciclos.
+     */
+    private static class Mision {
+        private final int celdaDestino;
+        private final ReplanificadorDStarLite replanificador;
+
+        private Mision(int celdaDestino, ReplanificadorDStarLite replanificador) {
+            this.celdaDestino = celdaDestino;
+            this.replanificador = replanificador;
+        }
+    }
+
+    /**
+     * Camino acordado por CBS para un robot de un atasco. El robot lo recorre celda por celda;
+     * si no pudo avanzar, reintenta el mismo paso, y si quedó fuera del camino, se descarta.
+     */
+    private static class PlanConjunto {
+        private final int celdaDestino;
+        private final int[] celdas;
+        private int indice; // Celda del camino en la que debería estar el robot
+
+        private PlanConjunto(int celdaDestino, int[] celdas) {
+            this.celdaDestino = celdaDestino;
+            this.celdas = celdas;
+        }
+    }
+
+    /**
+     * Camino planificado de un robot hacia su destino; indice es la posición del camino en la
+     * que está el robot.
+     */
+    private static class RutaEnCurso {
+        private final int celdaDestino;
+        private final int[] celdas;
+        private int indice;
+
+        private RutaEnCurso(int celdaDestino, int[] celdas) {
+            this.celdaDestino = celdaDestino;
+            this.celdas = celdas;
+        }
+
+        /**
+         * Avanza el índice si el robot dio el paso anterior.
+         *
+         * @return true si el robot sigue sobre el camino
+         */
+        private boolean sincronizar(int celdaRobot) {
+            if (indice + 1 < celdas.length && celdas[indice + 1] == celdaRobot) {
+                indice++;
+            }
+            return celdas[indice] == celdaRobot;
+        }
+    }
+
+    /**
+     * Calcula el siguiente paso de un robot hacia un destino. Con la planificación cooperativa
+     * activa, sigue el plan WHCA* del robot, que puede indicarle esperar devolviendo su misma
+     * posición. Con el seguimiento de rutas, el robot avanza por el camino que tiene guardado
+     * en O(1), y si la celda siguiente está ocupada lo descarta para rehacerlo desde donde esté.
+     * Si no, o si ese plan no encuentra salida, consulta el campo de
+     * distancias del destino, compartido por todos los robots que van hacia él, lo que cuesta
+     * O(1) por paso. Si las vecinas que acercan al robot están ocupadas por otros robots,
+     * y la resolución de conflictos está activa, busca con CBS caminos conjuntos para el robot y
+     * sus vecinos, que estos siguen en los ciclos siguientes. Si no, o si CBS agota su tiempo,
+     * recurre a D* Lite: la primera consulta de una misión busca el camino completo y las
+     * siguientes solo lo reparan con los cambios de ocupación ocurridos desde el ciclo anterior.
+     * Si el destino es un cofre, la misión termina en cualquier celda adyacente a él.
+     * El camino evita robopuertos intermedios y celdas fuera del alcance de los robopuertos.
+     * <p>
+     * En grillas grandes no se arma ningún campo de distancias: si el destino está lejos, el
+     * robot sigue el primer tramo refinado de la búsqueda jerárquica y, al terminarlo, se busca
+     * el siguiente; si está cerca o el tramo está ocupado, avanza con D* Lite. En ese caso no
+     * intervienen la planificación cooperativa ni CBS, que trabajan sobre campos de distancia.
+     *
+     * @param robot Robot que se mueve
+     * @param destino Posición de destino (cofre o robopuerto)
+     * @return Siguiente posición del camino (la actual si debe esperar), o null si no hay camino o el robot ya llegó
+     */
+    public Punto calcularSiguientePaso(RobotLogistico robot, Punto destino) {
+        int celdaRobot = grafoCompacto.indiceDe(robot.getPosicion());
+        int celdaDestino = grafoCompacto.indiceDe(destino);
+        if (celdaRobot == -1 || celdaDestino == -1) {
+            return null;
+        }
+        if (esGrillaGrande()) {
+            return siguientePasoEnGrillaGrande(robot, celdaRobot, celdaDestino);
+        }
+
+        CampoDistancias campo = camposDistancia.obtener(celdaDestino, this::crearCampoDistancias);
+        if (campo.getPasos(celdaRobot) == 0) {
+            liberarMision(robot); // Llegó: su replanificador ya no sirve
+            return null;
+        }
+        destinosEnCurso.put(robot, celdaDestino);
+        int pasoConjunto = siguientePasoConjunto(robot, celdaRobot, celdaDestino);
+        if (pasoConjunto != -1) {
+            return grafoCompacto.puntoDe(pasoConjunto);
+        }
+        if (planificadorCooperativo != null) {
+            int pasoCooperativo = planificadorCooperativo.siguientePaso(robot, celdaRobot, celdaDestino, campo);
+            if (pasoCooperativo != -1) {
+                return grafoCompacto.puntoDe(pasoCooperativo);
+            }
+        } else if (seguimientoRutas) {
+            int pasoRuta = siguientePasoRuta(robot, celdaRobot, celdaDestino, campo);
+            if (pasoRuta != -1) {
+                return grafoCompacto.puntoDe(pasoRuta);
+            }
+        }
+        int pasoCampo = campo.siguientePaso(celdaRobot);
+        if (pasoCampo != -1) {
+            return grafoCompacto.puntoDe(pasoCampo);
+        }
+        if (solucionadorCBS != null) {
+            int pasoDestrabado = resolverAtasco(robot, celdaRobot);
+            if (pasoDestrabado != -1) {
+                return grafoCompacto.puntoDe(pasoDestrabado);
+            }
+        }
+
+        return siguientePasoIncremental(robot, celdaRobot, celdaDestino);
+    }
+
+    /**
+     * Siguiente paso con el D* Lite de la misión del robot, que se crea al cambiar de destino.
+     */
+    private Punto siguientePasoIncremental(RobotLogistico robot, int celdaRobot, int celdaDestino) {
+        Mision mision = misiones.get(robot);
+        if (mision == null || mision.celdaDestino != celdaDestino) {
+            if (mision != null) {
+                mision.replanificador.liberar();
+            }
+            int[] objetivos = objetivosDe(celdaDestino);
+            if (objetivos.length == 0) {
+                misiones.remove(robot);
+                return null;
+            }
+            ReplanificadorDStarLite replanificador = new ReplanificadorDStarLite(grafoCompacto, objetivos,
+                    celda -> celda == celdaDestino || esCeldaDePaso(celda), factorConsumo);
+            mision = new Mision(celdaDestino, replanificador);
+            misiones.put(robot, mision);
+        }
+
+        int paso = mision.replanificador.siguientePaso(celdaRobot);
+        if (paso == -1 || paso == celdaRobot) {
+            return null;
+        }
+        return grafoCompacto.puntoDe(paso);
+    }
+
+    private Punto siguientePasoEnGrillaGrande(RobotLogistico robot, int celdaRobot, int celdaDestino) {
+        int[] objetivos = objetivosDe(celdaDestino);
+        for (int objetivo : objetivos) {
+            if (objetivo == celdaRobot) {
+                liberarMision(robot);
+                return null;
+            }
+        }
+        destinosEnCurso.put(robot, celdaDestino);
+        if (usarBusquedaJerarquica(celdaRobot, objetivos)) {
+            int pasoJerarquico = siguientePasoJerarquico(robot, celdaRobot, celdaDestino, objetivos);
+            if (pasoJerarquico != -1) {
+                descartarReplanificador(robot);
+                return grafoCompacto.puntoDe(pasoJerarquico);
+            }
+        }
+        return siguientePasoIncremental(robot, celdaRobot, celdaDestino);
+    }
+
+    /**
+     * @return siguiente celda del tramo jerárquico que recorre el robot (refinando el primer
+     *         tramo de una búsqueda nueva si terminó el anterior o no tiene uno vigente),
+     *         o -1 si no hay camino o la celda siguiente está ocupada
+     */
+    private int siguientePasoJerarquico(RobotLogistico robot, int celdaRobot, int celdaDestino, int[] objetivos) {
+        RutaEnCurso ruta = rutasEnCurso.get(robot);
+        if (ruta == null || ruta.celdaDestino != celdaDestino || !ruta.sincronizar(celdaRobot) || ruta.indice + 1 >= ruta.celdas.length) {
+            Ruta jerarquica = calcularRutaJerarquica(celdaRobot, objetivos);
+            int[] tramo = jerarquica != null ? celdasContiguas(jerarquica.getPuntos(), List.of()) : null;
+            if (tramo == null || tramo.length < 2) {
+                rutasEnCurso.remove(robot);
+                return -1;
+            }
+            ruta = new RutaEnCurso(celdaDestino, tramo);
+            rutasEnCurso.put(robot, ruta);
+        }
+        int siguiente = ruta.celdas[ruta.indice + 1];
+        if (grafoCompacto.estaBloqueada(siguiente)) {
+            rutasEnCurso.remove(robot);
+            return -1;
+        }
+        return siguiente;
+    }
+
+    /**
+     * @return siguiente celda de la ruta guardada del robot (armándola si no tiene una vigente),
+     *         o -1 si la celda siguiente está ocupada y hay que replanificar
+     */
+    private int siguientePasoRuta(RobotLogistico robot, int celdaRobot, int celdaDestino, CampoDistancias campo) {
+        RutaEnCurso ruta = rutasEnCurso.get(robot);
+        if (ruta == null || ruta.celdaDestino != celdaDestino || !ruta.sincronizar(celdaRobot)) {
+            int[] celdas = campo.caminoDesde(celdaRobot);
+            if (celdas == null || celdas.length < 2) {
+                rutasEnCurso.remove(robot);
+                return -1;
+            }
+            ruta = new RutaEnCurso(celdaDestino, celdas);
+            rutasEnCurso.put(robot, ruta);
+        }
+        if (ruta.indice + 1 >= ruta.celdas.length) {
+            return -1;
+        }
+        int siguiente = ruta.celdas[ruta.indice + 1];
+        if (grafoCompacto.estaBloqueada(siguiente)) {
+            rutasEnCurso.remove(robot); // Bloqueada: se rehace desde la próxima posición del robot
+            return -1;
+        }
+        return siguiente;
+    }
+
+    /**
+     * Devuelve lo que le falta recorrer al robot de su ruta guardada hacia el destino.
+     *
+     * @return Puntos desde la posición actual del robot hasta el final de la ruta, o una lista
+     *         vacía si el robot no tiene una ruta vigente hacia ese destino
+     */
+    public List<Punto> getRutaPlanificada(RobotLogistico robot, Punto destino) {
+        RutaEnCurso ruta = rutasEnCurso.get(robot);
+        int celdaRobot = grafoCompacto.indiceDe(robot.getPosicion());
+        if (ruta == null || ruta.celdaDestino != grafoCompacto.indiceDe(destino) || !ruta.sincronizar(celdaRobot)) {
+            return new ArrayList<>();
+        }
+        List<Punto> puntos = new ArrayList<>(ruta.celdas.length - ruta.indice);
+        for (int i = ruta.indice; i < ruta.celdas.length; i++) {
+            puntos.add(grafoCompacto.puntoDe(ruta.celdas[i]));
+        }
+        return puntos;
+    }
+
+    /**
+     * @return siguiente celda del camino acordado por CBS, o -1 si el robot no tiene uno vigente
+     */
+    private int siguientePasoConjunto(RobotLogistico robot, int celdaRobot, int celdaDestino) {
+        PlanConjunto plan = planesConjuntos.get(robot);
+        if (plan == null) {
+            return -1;
+        }
+        if (plan.celdas[plan.indice] != celdaRobot && plan.indice > 0 && plan.celdas[plan.indice - 1] == celdaRobot) {
+            plan.indice--; // El paso anterior no se pudo dar
+        }
+        if (plan.celdaDestino != celdaDestino || plan.celdas[plan.indice] != celdaRobot || plan.indice + 1 >= plan.celdas.length) {
+            planesConjuntos.remove(robot);
+            return -1;
+        }
+        return plan.celdas[++plan.indice];
+    }
+
+    /**
+     * Arma el grupo de robots en movimiento alrededor del robot trabado y les busca caminos
+     * sin conflictos con CBS. Los demás robots se tratan como obstáculos fijos.
+     *
+     * @return siguiente celda del robot trabado, o -1 si CBS no encontró solución a tiempo
+     */
+    private int resolverAtasco(RobotLogistico robot, int celdaRobot) {
+        Integer ultimoIntento = ultimoIntentoCBS.get(robot);
+        if (ultimoIntento != null && cicloActual - ultimoIntento < CICLOS_ENTRE_INTENTOS_CBS) {
+            return -1;
+        }
+        ultimoIntentoCBS.put(robot, cicloActual);
+
+        List<RobotLogistico> grupo = new ArrayList<>();
+        grupo.add(robot);
+        Punto posicion = robot.getPosicion();
+        for (Map.Entry<RobotLogistico, Integer> entrada : destinosEnCurso.entrySet()) {
+            RobotLogistico otro = entrada.getKey();
+            if (otro == robot || grupo.size() == MAXIMO_ROBOTS_CBS
+                    || Math.abs(otro.getPosicion().getX() - posicion.getX()) + Math.abs(otro.getPosicion().getY() - posicion.getY()) > RADIO_GRUPO_CBS) {
+                continue;
+            }
+            int celdaOtro = grafoCompacto.indiceDe(otro.getPosicion());
+            CampoDistancias campoOtro = camposDistancia.obtener(entrada.getValue(), this::crearCampoDistancias);
+            if (celdaOtro != -1 && campoOtro.getPasos(celdaOtro) != 0) {
+                grupo.add(otro);
+            }
+        }
+        if (grupo.size() < 2) {
+            return -1; // Lo bloquean robots detenidos: D* Lite ya sabe rodearlos
+        }
+
+        int[] origenes = new int[grupo.size()];
+        CampoDistancias[] campos = new CampoDistancias[grupo.size()];
+        for (int i = 0; i < grupo.size(); i++) {
+            origenes[i] = grafoCompacto.indiceDe(grupo.get(i).getPosicion());
+            campos[i] = camposDistancia.obtener(destinosEnCurso.get(grupo.get(i)), this::crearCampoDistancias);
+        }
+        Set<Integer> celdasDelGrupo = new HashSet<>();
+        for (int origen : origenes) {
+            celdasDelGrupo.add(origen);
+        }
+        int[][] caminos = solucionadorCBS.resolver(origenes, campos,
+                celda -> grafoCompacto.estaBloqueada(celda) && !celdasDelGrupo.contains(celda));
+        if (caminos == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < grupo.size(); i++) {
+            planesConjuntos.put(grupo.get(i), new PlanConjunto(destinosEnCurso.get(grupo.get(i)), caminos[i]));
+        }
+        return siguientePasoConjunto(robot, celdaRobot, destinosEnCurso.get(robot));
+    }
+
+    private CampoDistancias crearCampoDistancias(int celdaDestino) {
+        return new CampoDistancias(grafoCompacto, objetivosDe(celdaDestino),
+                celda -> !mapaOcupacion.hayCofre(celda) && (celda == celdaDestino || esCeldaDePaso(celda)));
+    }
+
+    private int[] objetivosDe(int celdaDestino) {
+        return mapaOcupacion.hayCofre(celdaDestino) ? celdasVecinas(celdaDestino) : new int[] { celdaDestino };
+    }
+
+    /**
+     * Termina la misión de un robot: libera sus reservas y descarta su replanificador.
+     */
+    public void finalizarMision(RobotLogistico robot) {
+        notificarRobotLibre(robot);
+        if (planificadorCooperativo != null) {
+            planificadorCooperativo.liberar(robot);
+        }
+        planesConjuntos.remove(robot);
+        ultimoIntentoCBS.remove(robot);
+        tablaReservas.liberar(robot);
+        ciclosSalida.remove(robot);
+        liberarMision(robot);
+    }
+
+    /**
+     * Descarta el destino, la ruta y el replanificador de un robot que dejó de moverse: llegó
+     * a su destino o quedó PASIVO en un robopuerto. Así el replanificador deja de escuchar los
+     * cambios del grafo sin esperar a que el robot termine su pedido.
+     */
+    public void liberarMision(RobotLogistico robot) {
+        destinosEnCurso.remove(robot);
+        rutasEnCurso.remove(robot);
+        descartarReplanificador(robot);
+    }
+
+    private void descartarReplanificador(RobotLogistico robot) {
+        Mision mision = misiones.remove(robot);
+        if (mision != null) {
+            mision.replanificador.liberar();
+        }
+    }
+
+    /**
+     * Una celda sirve de paso si no es un robopuerto y el robopuerto más cercano la cubre,
+     * que es la misma condición que exige el robot para poder regresar desde ella.
+     */
+    private boolean esCeldaDePaso(int celda) {
+        return !mapaOcupacion.hayRobopuerto(celda) && mapaCobertura.estaCubiertaPorElMasCercano(celda);
+    }
+
+    /**
+     * @return true si algún robopuerto cubre el punto; cuesta una lectura del mapa de cobertura
+     */
+    public boolean estaEnCobertura(Punto punto) {
+        return mapaCobertura.estaCubierto(punto);
+    }
+
+    /**
+     * @return el robopuerto más cercano al punto según el índice espacial, o null si no hay
+     */
+    public Robopuerto getRobopuertoMasCercano(Punto punto) {
+        return indiceRobopuertos.masCercano(punto);
+    }
+
+    public boolean hayRobopuertoEn(Punto punto) {
+        return indiceRobopuertos.hayEn(punto);
+    }
+
+    public boolean hayCofreEn(Punto punto) {
+        return indiceCofres.hayEn(punto);
+    }
+
+    /**
+     * @return el robopuerto ubicado en el punto, o null si no hay ninguno
+     */
+    public Robopuerto getRobopuertoEn(Punto punto) {
+        List<Robopuerto> enElPunto = indiceRobopuertos.getEn(punto);
+        return enElPunto.isEmpty() ? null : enElPunto.get(0);
+    }
+
+    /**
+     * @return robots cuya posición es el punto. Dentro de la grilla se leen de la ocupación por
+     *         celda en O(1); fuera de ella, del índice espacial
+     */
+    public List<RobotLogistico> getRobotsEn(Punto punto) {
+        int celda = mapaOcupacion.indiceDe(punto);
+        return celda != -1 ? mapaOcupacion.getRobotsEn(celda) : indiceRobots.getEn(punto);
+    }
+
+    /**
+     * Indica si en el punto hay algún robot distinto del indicado, en O(1) dentro de la grilla.
+     */
+    public boolean hayOtroRobotEn(Punto punto, RobotLogistico robot) {
+        int celda = mapaOcupacion.indiceDe(punto);
+        if (celda != -1) {
+            return mapaOcupacion.hayOtroRobot(celda, robot);
+        }
+        for (RobotLogistico otro : indiceRobots.getEn(punto)) {
+            if (otro != robot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] celdasVecinas(int celda) {
+        int[] vecinas = new int[grafoCompacto.finAristas(celda) - grafoCompacto.inicioAristas(celda)];
+        int i = 0;
+        for (int arista = grafoCompacto.inicioAristas(celda), fin = grafoCompacto.finAristas(celda); arista < fin; arista++) {
+            vecinas[i++] = grafoCompacto.destino(arista);
+        }
+        return vecinas;
+    }
+
+    /**
+     * En grillas muy grandes, una consulta cuyos objetivos quedan a más de dos sectores de
+     * distancia se resuelve sobre el grafo abstracto de sectores en lugar de celda por celda.
+     */
+    private boolean usarBusquedaJerarquica(int celdaOrigen, int[] celdasObjetivo) {
+        if (!esGrillaGrande() || celdasObjetivo.length == 0) {
+            return false;
+        }
+        int distanciaMinima = Integer.MAX_VALUE;
+        for (int objetivo : celdasObjetivo) {
+            distanciaMinima = Math.min(distanciaMinima, Math.abs(grafoCompacto.getX(celdaOrigen) - grafoCompacto.getX(objetivo))
+                    + Math.abs(grafoCompacto.getY(celdaOrigen) - grafoCompacto.getY(objetivo)));
+        }
+        return distanciaMinima > 2 * TAMANIO_SECTOR;
+    }
+
+    private boolean esGrillaGrande() {
+        return grafoCompacto.getCantidadCeldas() >= CELDAS_MINIMAS_BUSQUEDA_JERARQUICA;
+    }
+
+    /**
+     * Calcula la ruta con la búsqueda jerárquica. La ruta trae refinado a celdas solo el primer
+     * tramo (o los dos primeros, si el primero apenas cruza un borde); después siguen los puntos de paso restantes (entradas entre sectores), que se
+     * refinan cuando el robot llega a ellos. La abstracción usa las mismas celdas de paso que
+     * los campos de distancia, así que toda la ruta queda dentro del alcance de los robopuertos.
+     * El planificador jerárquico es uno solo, así que los hilos de evaluación lo usan de a uno.
+     */
+    private Ruta calcularRutaJerarquica(int celdaOrigen, int[] celdasObjetivo) {
+        PlanificadorJerarquico jerarquico = getPlanificadorJerarquico();
+        synchronized (jerarquico) {
+            int alcanzada = jerarquico.buscarHastaObjetivos(celdaOrigen, celdasObjetivo, factorConsumo);
+            if (alcanzada == -1) {
+                return null;
+            }
+            int[] puntosDePaso = jerarquico.getPuntosDePaso(alcanzada);
+            int[] primerTramo = puntosDePaso.length > 1 ? jerarquico.refinarTramo(puntosDePaso[0], puntosDePaso[1]) : puntosDePaso;
+            if (primerTramo.length == 0) {
+                return null;
+            }
+            int refinados = Math.min(2, puntosDePaso.length);
+            if (primerTramo.length == 2 && puntosDePaso.length > 2) {
+                // El primer tramo solo cruza un borde: se refina también el siguiente
+                int[] siguiente = jerarquico.refinarTramo(puntosDePaso[1], puntosDePaso[2]);
+                if (siguiente.length > 0) {
+                    int[] unidos = Arrays.copyOf(primerTramo, siguiente.length + 1);
+                    System.arraycopy(siguiente, 1, unidos, 2, siguiente.length - 1);
+                    primerTramo = unidos;
+                    refinados = 3;
+                }
+            }
+            List<Punto> puntos = new ArrayList<>();
+            for (int celda : primerTramo) {
+                puntos.add(grafoCompacto.puntoDe(celda));
+            }
+            for (int i = refinados; i < puntosDePaso.length; i++) {
+                puntos.add(grafoCompacto.puntoDe(puntosDePaso[i]));
+            }
+            return new Ruta(rutaIdCounter.getAndIncrement(), puntos, jerarquico.getDistancia(alcanzada));
+        }
+    }
+
+    /**
+     * La abstracción solo considera obstáculos fijos: cofres, robopuertos intermedios y celdas
+     * fuera del alcance. Los robots no la invalidan al moverse.
+     */
+    private synchronized PlanificadorJerarquico getPlanificadorJerarquico() {
+        if (planificadorJerarquico == null) {
+            planificadorJerarquico = new PlanificadorJerarquico(grafoCompacto, TAMANIO_SECTOR,
+                    celda -> !mapaOcupacion.hayCofre(celda) && esCeldaDePaso(celda));
+        }
+        return planificadorJerarquico;
+    }
+
+    /**
+     * Avisa que hay un pedido nuevo para asignar.
+     */
+    public void notificarPedidoNuevo(Pedido pedido) {
+        pedidosPorRevisar.add(pedido);
+    }
+
+    /**
+     * Avisa que un pedido falló mientras un robot lo ejecutaba.
+     */
+    public void notificarPedidoFallido(Pedido pedido) {
+        pedidosPorRevisar.add(pedido);
+    }
+
+    /**
+     * Avisa que un robot quedó libre: terminó su pedido o completó una recarga.
+     */
+    public void notificarRobotLibre(RobotLogistico robot) {
+        robotsLiberados.add(robot);
+    }
+
+    /**
+     * Avisa que cambió el stock de un cofre.
+     */
+    public void notificarCambioStock(CofreLogistico cofre) {
+        cofresConCambioStock.add(cofre);
+    }
+
+    /**
+     * @return true si desde la última pasada ocurrió algo que puede cambiar la asignación
+     */
+    public boolean hayEventosPendientes() {
+        return !pedidosPorRevisar.isEmpty() || !robotsLiberados.isEmpty() || !cofresConCambioStock.isEmpty()
+                || pedidos.getPedidos().size() != cantidadPedidosRevisada;
+    }
+
     /**
      * Calcula la ruta más eficiente para cada pedido en la lista de pedidos.
      * Asigna los pedidos a los robots logísticos según la prioridad del pedido y las capacidades del robot.
      * Si un pedido falla, se crea un nuevo pedido con estado NUEVO y se intenta nuevamente hasta que
      * todos los pedidos sean satisfechos o se determine que no es posible satisfacerlos.
+     * <p>
+     * Solo trabaja si hubo eventos desde la última pasada. Cada pasada deja a todos los pedidos
+     * nuevos en proceso o fallidos, y un pedido solo sale de en proceso cuando su robot lo
+     * termina, que avisa que quedó libre; sin eventos, la pasada no asignaría nada y su
+     * resultado sería el de la anterior.
      * 
      * @return true si todos los pedidos pueden ser satisfechos, false en caso contrario
      */
     public boolean ejecutarRutas() {
+        if (!hayEventosPendientes()) {
+            return ultimoResultadoRutas;
+        }
+        pedidosPorRevisar.clear();
+        robotsLiberados.clear();
+        cofresConCambioStock.clear();
+        ultimoResultadoRutas = asignarPedidos();
+        cantidadPedidosRevisada = pedidos.getPedidos().size();
+        cantidadPasadas++;
+        return ultimoResultadoRutas;
+    }
+
+    /**
+     * @return cantidad de veces que {@link #ejecutarRutas()} corrió la asignación
+     */
+    int getCantidadPasadas() {
+        return cantidadPasadas;
+    }
+
+    private boolean asignarPedidos() {
         // Set para llevar registro de pedidos que ya han fallado y se han reintentado
         Set<String> pedidosReintentados = new HashSet<>();
         boolean algunPedidoFallido;
         boolean progresoRealizado;
 
         do {
-            // Reiniciar las rutas asignadas
-            rutasAsignadas.clear();
-
             // Lista para almacenar pedidos fallidos en esta iteración
             List<Pedido> pedidosFallidos = new ArrayList<>();
 
-            // Ordenar pedidos por prioridad (ALTA > MEDIA > BAJA)
-            List<Pedido> pedidosOrdenados = new ArrayList<>(pedidos);
-            pedidosOrdenados.sort((p1, p2) -> {
-                // Comparar por prioridad (mayor a menor)
-                // Si tienen la misma prioridad, mantener el orden original
-                return p2.getPrioridad().ordinal() - p1.getPrioridad().ordinal();
-            });
-
-            // Filtrar pedidos que no están completados ni fallidos
-            pedidosOrdenados = pedidosOrdenados.stream()
-                    .filter(p -> !p.estaCompletado() && !p.estaFallido())
-                    .collect(Collectors.toList());
-
-            // Si no hay pedidos pendientes, retornar true
-            if (pedidosOrdenados.isEmpty()) {
+            // Si no hay pedidos nuevos ni en proceso, retornar true
+            if (!pedidos.hayPendientes()) {
                 return true;
             }
 
+            // Repartir primero los pedidos entre los robots libres, con una asignación de costo mínimo o una subasta
+            if (modoAsignacion == ModoAsignacion.POR_LOTE) {
+                asignarPorLote(pedidos.getPedidos(Pedido.EstadoPedido.NUEVO));
+            } else if (modoAsignacion == ModoAsignacion.POR_SUBASTA) {
+                asignarPorSubasta(pedidos.getPedidos(Pedido.EstadoPedido.NUEVO));
+            }
+
             // Procesar cada pedido
             boolean todosPedidosSatisfechos = true;
 
-            for (Pedido pedido : pedidosOrdenados) {
-                // Si el pedido ya está en proceso, continuar con el siguiente
-                if (pedido.getEstado() == Pedido.EstadoPedido.EN_PROCESO) {
-                    continue;
+            // Tomar los pedidos nuevos en el orden del registro: de mayor a menor ordinal de
+            // prioridad y, con la misma prioridad, en el orden en que se registraron. Cada uno
+            // sale de NUEVO al asignarse o fallar, así que el registro da el siguiente sin copiar
+            // la cola. Los que están en proceso no se reasignan
+            for (Pedido pedido = pedidos.siguienteNuevo(); pedido != null; pedido = pedidos.siguienteNuevo()) {
+                // Sin robots libres, los pedidos que quedan esperan a que se libere uno
+                if (robotsLogisticos.stream().noneMatch(Planificador::estaLibre)) {
+                    break;
                 }
 
                 // Buscar el mejor robot para este pedido
                 RobotLogistico mejorRobot = encontrarMejorRobotParaPedido(pedido);
 
                 if (mejorRobot != null) {
-                    // Asignar el pedido al robot
-                    mejorRobot.agregarPedido(pedido);
+                    // Asignar el pedido al robot, con la parada de recarga que necesite
+                    PlanMision plan = planesCandidatos.get(mejorRobot);
+                    mejorRobot.agregarPedido(pedido, plan != null && plan.tieneParada() ? plan : null, ciclosSalida.get(mejorRobot));
                     pedido.marcarEnProceso();
                 } else {
                     // No se encontró un robot adecuado para este pedido
@@ -275,8 +1150,8 @@ public class Planificador { //lo está haciendo tomi
                         pedidoFallido.getPrioridad()
                     );
 
-                    // Agregar el nuevo pedido a la lista
-                    pedidos.add(nuevoPedido);
+                    // Agregar el nuevo pedido al registro
+                    pedidos.agregar(nuevoPedido);
 
                     // Marcar este pedido como reintentado
                     pedidosReintentados.add(pedidoKey);
@@ -290,26 +1165,233 @@ public class Planificador { //lo está haciendo tomi
         } while (algunPedidoFallido && progresoRealizado);
 
         // Verificar si todos los pedidos han sido satisfechos
-        boolean todosSatisfechos = pedidos.stream()
-                .noneMatch(p -> p.estaFallido());
+        return pedidos.getCantidad(Pedido.EstadoPedido.FALLIDO) == 0;
+    }
+
+    /**
+     * Robots libres (sin pedidos en curso ni en cola) y pedidos pendientes de una ronda de
+     * asignación por lote o por subasta, con el acceso a los cofres de cada pedido.
+     */
+    private static class RondaAsignacion {
+        private final List<RobotLogistico> robots = new ArrayList<>();
+        private int[] celdasRobot;
+        private final List<Pedido> pedidos = new ArrayList<>();
+        private final List<int[]> adyacentesOrigen = new ArrayList<>();
+        private final List<int[]> adyacentesDestino = new ArrayList<>();
+        private double[] cotasOrigenDestino;
+    }
+
+    /**
+     * Un robot libre está activo o en un robopuerto y no tiene pedidos en curso ni en cola: la
+     * batería y la posición con las que se evalúa son las que tendrá al empezar el pedido.
+     */
+    private static boolean estaLibre(RobotLogistico robot) {
+        boolean disponible = robot.getEstado() == EstadoRobot.ACTIVO ||
+                             robot.getEstado() == EstadoRobot.PASIVO ||
+                             robot.getEstado() == EstadoRobot.CARGANDO;
+        return disponible && robot.getPedidosPendientes().isEmpty() && robot.getCantidadPedidosEnProceso() == 0;
+    }
+
+    /**
+     * @param pedidosOrdenados Pedidos sin terminar, en el orden del registro
+     * @return la ronda, o null si no hay robots libres o pedidos que asignar
+     */
+    private RondaAsignacion prepararRonda(List<Pedido> pedidosOrdenados) {
+        RondaAsignacion ronda = new RondaAsignacion();
+        for (RobotLogistico robot : robotsLogisticos) {
+            if (estaLibre(robot)) {
+                ronda.robots.add(robot);
+            }
+        }
+        if (ronda.robots.isEmpty()) {
+            return null;
+        }
+
+        for (Pedido pedido : pedidosOrdenados) {
+            if (pedido.getEstado() == Pedido.EstadoPedido.EN_PROCESO) {
+                continue;
+            }
+            CofreLogistico origen = encontrarMejorCofreOrigen(pedido.getItem(), pedido.getCantidad());
+            if (origen == null) {
+                continue;
+            }
+            int[] celdasOrigen = obtenerAdyacentesTransitables(origen.getPosicion(), null);
+            int[] celdasDestino = obtenerAdyacentesTransitables(pedido.getCofreDestino().getPosicion(), null);
+            if (celdasOrigen.length > 0 && celdasDestino.length > 0) {
+                ronda.pedidos.add(pedido);
+                ronda.adyacentesOrigen.add(celdasOrigen);
+                ronda.adyacentesDestino.add(celdasDestino);
+            }
+        }
+        if (ronda.pedidos.isEmpty()) {
+            return null;
+        }
+
+        OraculoLandmarks oraculo = getOraculoLandmarks();
+        ronda.celdasRobot = new int[ronda.robots.size()];
+        for (int i = 0; i < ronda.robots.size(); i++) {
+            ronda.celdasRobot[i] = encontrarCelda(ronda.robots.get(i).getPosicion());
+        }
+        ronda.cotasOrigenDestino = new double[ronda.pedidos.size()];
+        for (int j = 0; j < ronda.pedidos.size(); j++) {
+            double cota = Double.POSITIVE_INFINITY;
+            for (int celdaAdyOrigen : ronda.adyacentesOrigen.get(j)) {
+                cota = Math.min(cota, oraculo.cotaInferior(celdaAdyOrigen, ronda.adyacentesDestino.get(j)));
+            }
+            ronda.cotasOrigenDestino[j] = cota;
+        }
+        return ronda;
+    }
+
+    /**
+     * Costo estimado de que el robot i haga el pedido j: la cota de landmarks del recorrido
+     * robot -> origen -> destino, dividida por la batería relativa del robot como en la
+     * evaluación de a un pedido y multiplicada por el peso de la prioridad.
+     *
+     * @return el costo, o infinito si el robot no puede hacer el pedido
+     */
+    private double costoEstimado(RondaAsignacion ronda, int i, int j) {
+        RobotLogistico robot = ronda.robots.get(i);
+        int celdaRobot = ronda.celdasRobot[i];
+        if (celdaRobot == -1 || robot.getBateriaActual() == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double cotaRobotOrigen = mapaOcupacion.hayCofre(celdaRobot) ? 0.0 : oraculoLandmarks.cotaInferior(celdaRobot, ronda.adyacentesOrigen.get(j));
+        double porcentajeBateria = (double) robot.getBateriaActual() / robot.getBateriaMaxima();
+        return (cotaRobotOrigen + ronda.cotasOrigenDestino[j]) / factorConsumo / porcentajeBateria * pesoPrioridad(ronda.pedidos.get(j).getPrioridad());
+    }
+
+    /**
+     * Asigna en un solo paso los pedidos pendientes a los robots libres minimizando la suma de
+     * los costos estimados, con el método húngaro.
+     *
+     * @param pedidosOrdenados Pedidos sin terminar, en el orden del registro
+     */
+    private void asignarPorLote(List<Pedido> pedidosOrdenados) {
+        RondaAsignacion ronda = prepararRonda(pedidosOrdenados);
+        if (ronda == null) {
+            return;
+        }
+        double[][] costos = new double[ronda.robots.size()][ronda.pedidos.size()];
+        for (int i = 0; i < costos.length; i++) {
+            for (int j = 0; j < costos[i].length; j++) {
+                costos[i][j] = costoEstimado(ronda, i, j);
+            }
+        }
+
+        int[] asignacion = AsignadorHungaro.resolver(costos);
+        int[] robotDePedido = new int[ronda.pedidos.size()];
+        Arrays.fill(robotDePedido, -1);
+        for (int i = 0; i < asignacion.length; i++) {
+            if (asignacion[i] != -1) {
+                robotDePedido[asignacion[i]] = i;
+            }
+        }
+        confirmarAsignaciones(ronda, robotDePedido);
+    }
+
+    /**
+     * Reparte los pedidos pendientes entre los robots libres con una subasta: cada robot
+     * calcula su costo estimado para cada pedido y oferta por los más baratos; con evaluación
+     * paralela, los robots ofertan a la vez en los hilos de evaluación. El subastador adjudica
+     * de la oferta más barata a la más cara, sin repetir robot ni pedido.
+     *
+     * @param pedidosOrdenados Pedidos sin terminar, en el orden del registro
+     */
+    private void asignarPorSubasta(List<Pedido> pedidosOrdenados) {
+        RondaAsignacion ronda = prepararRonda(pedidosOrdenados);
+        if (ronda == null) {
+            return;
+        }
+        List<List<Subasta.Oferta>> ofertasPorRobot = new ArrayList<>(ronda.robots.size());
+        if (poolEvaluacion == null) {
+            for (int i = 0; i < ronda.robots.size(); i++) {
+                ofertasPorRobot.add(ofertar(ronda, i));
+            }
+        } else {
+            List<ForkJoinTask<List<Subasta.Oferta>>> tareas = new ArrayList<>(ronda.robots.size());
+            for (int i = 0; i < ronda.robots.size(); i++) {
+                int robot = i;
+                tareas.add(poolEvaluacion.submit(() -> ofertar(ronda, robot)));
+            }
+            for (ForkJoinTask<List<Subasta.Oferta>> tarea : tareas) {
+                ofertasPorRobot.add(tarea.join());
+            }
+        }
+
+        List<Subasta.Oferta> ofertas = new ArrayList<>();
+        for (List<Subasta.Oferta> ofertasRobot : ofertasPorRobot) {
+            ofertas.addAll(ofertasRobot);
+        }
+        confirmarAsignaciones(ronda, Subasta.adjudicar(ofertas, ronda.pedidos.size()));
+    }
+
+    private List<Subasta.Oferta> ofertar(RondaAsignacion ronda, int robot) {
+        double[] costos = new double[ronda.pedidos.size()];
+        for (int j = 0; j < costos.length; j++) {
+            costos[j] = costoEstimado(ronda, robot, j);
+        }
+        return Subasta.ofertar(robot, costos, MAXIMO_OFERTAS_POR_ROBOT);
+    }
+
+    /**
+     * Confirma cada par robot-pedido con la evaluación exacta, en el orden de la ronda: verifica
+     * batería, colisiones y alcance, reserva el recorrido y asigna el pedido. Si un par no
+     * pasa, el pedido queda para la asignación de a uno.
+     *
+     * @param robotDePedido Robot de la ronda elegido para cada pedido, o -1
+     */
+    private void confirmarAsignaciones(RondaAsignacion ronda, int[] robotDePedido) {
+        for (int j = 0; j < ronda.pedidos.size(); j++) {
+            if (robotDePedido[j] == -1) {
+                continue;
+            }
+            RobotLogistico robot = ronda.robots.get(robotDePedido[j]);
+            Candidato candidato = evaluarRobot(robot, 0, ronda.celdasRobot[robotDePedido[j]], ronda.adyacentesOrigen.get(j),
+                    ronda.adyacentesDestino.get(j), buscadorCaminos);
+            if (candidato == null) {
+                continue;
+            }
+            reservarRecorrido(robot, candidato.recorrido);
+            Pedido pedido = ronda.pedidos.get(j);
+            robot.agregarPedido(pedido, candidato.plan.tieneParada() ? candidato.plan : null, ciclosSalida.get(robot));
+            pedido.marcarEnProceso();
+        }
+    }
 
-        return todosSatisfechos;
+    /**
+     * Peso con el que la prioridad multiplica el costo de un pedido en la asignación por lote
+     * y en la subasta:
+     * cuanto más urgente, más barato, así que los pedidos urgentes se quedan con los robots
+     * cuando no alcanzan para todos. El orden en que después se confirman los pares es el del
+     * registro de pedidos.
+     */
+    private static double pesoPrioridad(Pedido.PrioridadPedido prioridad) {
+        switch (prioridad) {
+            case ALTA:
+                return 1.0;
+            case MEDIA:
+                return 2.0;
+            default:
+                return 4.0;
+        }
     }
 
     /**
      * Devuelve la lista de celdas ortogonalmente adyacentes y transitables a un punto dado (por ejemplo, un cofre).
      */
-    private List<Nodo> obtenerAdyacentesTransitables(Punto punto, RobotLogistico robotPlanificador, Set<Punto> posicionesCofres, Set<Punto> posicionesRobots, Map<Punto, RobotLogistico> robotsPorPosicion, Set<Punto> posicionesRobopuertos) {
+    private int[] obtenerAdyacentesTransitables(Punto punto, RobotLogistico robotPlanificador) {
         int[][] ortogonales = { {1,0}, {-1,0}, {0,1}, {0,-1} };
-        List<Nodo> adyacentes = new ArrayList<>();
+        int[] adyacentes = new int[ortogonales.length];
+        int cantidad = 0;
         for (int[] dir : ortogonales) {
             Punto ady = new Punto(punto.getX() + dir[0], punto.getY() + dir[1]);
-            Nodo nodoAdy = encontrarNodo(ady);
-            if (nodoAdy != null && esTransitable(ady, robotPlanificador, posicionesCofres, posicionesRobots, robotsPorPosicion, posicionesRobopuertos)) {
-                adyacentes.add(nodoAdy);
+            int celdaAdy = grafoCompacto.indiceDe(ady);
+            if (celdaAdy != -1 && mapaOcupacion.esTransitable(celdaAdy, robotPlanificador)) {
+                adyacentes[cantidad++] = celdaAdy;
             }
         }
-        return adyacentes;
+        return Arrays.copyOf(adyacentes, cantidad);
     }
 
     /**
@@ -328,39 +1410,33 @@ public class Planificador { //lo está haciendo tomi
         }
 
         CofreLogistico destino = pedido.getCofreDestino();
+        planesCandidatos.clear();
 
-        // Filtrar robots activos o en robopuertos (que pueden activarse)
+        // Filtrar robots libres, activos o en robopuertos (que pueden activarse)
         List<RobotLogistico> robotsDisponibles = robotsLogisticos.stream()
-                .filter(r -> r.getEstado() == EstadoRobot.ACTIVO || 
-                             r.getEstado() == EstadoRobot.PASIVO || 
-                             r.getEstado() == EstadoRobot.CARGANDO)
+                .filter(Planificador::estaLibre)
                 .collect(Collectors.toList());
 
         if (robotsDisponibles.isEmpty()) {
             return null;
         }
 
-        // Encontrar robopuertos cercanos al cofre origen
-        List<Robopuerto> robopuertosCercanos = new ArrayList<>();
-        for (Robopuerto robopuerto : robopuertos) {
-            if (robopuerto.estaEnCobertura(mejorOrigen.getPosicion())) {
-                robopuertosCercanos.add(robopuerto);
-            }
-        }
-
-        // Verificar que el destino también está dentro del alcance de algún robopuerto
-        boolean destinoAccesible = robopuertos.stream()
-                .anyMatch(robopuerto -> robopuerto.estaEnCobertura(destino.getPosicion()));
+        // Verificar que el destino también está dentro del alcance de algún robopuerto, con una
+        // lectura del mapa de cobertura
+        boolean destinoAccesible = mapaCobertura.estaCubierto(destino.getPosicion());
         
         if (!destinoAccesible) {
             return null; // El destino no está dentro del alcance de ningún robopuerto
         }
 
-        // Priorizar robots que están en robopuertos cercanos al cofre origen
-        if (!robopuertosCercanos.isEmpty()) {
+        // Priorizar robots que están en robopuertos cercanos al cofre origen. Si el mapa de
+        // cobertura dice que nadie cubre el origen no hay a quién priorizar; si no, basta mirar
+        // el robopuerto en la celda de cada robot en lugar de recorrerlos todos
+        Punto posicionOrigen = mejorOrigen.getPosicion();
+        if (mapaCobertura.estaCubierto(posicionOrigen)) {
             List<RobotLogistico> robotsEnRobopuertosCercanos = robotsDisponibles.stream()
-                    .filter(r -> robopuertosCercanos.stream()
-                            .anyMatch(rp -> r.getPosicion().equals(rp.getPosicion())))
+                    .filter(r -> indiceRobopuertos.getEn(r.getPosicion()).stream()
+                            .anyMatch(rp -> rp.estaEnCobertura(posicionOrigen)))
                     .collect(Collectors.toList());
 
             // Si hay robots en robopuertos cercanos, usar solo esos
@@ -369,122 +1445,365 @@ public class Planificador { //lo está haciendo tomi
             }
         }
 
-        // Obtener sets y mapas de obstáculos actualizados
-        Set<Punto> posicionesCofres = cofres.stream().map(CofreLogistico::getPosicion).collect(Collectors.toSet());
-        Set<Punto> posicionesRobots = robotsLogisticos.stream().map(RobotLogistico::getPosicion).collect(Collectors.toSet());
-        Map<Punto, RobotLogistico> robotsPorPosicion = robotsLogisticos.stream().collect(Collectors.toMap(RobotLogistico::getPosicion, r -> r));
-        Set<Punto> posicionesRobopuertos = robopuertos.stream().map(Robopuerto::getPosicion).collect(Collectors.toSet());
-
-        // Encontrar nodos adyacentes transitables al origen y destino (cofres)
-        List<Nodo> nodosAdyacentesOrigen = obtenerAdyacentesTransitables(mejorOrigen.getPosicion(), null, posicionesCofres, posicionesRobots, robotsPorPosicion, posicionesRobopuertos);
-        List<Nodo> nodosAdyacentesDestino = obtenerAdyacentesTransitables(destino.getPosicion(), null, posicionesCofres, posicionesRobots, robotsPorPosicion, posicionesRobopuertos);
+        // Encontrar celdas adyacentes transitables al origen y destino (cofres), según la ocupación actual
+        int[] celdasAdyacentesOrigen = obtenerAdyacentesTransitables(mejorOrigen.getPosicion(), null);
+        int[] celdasAdyacentesDestino = obtenerAdyacentesTransitables(destino.getPosicion(), null);
 
-        if (nodosAdyacentesOrigen.isEmpty() || nodosAdyacentesDestino.isEmpty()) {
+        if (celdasAdyacentesOrigen.length == 0 || celdasAdyacentesDestino.length == 0) {
             return null; // No hay acceso al cofre origen o destino
         }
 
-        // Evaluar cada robot
-        RobotLogistico mejorRobot = null;
-        double mejorPuntuacion = Double.MAX_VALUE;
-        List<Punto> mejorRuta = null;
+        if (modoEvaluacionRobots == ModoEvaluacionRobots.BUSQUEDA_INVERSA) {
+            return elegirRobotConBusquedaInversa(robotsDisponibles, mejorOrigen, destino, celdasAdyacentesOrigen, celdasAdyacentesDestino);
+        }
 
-        for (RobotLogistico robot : robotsDisponibles) {
-            Nodo nodoRobot = encontrarNodo(robot.getPosicion());
-            if (nodoRobot == null) {
+        // Cotas inferiores de la puntuación de cada robot según los landmarks: se evalúa primero a
+        // los más prometedores y se corta en cuanto la cota supera a la mejor puntuación exacta
+        OraculoLandmarks oraculo = getOraculoLandmarks();
+        double cotaOrigenDestino = Double.POSITIVE_INFINITY;
+        for (int celdaAdyOrigen : celdasAdyacentesOrigen) {
+            cotaOrigenDestino = Math.min(cotaOrigenDestino, oraculo.cotaInferior(celdaAdyOrigen, celdasAdyacentesDestino));
+        }
+        int cantidadRobots = robotsDisponibles.size();
+        int[] celdasRobot = new int[cantidadRobots];
+        double[] cotasPuntuacion = new double[cantidadRobots];
+        Integer[] orden = new Integer[cantidadRobots];
+        for (int i = 0; i < cantidadRobots; i++) {
+            RobotLogistico robot = robotsDisponibles.get(i);
+            int celdaRobot = encontrarCelda(robot.getPosicion());
+            celdasRobot[i] = celdaRobot;
+            orden[i] = i;
+            if (celdaRobot == -1) {
+                cotasPuntuacion[i] = Double.POSITIVE_INFINITY;
                 continue;
             }
+            // Un robot fuera de la grilla puede quedar sobre un cofre, que el oráculo no conecta
+            double cotaRobotOrigen = mapaOcupacion.hayCofre(celdaRobot) ? 0.0 : oraculo.cotaInferior(celdaRobot, celdasAdyacentesOrigen);
+            double porcentajeBateria = (double) robot.getBateriaActual() / robot.getBateriaMaxima();
+            cotasPuntuacion[i] = (cotaRobotOrigen + cotaOrigenDestino) / factorConsumo / porcentajeBateria;
+        }
+        Arrays.sort(orden, Comparator.comparingDouble(i -> cotasPuntuacion[i]));
 
-            // Buscar la mejor ruta a cualquier adyacente al origen
-            Map<Nodo, Ruta> rutasDesdeRobot = calcularRutasOptimas(nodoRobot);
-            Nodo mejorNodoAdyOrigen = null;
-            Ruta mejorRutaRobotOrigen = null;
-            double mejorDistanciaRobotOrigen = Double.MAX_VALUE;
-            for (Nodo nodoAdy : nodosAdyacentesOrigen) {
-                Ruta ruta = rutasDesdeRobot.get(nodoAdy);
-                if (ruta != null) {
-                    double dist = nodoRobot.getNodo().distanciaHacia(nodoAdy.getNodo());
-                    if (dist < mejorDistanciaRobotOrigen) {
-                        mejorDistanciaRobotOrigen = dist;
-                        mejorNodoAdyOrigen = nodoAdy;
-                        mejorRutaRobotOrigen = ruta;
-                    }
+        // Evaluar los robots en tandas, de a uno o de a tantos como hilos de evaluación haya.
+        // Ante igual puntuación gana el que aparece primero en la lista, igual que si se
+        // recorrieran en orden; evaluar de más a un robot cuya cota ya no mejora no cambia el
+        // resultado, porque su puntuación tampoco puede mejorar
+        RobotLogistico mejorRobot = null;
+        double mejorPuntuacion = Double.MAX_VALUE;
+        int mejorIndice = -1;
+        int[] mejorRecorrido = null;
+        int tamanioTanda = poolEvaluacion != null ? poolEvaluacion.getParallelism() : 1;
+
+        int siguiente = 0;
+        while (siguiente < cantidadRobots) {
+            // Una puntuación infinita nunca se elige; tampoco una que no puede mejorar a la actual
+            int finTanda = siguiente;
+            while (finTanda < cantidadRobots && finTanda - siguiente < tamanioTanda) {
+                double cota = cotasPuntuacion[orden[finTanda]];
+                if (!(cota < Double.MAX_VALUE) || (mejorRobot != null && cota > mejorPuntuacion * (1 + TOLERANCIA_COTA))) {
+                    break;
                 }
+                finTanda++;
             }
-            if (mejorRutaRobotOrigen == null) continue;
-
-            // Buscar la mejor ruta desde adyacente al origen a cualquier adyacente al destino
-            Map<Nodo, Ruta> rutasDesdeOrigen = calcularRutasOptimas(mejorNodoAdyOrigen);
-            Nodo mejorNodoAdyDestino = null;
-            Ruta mejorRutaOrigenDestino = null;
-            double mejorDistanciaOrigenDestino = Double.MAX_VALUE;
-            for (Nodo nodoAdy : nodosAdyacentesDestino) {
-                Ruta ruta = rutasDesdeOrigen.get(nodoAdy);
-                if (ruta != null) {
-                    double dist = mejorNodoAdyOrigen.getNodo().distanciaHacia(nodoAdy.getNodo());
-                    if (dist < mejorDistanciaOrigenDestino) {
-                        mejorDistanciaOrigenDestino = dist;
-                        mejorNodoAdyDestino = nodoAdy;
-                        mejorRutaOrigenDestino = ruta;
-                    }
-                }
+            if (finTanda == siguiente) {
+                break;
             }
-            if (mejorRutaOrigenDestino == null) continue;
 
-            // Construir la ruta completa (robot -> adyacente origen -> adyacente destino)
-            List<Punto> rutaCompleta = new ArrayList<>();
-            rutaCompleta.add(mejorRutaRobotOrigen.getPuntoInicio());
-            rutaCompleta.add(mejorRutaRobotOrigen.getPuntoFin());
-            if (!mejorRutaOrigenDestino.getPuntoFin().equals(mejorRutaRobotOrigen.getPuntoFin())) {
-                rutaCompleta.add(mejorRutaOrigenDestino.getPuntoFin());
+            Candidato[] candidatos = evaluarTanda(robotsDisponibles, celdasRobot, Arrays.copyOfRange(orden, siguiente, finTanda),
+                    celdasAdyacentesOrigen, celdasAdyacentesDestino);
+            for (Candidato candidato : candidatos) {
+                if (candidato == null) {
+                    continue;
+                }
+                planesCandidatos.put(candidato.robot, candidato.plan);
+                if (candidato.puntuacion < mejorPuntuacion || (candidato.puntuacion == mejorPuntuacion && candidato.indice < mejorIndice)) {
+                    mejorRobot = candidato.robot;
+                    mejorPuntuacion = candidato.puntuacion;
+                    mejorIndice = candidato.indice;
+                    mejorRecorrido = candidato.recorrido;
+                }
             }
+            siguiente = finTanda;
+        }
+
+        if (mejorRobot != null) {
+            reservarRecorrido(mejorRobot, mejorRecorrido);
+        }
+
+        return mejorRobot;
+    }
+
+    /**
+     * Resultado de evaluar a un robot para un pedido.
+     */
+    private static class Candidato {
+        private final RobotLogistico robot;
+        private final int indice; // Posición del robot en la lista de disponibles
+        private final double puntuacion;
+        private final int[] recorrido;
+        private final PlanMision plan;
+
+        private Candidato(RobotLogistico robot, int indice, double puntuacion, int[] recorrido, PlanMision plan) {
+            this.robot = robot;
+            this.indice = indice;
+            this.puntuacion = puntuacion;
+            this.recorrido = recorrido;
+            this.plan = plan;
+        }
+    }
 
-            // Calcular distancia total
-            double distanciaTotal = 0;
-            for (int i = 0; i < rutaCompleta.size() - 1; i++) {
-                distanciaTotal += rutaCompleta.get(i).distanciaHacia(rutaCompleta.get(i + 1));
+    /**
+     * Evalúa una tanda de robots. Con evaluación paralela, cada robot de la tanda se evalúa en
+     * un hilo distinto con su propio motor de búsqueda; el resto del estado solo se lee.
+     *
+     * @param indices Posiciones en la lista de disponibles de los robots a evaluar
+     * @return Candidato de cada robot en el mismo orden, o null si no puede hacer el pedido
+     */
+    private Candidato[] evaluarTanda(List<RobotLogistico> robotsDisponibles, int[] celdasRobot, Integer[] indices,
+                                     int[] celdasAdyacentesOrigen, int[] celdasAdyacentesDestino) {
+        Candidato[] candidatos = new Candidato[indices.length];
+        if (poolEvaluacion == null || indices.length == 1) {
+            for (int i = 0; i < indices.length; i++) {
+                candidatos[i] = evaluarRobot(robotsDisponibles.get(indices[i]), indices[i], celdasRobot[indices[i]],
+                        celdasAdyacentesOrigen, celdasAdyacentesDestino, buscadorCaminos);
             }
+            return candidatos;
+        }
+
+        BuscadorCaminos[] buscadores = getBuscadoresParalelos();
+        List<ForkJoinTask<Candidato>> tareas = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            int indice = indices[i];
+            BuscadorCaminos buscador = buscadores[i];
+            tareas.add(poolEvaluacion.submit(() -> evaluarRobot(robotsDisponibles.get(indice), indice, celdasRobot[indice],
+                    celdasAdyacentesOrigen, celdasAdyacentesDestino, buscador)));
+        }
+        for (int i = 0; i < candidatos.length; i++) {
+            candidatos[i] = tareas.get(i).join();
+        }
+        return candidatos;
+    }
 
-            // Calcular consumo de batería
-            double consumoBateria = distanciaTotal * factorConsumo;
+    /**
+     * Busca las rutas robot -> origen -> destino de un robot y lo puntúa.
+     *
+     * @return Candidato, o null si el robot no puede hacer el pedido
+     */
+    private Candidato evaluarRobot(RobotLogistico robot, int indice, int celdaRobot, int[] celdasAdyacentesOrigen,
+                                   int[] celdasAdyacentesDestino, BuscadorCaminos buscador) {
+        // Buscar la ruta más corta a cualquier adyacente al origen
+        Ruta mejorRutaRobotOrigen = calcularRutaMasCorta(celdaRobot, celdasAdyacentesOrigen, buscador);
+        if (mejorRutaRobotOrigen == null) return null;
+        int mejorCeldaAdyOrigen = grafoCompacto.indiceDe(mejorRutaRobotOrigen.getPuntoFin());
+
+        // Buscar la ruta más corta desde adyacente al origen a cualquier adyacente al destino
+        Ruta mejorRutaOrigenDestino = calcularRutaMasCorta(mejorCeldaAdyOrigen, celdasAdyacentesDestino, buscador);
+        if (mejorRutaOrigenDestino == null) return null;
+
+        // Construir la ruta completa (robot -> adyacente origen -> adyacente destino)
+        List<Punto> rutaCompleta = new ArrayList<>();
+        rutaCompleta.add(mejorRutaRobotOrigen.getPuntoInicio());
+        rutaCompleta.add(mejorRutaRobotOrigen.getPuntoFin());
+        if (!mejorRutaOrigenDestino.getPuntoFin().equals(mejorRutaRobotOrigen.getPuntoFin())) {
+            rutaCompleta.add(mejorRutaOrigenDestino.getPuntoFin());
+        }
+        int[] recorrido = construirRecorrido(mejorRutaRobotOrigen.getPuntos(), mejorRutaOrigenDestino.getPuntos());
 
-            // Verificar si el robot tiene suficiente batería
-            if (!robot.tieneSuficienteBateria((int) Math.ceil(consumoBateria))) {
-                boolean puedeRecargar = verificarPosibilidadRecarga(robot, mejorOrigen, destino, consumoBateria);
-                if (!puedeRecargar) {
-                    continue;
-                }
+        // Distancia total recorrida sobre la grilla (el costo de las rutas ya incluye el factor de consumo)
+        double distanciaTotal = (mejorRutaRobotOrigen.getCosto() + mejorRutaOrigenDestino.getCosto()) / factorConsumo;
+
+        return puntuarCandidato(robot, indice, rutaCompleta, recorrido, distanciaTotal,
+                mejorRutaRobotOrigen.getCosto() / factorConsumo);
+    }
+
+    /**
+     * Verifica batería, colisiones y alcance de un robot candidato y calcula su puntuación.
+     * Si la batería no alcanza, la misión se evalúa con la mejor parada de recarga y se
+     * puntúa por su duración, incluida la espera en el robopuerto.
+     *
+     * @param rutaCompleta Puntos de paso: robot, adyacente al origen y adyacente al destino
+     * @param recorrido Celda que ocuparía el robot en cada ciclo
+     * @param distanciaTotal Pasos del recorrido completo
+     * @param distanciaRobotOrigen Pasos del robot hasta el adyacente al origen
+     * @return Candidato con su puntuación (menor es mejor), o null si no puede hacer el pedido
+     */
+    private Candidato puntuarCandidato(RobotLogistico robot, int indice, List<Punto> rutaCompleta, int[] recorrido, double distanciaTotal,
+                                       double distanciaRobotOrigen) {
+        // Verificar que la batería alcance, recargando una vez si hace falta
+        PlanMision plan = planificarMision(robot, grafoCompacto.indiceDe(rutaCompleta.get(0)), grafoCompacto.indiceDe(rutaCompleta.get(1)),
+                grafoCompacto.indiceDe(rutaCompleta.get(rutaCompleta.size() - 1)), distanciaRobotOrigen, distanciaTotal - distanciaRobotOrigen);
+        if (plan == null) {
+            return null;
+        }
+
+        // Verificar si hay colisiones con otros robots
+        if (verificarColisiones(robot, recorrido)) {
+            return null;
+        }
+
+        // Verificar que toda la ruta esté dentro del alcance de algún robopuerto
+        if (!rutaDentroDelAlcance(rutaCompleta)) {
+            return null;
+        }
+
+        // Calcular puntuación (menor es mejor)
+        double porcentajeBateria = (double) robot.getBateriaActual() / robot.getBateriaMaxima();
+        return new Candidato(robot, indice, (plan.tieneParada() ? plan.getDuracion() : distanciaTotal) / porcentajeBateria, recorrido, plan);
+    }
+
+    /**
+     * Evalúa a todos los robots con dos búsquedas inversas en lugar de dos por robot.
+     * La primera parte de los adyacentes al destino y mide el tramo origen -> destino desde cada
+     * adyacente al origen; la segunda parte de los adyacentes al origen, cada uno con el costo de
+     * su tramo siguiente, y alcanza a todos los robots. Así cada robot obtiene el costo exacto de
+     * su mejor recorrido robot -> origen -> destino.
+     */
+    private RobotLogistico elegirRobotConBusquedaInversa(List<RobotLogistico> robotsDisponibles, CofreLogistico origen, CofreLogistico destino,
+                                                         int[] celdasAdyacentesOrigen, int[] celdasAdyacentesDestino) {
+        // Tramo origen -> destino para cada adyacente al origen
+        motorBusqueda.calcularDesdeVarios(celdasAdyacentesDestino, new double[celdasAdyacentesDestino.length], celdasAdyacentesOrigen);
+        double[] costosTramoDestino = new double[celdasAdyacentesOrigen.length];
+        int[][] tramosDestino = new int[celdasAdyacentesOrigen.length][]; // adyacente al origen -> adyacente al destino
+        for (int i = 0; i < celdasAdyacentesOrigen.length; i++) {
+            costosTramoDestino[i] = motorBusqueda.getDistancia(celdasAdyacentesOrigen[i]);
+            // La búsqueda fue desde el destino: el camino reconstruido está invertido
+            int[] tramo = motorBusqueda.reconstruirCamino(celdasAdyacentesOrigen[i]);
+            for (int a = 0, b = tramo.length - 1; a < b; a++, b--) {
+                int celda = tramo[a];
+                tramo[a] = tramo[b];
+                tramo[b] = celda;
             }
+            tramosDestino[i] = tramo;
+        }
 
-            // Verificar si hay colisiones con otros robots
-            boolean hayColision = verificarColisiones(robot, rutaCompleta);
-            if (hayColision) {
+        // Tramo robot -> origen: los robots ocupan su celda, así que se mide hasta sus vecinas libres
+        int[] celdasRobot = new int[robotsDisponibles.size()];
+        int[] celdasDeInteres = new int[robotsDisponibles.size() * 5];
+        int cantidadDeInteres = 0;
+        for (int i = 0; i < celdasRobot.length; i++) {
+            int celdaRobot = encontrarCelda(robotsDisponibles.get(i).getPosicion());
+            celdasRobot[i] = celdaRobot;
+            if (celdaRobot == -1) {
                 continue;
             }
+            if (!grafoCompacto.estaBloqueada(celdaRobot)) {
+                celdasDeInteres[cantidadDeInteres++] = celdaRobot;
+            }
+            for (int arista = grafoCompacto.inicioAristas(celdaRobot), fin = grafoCompacto.finAristas(celdaRobot); arista < fin; arista++) {
+                if (!grafoCompacto.estaBloqueada(grafoCompacto.destino(arista))) {
+                    celdasDeInteres[cantidadDeInteres++] = grafoCompacto.destino(arista);
+                }
+            }
+        }
+        motorBusqueda.calcularDesdeVarios(celdasAdyacentesOrigen, costosTramoDestino, Arrays.copyOf(celdasDeInteres, cantidadDeInteres));
+
+        RobotLogistico mejorRobot = null;
+        double mejorPuntuacion = Double.MAX_VALUE;
+        int[] mejorRecorrido = null;
 
-            // Verificar que toda la ruta esté dentro del alcance de algún robopuerto
-            if (!rutaDentroDelAlcance(rutaCompleta)) {
+        for (int i = 0; i < celdasRobot.length; i++) {
+            int celdaRobot = celdasRobot[i];
+            if (celdaRobot == -1) {
                 continue;
             }
+            double costoTotal = Double.MAX_VALUE;
+            int primeraCelda = -1;
+            int adyacente = -1; // Índice del adyacente al origen por el que pasa el mejor recorrido
+            if (!grafoCompacto.estaBloqueada(celdaRobot)) {
+                adyacente = adyacenteDeLlegada(celdaRobot, tramosDestino, costosTramoDestino, celdasAdyacentesOrigen);
+                if (adyacente != -1) {
+                    costoTotal = motorBusqueda.getDistancia(celdaRobot);
+                    primeraCelda = celdaRobot;
+                }
+            }
+            for (int arista = grafoCompacto.inicioAristas(celdaRobot), fin = grafoCompacto.finAristas(celdaRobot); arista < fin; arista++) {
+                int vecina = grafoCompacto.destino(arista);
+                if (grafoCompacto.estaBloqueada(vecina)) {
+                    continue;
+                }
+                int adyacenteVecina = adyacenteDeLlegada(vecina, tramosDestino, costosTramoDestino, celdasAdyacentesOrigen);
+                if (adyacenteVecina == -1) {
+                    continue;
+                }
+                double costo = motorBusqueda.getDistancia(vecina) + grafoCompacto.peso(arista);
+                if (costo < costoTotal) {
+                    costoTotal = costo;
+                    primeraCelda = vecina;
+                    adyacente = adyacenteVecina;
+                }
+            }
+            if (primeraCelda == -1) {
+                continue; // El robot no llega al origen o el origen no llega al destino
+            }
 
-            // Calcular puntuación (menor es mejor)
-            double puntuacion = distanciaTotal;
-            double porcentajeBateria = (double) robot.getBateriaActual() / robot.getBateriaMaxima();
-            puntuacion = puntuacion / porcentajeBateria;
+            // Los predecesores de la segunda búsqueda llevan desde el robot hasta el adyacente al origen
+            int longitudTramoOrigen = primeraCelda == celdaRobot ? 1 : 2;
+            for (int celda = primeraCelda; motorBusqueda.getPredecesor(celda) != -1; celda = motorBusqueda.getPredecesor(celda)) {
+                longitudTramoOrigen++;
+            }
+            int celdaAdyOrigen = celdasAdyacentesOrigen[adyacente];
+            int[] tramoDestino = tramosDestino[adyacente];
+            double costoTramoDestino = costosTramoDestino[adyacente];
+            int celdaAdyDestino = tramoDestino[tramoDestino.length - 1];
+            int[] recorrido = new int[longitudTramoOrigen + tramoDestino.length - 1];
+            int paso = 0;
+            recorrido[paso++] = celdaRobot;
+            if (primeraCelda != celdaRobot) {
+                recorrido[paso++] = primeraCelda;
+            }
+            for (int celda = primeraCelda; motorBusqueda.getPredecesor(celda) != -1; ) {
+                celda = motorBusqueda.getPredecesor(celda);
+                recorrido[paso++] = celda;
+            }
+            System.arraycopy(tramoDestino, 1, recorrido, paso, tramoDestino.length - 1);
 
-            if (puntuacion < mejorPuntuacion) {
-                mejorRobot = robot;
-                mejorPuntuacion = puntuacion;
-                mejorRuta = rutaCompleta;
+            // Construir la ruta completa (robot -> adyacente origen -> adyacente destino)
+            List<Punto> rutaCompleta = new ArrayList<>();
+            rutaCompleta.add(grafoCompacto.puntoDe(celdaRobot));
+            rutaCompleta.add(grafoCompacto.puntoDe(celdaAdyOrigen));
+            if (celdaAdyDestino != celdaAdyOrigen) {
+                rutaCompleta.add(grafoCompacto.puntoDe(celdaAdyDestino));
             }
-        }
 
-        if (mejorRobot != null && mejorRuta != null) {
-            rutasAsignadas.put(mejorRobot, mejorRuta);
+            Candidato candidato = puntuarCandidato(robotsDisponibles.get(i), i, rutaCompleta, recorrido, costoTotal / factorConsumo,
+                    (costoTotal - costoTramoDestino) / factorConsumo);
+            if (candidato == null) {
+                continue;
+            }
+            planesCandidatos.put(candidato.robot, candidato.plan);
+            if (candidato.puntuacion < mejorPuntuacion) {
+                mejorRobot = candidato.robot;
+                mejorPuntuacion = candidato.puntuacion;
+                mejorRecorrido = recorrido;
+            }
         }
 
+        if (mejorRobot != null) {
+            reservarRecorrido(mejorRobot, mejorRecorrido);
+        }
         return mejorRobot;
     }
 
+    /**
+     * Adyacente al origen del que sale el camino mínimo hasta la celda en la segunda búsqueda
+     * inversa. Solo sirve si la celda tiene un costo finito y el adyacente, un tramo hasta el destino.
+     *
+     * @return índice del adyacente en celdasAdyacentesOrigen, o -1 si no hay recorrido válido
+     */
+    private int adyacenteDeLlegada(int celda, int[][] tramosDestino, double[] costosTramoDestino, int[] celdasAdyacentesOrigen) {
+        if (!(motorBusqueda.getDistancia(celda) < Double.MAX_VALUE)) {
+            return -1;
+        }
+        int raiz = motorBusqueda.getRaiz(celda);
+        for (int j = 0; j < celdasAdyacentesOrigen.length; j++) {
+            if (celdasAdyacentesOrigen[j] == raiz) {
+                boolean hayTramo = costosTramoDestino[j] < Double.MAX_VALUE && tramosDestino[j] != null && tramosDestino[j].length > 0;
+                return hayTramo ? j : -1;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Encuentra el mejor cofre origen para un item según el tipo de comportamiento.
      * Prioriza cofres con ComportamientoProvisionActiva, luego ComportamientoIntermedioBuffer,
@@ -531,98 +1850,214 @@ public class Planificador { //lo está haciendo tomi
     }
 
     /**
-     * Verifica si hay colisiones con otros robots en la ruta especificada.
+     * Verifica si hay colisiones con otros robots en el recorrido especificado, usando la tabla
+     * de reservas: solo hay colisión si dos robots ocupan la misma celda en el mismo ciclo,
+     * aun esperando hasta {@link #DEMORA_MAXIMA_SALIDA} ciclos antes de salir. El recorrido
+     * empieza en el ciclo actual y se compara con las reservas de todos los robots en misión,
+     * no solo con las de la pasada en curso.
      * 
      * @param robot El robot a verificar
-     * @param ruta La ruta a verificar
+     * @param recorrido Celda que ocuparía el robot en cada ciclo
      * @return true si hay colisión, false en caso contrario
      */
-    private boolean verificarColisiones(RobotLogistico robot, List<Punto> ruta) {
-        // Verificar cada punto de la ruta
-        for (Punto punto : ruta) {
-            // Verificar si algún otro robot tiene este punto en su ruta
-            for (Map.Entry<RobotLogistico, List<Punto>> entry : rutasAsignadas.entrySet()) {
-                RobotLogistico otroRobot = entry.getKey();
-                List<Punto> otraRuta = entry.getValue();
+    private boolean verificarColisiones(RobotLogistico robot, int[] recorrido) {
+        return tablaReservas.buscarDemoraDesde(robot, cicloActual, recorrido, DEMORA_MAXIMA_SALIDA) == -1;
+    }
 
-                // No verificar colisiones con el mismo robot
-                if (otroRobot.equals(robot)) {
-                    continue;
-                }
+    /**
+     * Reserva el recorrido del robot elegido a partir del ciclo actual, con la menor demora de
+     * salida que evita colisiones, y anota desde qué ciclo puede moverse para que el robot
+     * espere esa demora en su celda. Queda reservado hasta que el robot termina la misión o le
+     * toca otro recorrido.
+     */
+    private void reservarRecorrido(RobotLogistico robot, int[] recorrido) {
+        int demora = Math.max(0, tablaReservas.buscarDemoraDesde(robot, cicloActual, recorrido, DEMORA_MAXIMA_SALIDA));
+        tablaReservas.reservarDesde(robot, cicloActual, recorrido, demora,
+                cicloActual + Math.min(recorrido.length - 1 + demora, HORIZONTE_RESERVAS));
+        // Recibe el pedido en este ciclo y da su primer paso en el siguiente, pasada la demora
+        ciclosSalida.put(robot, cicloActual + demora + 1);
+    }
 
-                // Verificar si el punto está en la otra ruta
-                if (otraRuta.contains(punto)) {
-                    return true; // Hay colisión
+    /**
+     * Arma la celda ocupada en cada ciclo a partir de los puntos de dos tramos consecutivos.
+     */
+    private int[] construirRecorrido(List<Punto> tramoOrigen, List<Punto> tramoDestino) {
+        return celdasContiguas(tramoOrigen, tramoDestino);
+    }
+
+    /**
+     * Celdas de dos tramos consecutivos mientras cada punto sea vecino del anterior. Las rutas
+     * jerárquicas solo traen refinado su primer tramo: el resultado termina donde empiezan sus
+     * puntos de paso, porque más allá no se sabe qué celda ocupará el robot en cada ciclo.
+     */
+    private int[] celdasContiguas(List<Punto> tramoOrigen, List<Punto> tramoDestino) {
+        List<Integer> celdas = new ArrayList<>();
+        for (List<Punto> tramo : List.of(tramoOrigen, tramoDestino)) {
+            for (Punto punto : tramo) {
+                int celda = encontrarCelda(punto);
+                if (!celdas.isEmpty()) {
+                    int anterior = celdas.get(celdas.size() - 1);
+                    if (anterior == celda) {
+                        continue;
+                    }
+                    if (Math.abs(grafoCompacto.getX(anterior) - grafoCompacto.getX(celda))
+                            + Math.abs(grafoCompacto.getY(anterior) - grafoCompacto.getY(celda)) != 1) {
+                        return aArreglo(celdas);
+                    }
                 }
+                celdas.add(celda);
             }
         }
+        return aArreglo(celdas);
+    }
 
-        return false; // No hay colisión
+    private static int[] aArreglo(List<Integer> celdas) {
+        int[] arreglo = new int[celdas.size()];
+        for (int i = 0; i < arreglo.length; i++) {
+            arreglo[i] = celdas.get(i);
+        }
+        return arreglo;
     }
 
     /**
-     * Verifica si un robot puede recargar su batería en un robopuerto cercano para completar una misión.
-     * También verifica que el robot no se salga del alcance de los robopuertos.
-     * 
-     * @param robot El robot a verificar
-     * @param origen El cofre de origen
-     * @param destino El cofre de destino
-     * @param consumoBateria El consumo de batería estimado para la misión
-     * @return true si el robot puede recargar y completar la misión, false en caso contrario
+     * Planifica la batería de una misión sobre las distancias reales de la grilla. Cada paso
+     * consume lo que cobra {@link RobotLogistico#consumoPaso}, más caro con los ítems cargados,
+     * y acercarse a cada cofre y cargar los ítems cuestan {@link RobotLogistico#CONSUMO_MANIOBRA}
+     * cada uno; el robot no puede bajar de la reserva con la que deja de trabajar.
+     * Si no le alcanza para hacerla de un tirón, prueba detenerse en cada robopuerto antes de
+     * cargar los ítems o después, ya cargado, y elige la parada con la que la misión termina
+     * antes, contando la espera hasta completar la batería según la tasa de recarga.
+     *
+     * @param pasosRobotOrigen Pasos del robot hasta el adyacente al origen
+     * @param pasosOrigenDestino Pasos del adyacente al origen al adyacente al destino
+     * @return Plan de la misión, o null si no puede hacerla ni recargando una vez
      */
-    private boolean verificarPosibilidadRecarga(RobotLogistico robot, CofreLogistico origen, CofreLogistico destino, double consumoBateria) {
-        // Buscar robopuertos cercanos
+    private PlanMision planificarMision(RobotLogistico robot, int celdaRobot, int celdaAdyOrigen, int celdaAdyDestino,
+                                        double pasosRobotOrigen, double pasosOrigenDestino) {
+        int bateria = robot.getBateriaActual();
+        double consumoHastaCargar = consumoPasos(pasosRobotOrigen, false) + 2 * RobotLogistico.CONSUMO_MANIOBRA;
+        double consumoEntrega = consumoPasos(pasosOrigenDestino, true) + RobotLogistico.CONSUMO_MANIOBRA;
+        if (bateria - (consumoHastaCargar + consumoEntrega) >= RESERVA_BATERIA) {
+            return PlanMision.directa(pasosRobotOrigen + pasosOrigenDestino);
+        }
+        if (celdaRobot == -1 || celdaAdyOrigen == -1 || celdaAdyDestino == -1) {
+            return null;
+        }
+
+        // Los pasos sobre la grilla nunca son menos que la distancia euclídea, así que solo los
+        // robopuertos a esa distancia del robot (o del origen, con lo que le queda al llegar)
+        // pueden servir de parada; al resto no hace falta construirles el campo de distancias
+        double alcance = bateria < RESERVA_BATERIA ? 0.0 : (bateria - RESERVA_BATERIA) / RobotLogistico.consumoPaso(1, false) + 1;
+        Set<Robopuerto> paradasAntes = new HashSet<>(indiceRobopuertos.getDentroDeRadio(grafoCompacto.puntoDe(celdaRobot), alcance));
+        Set<Robopuerto> paradasDespues = new HashSet<>(indiceRobopuertos.getDentroDeRadio(grafoCompacto.puntoDe(celdaAdyOrigen),
+                alcance - pasosRobotOrigen));
+        if (paradasAntes.isEmpty() && paradasDespues.isEmpty()) {
+            return null;
+        }
+
+        PlanMision mejor = null;
         for (Robopuerto robopuerto : robopuertos) {
-            // Calcular distancia al robopuerto
-            double distanciaARobopuerto = robot.getPosicion().distanciaHacia(robopuerto.getPosicion());
-            double consumoHastaRobopuerto = distanciaARobopuerto * factorConsumo;
-
-            // Verificar si puede llegar al robopuerto
-            if (robot.tieneSuficienteBateria((int) Math.ceil(consumoHastaRobopuerto))) {
-                // Calcular distancia desde robopuerto a origen y luego a destino
-                double distanciaRobopuertoOrigen = robopuerto.getPosicion().distanciaHacia(origen.getPosicion());
-                double distanciaOrigenDestino = origen.getPosicion().distanciaHacia(destino.getPosicion());
-                double consumoRestante = (distanciaRobopuertoOrigen + distanciaOrigenDestino) * factorConsumo;
-
-                // Verificar que el origen y destino están dentro del alcance del robopuerto
-                if (!robopuerto.estaEnCobertura(origen.getPosicion()) || !robopuerto.estaEnCobertura(destino.getPosicion())) {
-                    continue; // Este robopuerto no puede cubrir la misión
-                }
+            boolean antes = paradasAntes.contains(robopuerto);
+            boolean despues = paradasDespues.contains(robopuerto);
+            int celdaRobopuerto = grafoCompacto.indiceDe(robopuerto.getPosicion());
+            if ((!antes && !despues) || celdaRobopuerto == -1) {
+                continue;
+            }
+            CampoDistancias campo = camposDistancia.obtener(celdaRobopuerto, this::crearCampoDistancias);
+            int robotRobopuerto = pasosHasta(campo, celdaRobot);
+            int origenRobopuerto = pasosHasta(campo, celdaAdyOrigen);
+            int destinoRobopuerto = pasosHasta(campo, celdaAdyDestino);
+            if (origenRobopuerto == -1) {
+                continue;
+            }
 
-                // Verificar si con batería completa puede completar la misión
-                if (robot.getBateriaMaxima() >= consumoRestante) {
-                    return true;
-                }
+            // Parada antes de cargar: robot -> robopuerto -> origen -> destino
+            if (antes && robotRobopuerto != -1 && llegaSinAgotarReserva(bateria, consumoPasos(robotRobopuerto, false), false)
+                    && robot.getBateriaMaxima() - (consumoPasos(origenRobopuerto, false) + 2 * RobotLogistico.CONSUMO_MANIOBRA + consumoEntrega)
+                    >= RESERVA_BATERIA) {
+                double llegada = bateria - consumoPasos(robotRobopuerto, false);
+                mejor = elegirPlan(mejor, PlanMision.conParada(robopuerto, true, robotRobopuerto + origenRobopuerto + pasosOrigenDestino,
+                        ciclosRecarga(robot, llegada, robopuerto)));
+            }
+            // Parada después de cargar: robot -> origen -> robopuerto -> destino
+            if (despues && destinoRobopuerto != -1 && llegaSinAgotarReserva(bateria, consumoHastaCargar + consumoPasos(origenRobopuerto, true), true)
+                    && robot.getBateriaMaxima() - (consumoPasos(destinoRobopuerto, true) + RobotLogistico.CONSUMO_MANIOBRA) >= RESERVA_BATERIA) {
+                double llegada = bateria - (consumoHastaCargar + consumoPasos(origenRobopuerto, true));
+                mejor = elegirPlan(mejor, PlanMision.conParada(robopuerto, false, pasosRobotOrigen + origenRobopuerto + destinoRobopuerto,
+                        ciclosRecarga(robot, llegada, robopuerto)));
             }
         }
+        return mejor;
+    }
 
-        return false;
+    /**
+     * El robot revisa la reserva antes de cada paso, así que solo necesita tenerla antes del último.
+     *
+     * @param consumo Batería que gasta hasta llegar al robopuerto
+     * @param cargado true si el último paso lo da con los ítems cargados
+     */
+    private boolean llegaSinAgotarReserva(int bateria, double consumo, boolean cargado) {
+        return consumo == 0 || bateria - (consumo - RobotLogistico.consumoPaso(1, cargado)) >= RESERVA_BATERIA;
     }
 
     /**
-     * Encuentra el nodo en el grafo que corresponde a la posición dada.
-     * Si no encuentra una coincidencia exacta, busca el nodo más cercano.
-     * 
-     * @param posicion La posición a buscar
-     * @return El nodo correspondiente, o null si no se encuentra
+     * Batería que gasta el robot en una cantidad de pasos sobre la grilla, a un paso por celda.
      */
-    private Nodo encontrarNodo(Punto posicion) {
-        for (Nodo nodo : grafo.getNodos()) {
-            if (nodo.getNodo().equals(posicion)) {
-                return nodo;
-            }
+    private static double consumoPasos(double pasos, boolean cargado) {
+        return pasos * RobotLogistico.consumoPaso(1, cargado);
+    }
+
+    private int ciclosRecarga(RobotLogistico robot, double bateriaAlLlegar, Robopuerto robopuerto) {
+        return (int) Math.ceil(Math.max(0.0, robot.getBateriaMaxima() - bateriaAlLlegar) / robopuerto.getTasaRecarga());
+    }
+
+    private static PlanMision elegirPlan(PlanMision actual, PlanMision candidato) {
+        return actual == null || candidato.getDuracion() < actual.getDuracion() ? candidato : actual;
+    }
+
+    /**
+     * Pasos desde una celda hasta el objetivo del campo. Una celda que el campo no incluye (como
+     * el robopuerto en el que está el robot) sale por su mejor vecina.
+     *
+     * @return pasos, o -1 si no hay camino
+     */
+    private int pasosHasta(CampoDistancias campo, int celda) {
+        if (campo.getPasos(celda) >= 0) {
+            return campo.getPasos(celda);
         }
-        // Si no hay coincidencia exacta, buscar el nodo más cercano
-        Nodo nodoMasCercano = null;
-        double distanciaMinima = Double.MAX_VALUE;
-        for (Nodo nodo : grafo.getNodos()) {
-            double distancia = nodo.getNodo().distanciaHacia(posicion);
-            if (distancia < distanciaMinima) {
-                distanciaMinima = distancia;
-                nodoMasCercano = nodo;
+        int minimo = -1;
+        for (int arista = grafoCompacto.inicioAristas(celda), fin = grafoCompacto.finAristas(celda); arista < fin; arista++) {
+            int pasos = campo.getPasos(grafoCompacto.destino(arista));
+            if (pasos >= 0 && (minimo == -1 || pasos + 1 < minimo)) {
+                minimo = pasos + 1;
             }
         }
-        return nodoMasCercano;
+        return minimo;
+    }
+
+    /**
+     * Encuentra la celda del grafo que corresponde a la posición dada.
+     * Si la posición cae fuera de la grilla, devuelve la celda más cercana.
+     * Ambos casos se resuelven en O(1) a partir de las coordenadas.
+     * 
+     * @param posicion La posición a buscar
+     * @return El índice de la celda correspondiente, o -1 si la grilla está vacía
+     */
+    private int encontrarCelda(Punto posicion) {
+        int celda = grafoCompacto.indiceDe(posicion);
+        return celda != -1 ? celda : grafoCompacto.celdaMasCercana(posicion);
+    }
+
+    /**
+     * Encuentra el nodo del grafo que corresponde a la posición dada, o el más cercano si la
+     * posición cae fuera de la grilla. Sirve para obtener el origen de {@link #calcularRutasOptimas(Nodo)}.
+     * 
+     * @param posicion La posición a buscar
+     * @return El nodo correspondiente, o null si la grilla está vacía
+     */
+    public Nodo encontrarNodo(Punto posicion) {
+        int celda = encontrarCelda(posicion);
+        return celda == -1 ? null : getGrafo().getNodos().get(celda);
     }
 
     /**
@@ -633,9 +2068,7 @@ public class Planificador { //lo está haciendo tomi
      */
     private boolean rutaDentroDelAlcance(List<Punto> ruta) {
         for (Punto punto : ruta) {
-            boolean puntoAccesible = robopuertos.stream()
-                    .anyMatch(robopuerto -> robopuerto.estaEnCobertura(punto));
-            if (!puntoAccesible) {
+            if (!mapaCobertura.estaCubierto(punto)) {
                 return false;
             }
         }
@@ -0,0 +1,265 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Planificación cooperativa de robots con Windowed Hierarchical Cooperative A* (WHCA*).
+ * Cada robot busca su camino en espacio-tiempo (celda, ciclo) durante una ventana de ciclos,
+ * respetando las celdas que otros robots ya reservaron en una {@link TablaReservas} compartida,
+ * y reserva a su vez el camino elegido. Como la búsqueda admite esperar en el lugar, un robot
+ * que encuentra el paso ocupado espera su turno en lugar de fallar.
+ * <p>
+ * La heurística es la distancia real al destino ignorando a los robots, que da el
+ * {@link CampoDistancias} del destino (la parte "jerárquica" de WHCA*). El plan se rehace
+ * cada media ventana, o antes si el robot se desvía, para que las reservas se mantengan
+ * siempre por delante de los robots.
+ * No es seguro para uso concurrente.
+ */
+public class PlanificadorCooperativo {
+    private static final double INFINITO = Double.POSITIVE_INFINITY;
+
+    private final GrafoCompacto grafo;
+    private final TablaReservas reservas;
+    private final int ventana;
+    private final int lado; // lado del cuadrado de celdas alcanzables en una ventana
+    private final int maximoEsperas;
+    private final Map<RobotLogistico, Plan> planes = new IdentityHashMap<>();
+    private int cicloActual;
+
+    // Búsqueda espacio-temporal sobre los estados (celda relativa al robot, paso de la ventana)
+    private final double[] costos;
+    private final int[] predecesores;
+    private final int[] generaciones;
+    private final int[] cerrados;
+    private final ColaPrioridadIndexada abiertos;
+    private int generacion;
+
+    /**
+     * Camino reservado por un robot: celdas[i] es la celda que ocupa en el ciclo cicloInicio + i.
+     */
+    private static final class Plan {
+        private final int celdaDestino;
+        private final int cicloInicio;
+        private final int[] celdas;
+        private int esperasConsecutivas;
+
+        private Plan(int celdaDestino, int cicloInicio, int[] celdas) {
+            this.celdaDestino = celdaDestino;
+            this.cicloInicio = cicloInicio;
+            this.celdas = celdas;
+        }
+    }
+
+    /**
+     * @param grafo Grafo sobre el que se mueven los robots
+     * @param ventana Cantidad de ciclos que planifica y reserva cada robot
+     */
+    public PlanificadorCooperativo(GrafoCompacto grafo, int ventana) {
+        if (ventana < 2) {
+            throw new IllegalArgumentException("La ventana cooperativa debe ser de al menos 2 ciclos");
+        }
+        this.grafo = grafo;
+        this.ventana = ventana;
+        this.lado = 2 * ventana + 1;
+        this.maximoEsperas = 2 * ventana;
+        this.reservas = new TablaReservas(grafo.getCantidadCeldas(), Integer.MAX_VALUE);
+        int capacidad = lado * lado * (ventana + 1);
+        this.costos = new double[capacidad];
+        this.predecesores = new int[capacidad];
+        this.generaciones = new int[capacidad];
+        this.cerrados = new int[capacidad];
+        this.abiertos = new ColaPrioridadIndexada(capacidad);
+    }
+
+    /**
+     * Indica el ciclo de simulación en curso; las reservas se expresan en estos ciclos.
+     */
+    public void iniciarCiclo(int ciclo) {
+        this.cicloActual = ciclo;
+    }
+
+    public int getVentana() {
+        return ventana;
+    }
+
+    /**
+     * Devuelve el siguiente paso del robot según su plan cooperativo, replanificando si hace falta.
+     *
+     * @param robot Robot que se mueve
+     * @param celdaActual Celda en la que está el robot
+     * @param celdaDestino Celda de destino de la misión
+     * @param campo Campo de distancias hacia los objetivos de la misión
+     * @return Celda vecina hacia la que avanzar, la misma celda si debe esperar su turno,
+     *         o -1 si no hay plan posible o esperó demasiado y conviene otra estrategia
+     */
+    public int siguientePaso(RobotLogistico robot, int celdaActual, int celdaDestino, CampoDistancias campo) {
+        Plan plan = planes.get(robot);
+        int esperas = plan != null && plan.celdaDestino == celdaDestino ? plan.esperasConsecutivas : 0;
+        if (!esVigente(plan, celdaActual, celdaDestino)) {
+            plan = planificar(robot, celdaActual, celdaDestino, campo);
+            if (plan == null) {
+                return -1;
+            }
+            plan.esperasConsecutivas = esperas;
+        }
+
+        int paso = plan.celdas[cicloActual - plan.cicloInicio + 1];
+        if (paso != celdaActual) {
+            plan.esperasConsecutivas = 0;
+        } else if (++plan.esperasConsecutivas > maximoEsperas) {
+            liberar(robot);
+            return -1;
+        }
+        return paso;
+    }
+
+    private boolean esVigente(Plan plan, int celdaActual, int celdaDestino) {
+        if (plan == null || plan.celdaDestino != celdaDestino) {
+            return false;
+        }
+        int transcurridos = cicloActual - plan.cicloInicio;
+        return transcurridos >= 0 && transcurridos < Math.max(1, ventana / 2)
+                && transcurridos + 1 < plan.celdas.length
+                && plan.celdas[transcurridos] == celdaActual;
+    }
+
+    /**
+     * A* en espacio-tiempo desde la celda actual. Termina al llegar a un objetivo (esperar allí
+     * no cuesta) o al agotar la ventana, donde el costo restante se estima con el campo.
+     */
+    private Plan planificar(RobotLogistico robot, int celdaActual, int celdaDestino, CampoDistancias campo) {
+        abiertos.limpiar();
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(generaciones, 0);
+            Arrays.fill(cerrados, 0);
+            generacion = 1;
+        }
+        int x0 = grafo.getX(celdaActual);
+        int y0 = grafo.getY(celdaActual);
+        double heuristicaInicio = heuristicaInicial(celdaActual, campo);
+        if (heuristicaInicio == INFINITO) {
+            return null;
+        }
+
+        int inicio = estado(0, 0, 0);
+        generaciones[inicio] = generacion;
+        costos[inicio] = 0.0;
+        predecesores[inicio] = -1;
+        abiertos.insertarOActualizar(inicio, heuristicaInicio, 0.0);
+
+        while (!abiertos.estaVacia()) {
+            int actual = abiertos.extraerMinimo();
+            int paso = actual % (ventana + 1);
+            int relativa = actual / (ventana + 1);
+            int celda = grafo.indiceDe(x0 + relativa % lado - ventana, y0 + relativa / lado - ventana);
+            if (paso == ventana || campo.getPasos(celda) == 0) {
+                return guardarPlan(robot, celdaDestino, actual, x0, y0);
+            }
+            cerrados[actual] = generacion;
+
+            // Esperar en el lugar
+            expandir(robot, actual, celda, celda, paso, celdaActual, x0, y0, campo, heuristicaInicio);
+            for (int arista = grafo.inicioAristas(celda), fin = grafo.finAristas(celda); arista < fin; arista++) {
+                expandir(robot, actual, celda, grafo.destino(arista), paso, celdaActual, x0, y0, campo, heuristicaInicio);
+            }
+        }
+        return null;
+    }
+
+    private void expandir(RobotLogistico robot, int actual, int celda, int vecina, int paso, int celdaActual,
+                          int x0, int y0, CampoDistancias campo, double heuristicaInicio) {
+        if (vecina != celdaActual && campo.getPasos(vecina) < 0) {
+            return; // Celda que la misión no puede usar
+        }
+        int ciclo = cicloActual + paso + 1;
+        if (estaOcupada(robot, vecina, ciclo, paso + 1, celdaActual)) {
+            return;
+        }
+        // Intercambio con un robot que viene en sentido contrario
+        RobotLogistico enSentidoContrario = reservas.getReserva(celda, ciclo);
+        if (vecina != celda && enSentidoContrario != null && enSentidoContrario != robot
+                && reservas.getReserva(vecina, ciclo - 1) == enSentidoContrario) {
+            return;
+        }
+        int siguiente = estado(grafo.getX(vecina) - x0, grafo.getY(vecina) - y0, paso + 1);
+        if (cerrados[siguiente] == generacion) {
+            return;
+        }
+        double costo = costos[actual] + 1.0;
+        if (generaciones[siguiente] != generacion || costo < costos[siguiente]) {
+            generaciones[siguiente] = generacion;
+            costos[siguiente] = costo;
+            predecesores[siguiente] = actual;
+            double heuristica = vecina == celdaActual && campo.getPasos(vecina) < 0 ? heuristicaInicio : campo.getPasos(vecina);
+            abiertos.insertarOActualizar(siguiente, costo + heuristica, -costo);
+        }
+    }
+
+    /**
+     * Una celda está ocupada en un ciclo si otro robot la reservó, si ahora mismo hay algo en
+     * ella y es el próximo ciclo, o si la ocupa algo que no planifica (un robot detenido).
+     */
+    private boolean estaOcupada(RobotLogistico robot, int celda, int ciclo, int paso, int celdaActual) {
+        RobotLogistico reservada = reservas.getReserva(celda, ciclo);
+        if (reservada != null && reservada != robot) {
+            return true;
+        }
+        if (celda == celdaActual || !grafo.estaBloqueada(celda)) {
+            return false;
+        }
+        return paso == 1 || reservas.getReserva(celda, cicloActual) == null;
+    }
+
+    /**
+     * Si la celda actual no pertenece al campo (por ejemplo, el robopuerto del que sale el
+     * robot), la distancia es uno más que la de su mejor vecina.
+     */
+    private double heuristicaInicial(int celdaActual, CampoDistancias campo) {
+        if (campo.getPasos(celdaActual) >= 0) {
+            return campo.getPasos(celdaActual);
+        }
+        double minimo = INFINITO;
+        for (int arista = grafo.inicioAristas(celdaActual), fin = grafo.finAristas(celdaActual); arista < fin; arista++) {
+            int pasos = campo.getPasos(grafo.destino(arista));
+            if (pasos >= 0) {
+                minimo = Math.min(minimo, pasos + 1.0);
+            }
+        }
+        return minimo;
+    }
+
+    private Plan guardarPlan(RobotLogistico robot, int celdaDestino, int terminal, int x0, int y0) {
+        int[] celdas = new int[terminal % (ventana + 1) + 1];
+        for (int nodo = terminal, i = celdas.length - 1; nodo != -1; nodo = predecesores[nodo], i--) {
+            int relativa = nodo / (ventana + 1);
+            celdas[i] = grafo.indiceDe(x0 + relativa % lado - ventana, y0 + relativa / lado - ventana);
+        }
+        if (celdas.length == 1) {
+            return null; // Ya está en el objetivo: no hay paso que dar
+        }
+        reservas.reservarDesde(robot, cicloActual, celdas, cicloActual + ventana);
+        Plan plan = new Plan(celdaDestino, cicloActual, celdas);
+        planes.put(robot, plan);
+        return plan;
+    }
+
+    private int estado(int dx, int dy, int paso) {
+        return ((dy + ventana) * lado + (dx + ventana)) * (ventana + 1) + paso;
+    }
+
+    /**
+     * Descarta el plan y las reservas del robot, por ejemplo al terminar su misión.
+     */
+    public void liberar(RobotLogistico robot) {
+        planes.remove(robot);
+        reservas.liberar(robot);
+    }
+
+    public TablaReservas getReservas() {
+        return reservas;
+    }
+}
@@ -0,0 +1,614 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * Búsqueda jerárquica (HPA*) para grillas grandes. Divide la grilla en sectores cuadrados
+ * de tamaño fijo y, en cada borde entre sectores vecinos, elige celdas de entrada. Dentro de
+ * cada sector precalcula la distancia entre todas sus entradas, de modo que una consulta de
+ * larga distancia recorre solo el grafo abstracto de entradas y no todas las celdas.
+ * <p>
+ * El resultado es una lista de puntos de paso (entradas); cada tramo entre dos puntos de paso
+ * queda dentro de un sector (o cruza un borde) y se refina a celdas solo cuando hace falta con
+ * {@link #refinarTramo(int, int)}, con un BFS que no sale del sector. Los costos son los del
+ * grafo abstracto, que pueden superar levemente al óptimo.
+ * <p>
+ * Sin restricción propia, la abstracción sigue el bloqueo de celdas del grafo y escucha sus
+ * cambios. Con una restricción fija (por ejemplo, solo cofres y alcance de los robopuertos) no
+ * escucha al grafo: los robots que se mueven no la invalidan, y el dueño avisa con
+ * {@link #celdaActualizada(int, boolean)} cuando cambia un obstáculo fijo. En los dos casos,
+ * cuando una celda cambia solo se marca su sector y se reconstruye (junto con sus vecinos,
+ * cuyas entradas comparten bordes) en la siguiente consulta.
+ * Requiere aristas de peso uniforme. No es seguro para uso concurrente.
+ */
+public final class PlanificadorJerarquico implements BuscadorCaminos, ObservadorGrafo {
+    // Las entradas más largas que esto se representan con dos celdas, una en cada extremo
+    private static final int LARGO_ENTRADA_DOBLE = 6;
+
+    private final GrafoCompacto grafo;
+    private final int tamanioSector;
+    private final int ancho;
+    private final int alto;
+    private final int sectoresX;
+    private final int sectoresY;
+    private final double pesoPaso;
+    private final IntPredicate celdaTransitable; // restricción fija, null si se sigue el bloqueo del grafo
+
+    private final Sector[] sectores;
+    private final int[][] bordesVerticales;   // pares de celdas entre el sector (sx, sy) y (sx + 1, sy)
+    private final int[][] bordesHorizontales; // pares de celdas entre el sector (sx, sy) y (sx, sy + 1)
+    private final BitSet nodosAbstractos;
+    private final BitSet sectoresSucios;
+    private boolean construido;
+
+    // Estado de la búsqueda abstracta, indexado por celda
+    private final double[] distancias;
+    private final int[] predecesores;
+    private final int[] generaciones;
+    private final int[] cerrados;
+    private final int[] objetivos;
+    private final ColaPrioridadIndexada abiertos;
+    private int generacion;
+    private int nodosExpandidos;
+
+    // BFS local a un sector
+    private final int[] distanciasLocales;
+    private final int[] generacionesLocales;
+    private final int[] colaLocal;
+    private int generacionLocal;
+
+    /**
+     * Entradas de un sector y la distancia, en pasos, entre cada par de ellas sin salir del sector.
+     */
+    private static class Sector {
+        private int[] nodos = new int[0];
+        private int[] pasos = new int[0]; // nodos.length x nodos.length, -1 si no se conectan
+    }
+
+    public PlanificadorJerarquico(GrafoCompacto grafo, int tamanioSector) {
+        this(grafo, tamanioSector, null);
+    }
+
+    /**
+     * @param celdaTransitable Restricción fija de las celdas que forman la abstracción, o null
+     *                         para seguir el bloqueo de celdas del grafo. El origen y los
+     *                         objetivos de una consulta pueden no cumplirla, como el robopuerto
+     *                         del que sale o al que vuelve un robot
+     */
+    public PlanificadorJerarquico(GrafoCompacto grafo, int tamanioSector, IntPredicate celdaTransitable) {
+        if (tamanioSector < 2) {
+            throw new IllegalArgumentException("El tamaño de sector debe ser al menos 2");
+        }
+        this.grafo = grafo;
+        this.tamanioSector = tamanioSector;
+        this.ancho = grafo.getAncho();
+        this.alto = grafo.getAlto();
+        this.sectoresX = (ancho + tamanioSector - 1) / tamanioSector;
+        this.sectoresY = (alto + tamanioSector - 1) / tamanioSector;
+        this.pesoPaso = grafo.getPesoPaso();
+        this.celdaTransitable = celdaTransitable;
+
+        this.sectores = new Sector[sectoresX * sectoresY];
+        for (int i = 0; i < sectores.length; i++) {
+            sectores[i] = new Sector();
+        }
+        this.bordesVerticales = new int[sectores.length][];
+        this.bordesHorizontales = new int[sectores.length][];
+        this.nodosAbstractos = new BitSet(grafo.getCantidadCeldas());
+        this.sectoresSucios = new BitSet(sectores.length);
+
+        int capacidad = Math.max(1, grafo.getCantidadCeldas());
+        this.distancias = new double[capacidad];
+        this.predecesores = new int[capacidad];
+        this.generaciones = new int[capacidad];
+        this.cerrados = new int[capacidad];
+        this.objetivos = new int[capacidad];
+        this.abiertos = new ColaPrioridadIndexada(capacidad);
+
+        int celdasSector = tamanioSector * tamanioSector;
+        this.distanciasLocales = new int[celdasSector];
+        this.generacionesLocales = new int[celdasSector];
+        this.colaLocal = new int[celdasSector];
+
+        if (celdaTransitable == null) {
+            grafo.registrarObservador(this);
+        }
+    }
+
+    /**
+     * Marca el sector de la celda para reconstruirlo en la siguiente consulta.
+     */
+    @Override
+    public void celdaActualizada(int celda, boolean bloqueada) {
+        sectoresSucios.set(sectorDe(celda % ancho, celda / ancho));
+    }
+
+    public int getTamanioSector() {
+        return tamanioSector;
+    }
+
+    public int getCantidadSectores() {
+        return sectores.length;
+    }
+
+    /**
+     * @return cantidad de entradas (nodos abstractos) del sector
+     */
+    public int getCantidadEntradas(int sector) {
+        actualizarAbstraccion();
+        return sectores[sector].nodos.length;
+    }
+
+    // Construcción y mantenimiento de la abstracción
+
+    private void actualizarAbstraccion() {
+        if (!construido) {
+            for (int sy = 0; sy < sectoresY; sy++) {
+                for (int sx = 0; sx < sectoresX; sx++) {
+                    calcularBordes(sx, sy);
+                }
+            }
+            for (int sector = 0; sector < sectores.length; sector++) {
+                reconstruirSector(sector);
+            }
+            construido = true;
+            sectoresSucios.clear();
+            return;
+        }
+        if (sectoresSucios.isEmpty()) {
+            return;
+        }
+        // Las entradas de un sector viven en bordes compartidos: se recalculan sus bordes y
+        // luego las distancias internas del sector y de sus vecinos
+        BitSet aReconstruir = new BitSet(sectores.length);
+        for (int sector = sectoresSucios.nextSetBit(0); sector >= 0; sector = sectoresSucios.nextSetBit(sector + 1)) {
+            int sx = sector % sectoresX;
+            int sy = sector / sectoresX;
+            calcularBordes(sx, sy);
+            if (sx > 0) calcularBordes(sx - 1, sy);
+            if (sy > 0) calcularBordes(sx, sy - 1);
+            aReconstruir.set(sector);
+            if (sx > 0) aReconstruir.set(sector - 1);
+            if (sx < sectoresX - 1) aReconstruir.set(sector + 1);
+            if (sy > 0) aReconstruir.set(sector - sectoresX);
+            if (sy < sectoresY - 1) aReconstruir.set(sector + sectoresX);
+        }
+        sectoresSucios.clear();
+        for (int sector = aReconstruir.nextSetBit(0); sector >= 0; sector = aReconstruir.nextSetBit(sector + 1)) {
+            reconstruirSector(sector);
+        }
+    }
+
+    /**
+     * Calcula las entradas de los bordes derecho e inferior del sector (sx, sy).
+     */
+    private void calcularBordes(int sx, int sy) {
+        int sector = sy * sectoresX + sx;
+        int x0 = sx * tamanioSector;
+        int y0 = sy * tamanioSector;
+        int x1 = Math.min(ancho, x0 + tamanioSector) - 1;
+        int y1 = Math.min(alto, y0 + tamanioSector) - 1;
+
+        bordesVerticales[sector] = sx < sectoresX - 1 ? calcularEntradas(x1, y0, x1 + 1, y0, 0, 1, y1 - y0 + 1) : new int[0];
+        bordesHorizontales[sector] = sy < sectoresY - 1 ? calcularEntradas(x0, y1, x0, y1 + 1, 1, 0, x1 - x0 + 1) : new int[0];
+    }
+
+    /**
+     * Recorre un borde buscando tramos donde ambos lados son transitables y elige, por tramo,
+     * la celda central o (si es largo) las dos de los extremos.
+     */
+    private int[] calcularEntradas(int ax, int ay, int bx, int by, int dx, int dy, int largo) {
+        int[] pares = new int[largo * 2 * 2];
+        int cantidad = 0;
+        int inicio = -1;
+        for (int i = 0; i <= largo; i++) {
+            boolean abierto = i < largo && esTransitable(celda(ax + i * dx, ay + i * dy)) && esTransitable(celda(bx + i * dx, by + i * dy));
+            if (abierto && inicio == -1) {
+                inicio = i;
+            } else if (!abierto && inicio != -1) {
+                int fin = i - 1;
+                if (fin - inicio + 1 < LARGO_ENTRADA_DOBLE) {
+                    int medio = (inicio + fin) / 2;
+                    pares[cantidad++] = celda(ax + medio * dx, ay + medio * dy);
+                    pares[cantidad++] = celda(bx + medio * dx, by + medio * dy);
+                } else {
+                    pares[cantidad++] = celda(ax + inicio * dx, ay + inicio * dy);
+                    pares[cantidad++] = celda(bx + inicio * dx, by + inicio * dy);
+                    pares[cantidad++] = celda(ax + fin * dx, ay + fin * dy);
+                    pares[cantidad++] = celda(bx + fin * dx, by + fin * dy);
+                }
+                inicio = -1;
+            }
+        }
+        return Arrays.copyOf(pares, cantidad);
+    }
+
+    /**
+     * Reúne las entradas de los cuatro bordes del sector y recalcula las distancias internas.
+     */
+    private void reconstruirSector(int sector) {
+        Sector datos = sectores[sector];
+        for (int nodo : datos.nodos) {
+            nodosAbstractos.clear(nodo);
+        }
+
+        int sx = sector % sectoresX;
+        int sy = sector / sectoresX;
+        int[] nodos = new int[0];
+        // Borde derecho e inferior: la celda del sector es la primera de cada par
+        nodos = agregarLado(nodos, bordesVerticales[sector], 0);
+        nodos = agregarLado(nodos, bordesHorizontales[sector], 0);
+        // Borde izquierdo y superior: la celda del sector es la segunda de cada par del vecino
+        if (sx > 0) nodos = agregarLado(nodos, bordesVerticales[sector - 1], 1);
+        if (sy > 0) nodos = agregarLado(nodos, bordesHorizontales[sector - sectoresX], 1);
+
+        int k = nodos.length;
+        int[] pasos = new int[k * k];
+        for (int i = 0; i < k; i++) {
+            recorrerSector(nodos[i], sector);
+            for (int j = 0; j < k; j++) {
+                pasos[i * k + j] = pasosLocales(nodos[j], sector);
+            }
+        }
+        datos.nodos = nodos;
+        datos.pasos = pasos;
+        for (int nodo : nodos) {
+            nodosAbstractos.set(nodo);
+        }
+    }
+
+    private int[] agregarLado(int[] nodos, int[] pares, int lado) {
+        int cantidad = nodos.length;
+        int[] resultado = Arrays.copyOf(nodos, cantidad + pares.length / 2);
+        for (int i = lado; i < pares.length; i += 2) {
+            int celda = pares[i];
+            boolean repetida = false;
+            for (int j = 0; j < cantidad && !repetida; j++) {
+                repetida = resultado[j] == celda;
+            }
+            if (!repetida) {
+                resultado[cantidad++] = celda;
+            }
+        }
+        return Arrays.copyOf(resultado, cantidad);
+    }
+
+    /**
+     * BFS desde una celda sin salir del sector; deja las distancias en pasos en los arreglos locales.
+     */
+    private void recorrerSector(int desde, int sector) {
+        if (++generacionLocal == Integer.MAX_VALUE) {
+            Arrays.fill(generacionesLocales, 0);
+            generacionLocal = 1;
+        }
+        int x0 = (sector % sectoresX) * tamanioSector;
+        int y0 = (sector / sectoresX) * tamanioSector;
+        int x1 = Math.min(ancho, x0 + tamanioSector);
+        int y1 = Math.min(alto, y0 + tamanioSector);
+
+        int local = (desde / ancho - y0) * tamanioSector + (desde % ancho - x0);
+        generacionesLocales[local] = generacionLocal;
+        distanciasLocales[local] = 0;
+        int cabeza = 0;
+        int cola = 0;
+        colaLocal[cola++] = local;
+        while (cabeza < cola) {
+            int actual = colaLocal[cabeza++];
+            int x = x0 + actual % tamanioSector;
+            int y = y0 + actual / tamanioSector;
+            for (int d = 0; d < 4; d++) {
+                int vx = x + (d == 0 ? 1 : d == 1 ? -1 : 0);
+                int vy = y + (d == 2 ? 1 : d == 3 ? -1 : 0);
+                if (vx < x0 || vx >= x1 || vy < y0 || vy >= y1 || !esTransitable(vy * ancho + vx)) {
+                    continue;
+                }
+                int vecino = (vy - y0) * tamanioSector + (vx - x0);
+                if (generacionesLocales[vecino] != generacionLocal) {
+                    generacionesLocales[vecino] = generacionLocal;
+                    distanciasLocales[vecino] = distanciasLocales[actual] + 1;
+                    colaLocal[cola++] = vecino;
+                }
+            }
+        }
+    }
+
+    private int pasosLocales(int celda, int sector) {
+        int x0 = (sector % sectoresX) * tamanioSector;
+        int y0 = (sector / sectoresX) * tamanioSector;
+        int local = (celda / ancho - y0) * tamanioSector + (celda % ancho - x0);
+        return generacionesLocales[local] == generacionLocal ? distanciasLocales[local] : -1;
+    }
+
+    /**
+     * Pasos de la última BFS local hasta la celda. Si la BFS no la incluye (un extremo que no
+     * cumple la restricción, como un robopuerto), se llega por su mejor vecina del sector.
+     */
+    private int pasosLocalesDesde(int celda, int sector) {
+        int pasos = pasosLocales(celda, sector);
+        if (pasos >= 0) {
+            return pasos;
+        }
+        int x = celda % ancho;
+        int y = celda / ancho;
+        int minimo = -1;
+        for (int d = 0; d < 4; d++) {
+            int vx = x + (d == 0 ? 1 : d == 1 ? -1 : 0);
+            int vy = y + (d == 2 ? 1 : d == 3 ? -1 : 0);
+            if (vx < 0 || vx >= ancho || vy < 0 || vy >= alto || sectorDe(vx, vy) != sector) {
+                continue;
+            }
+            int vecina = pasosLocales(celda(vx, vy), sector);
+            if (vecina >= 0 && (minimo == -1 || vecina + 1 < minimo)) {
+                minimo = vecina + 1;
+            }
+        }
+        return minimo;
+    }
+
+    // Búsqueda sobre el grafo abstracto
+
+    /**
+     * Busca con A* sobre el grafo de entradas el camino desde el origen hasta el objetivo más
+     * cercano. El origen y los objetivos se conectan temporalmente a las entradas de su sector.
+     *
+     * @return Celda objetivo alcanzada, o -1 si ninguna es alcanzable
+     */
+    @Override
+    public int buscarHastaObjetivos(int origen, int[] objetivos, double escalaHeuristica) {
+        actualizarAbstraccion();
+        iniciarBusqueda(origen);
+        if (objetivos.length == 0) {
+            return -1;
+        }
+        int[] xObjetivos = new int[objetivos.length];
+        int[] yObjetivos = new int[objetivos.length];
+        int[] sectorObjetivo = new int[objetivos.length];
+        int[][] pasosObjetivo = new int[objetivos.length][]; // pasos desde cada entrada de su sector
+        int[] pasosDesdeOrigen = new int[objetivos.length]; // pasos desde el origen si comparten sector
+        int sectorOrigen = sectorDe(origen % ancho, origen / ancho);
+        for (int i = 0; i < objetivos.length; i++) {
+            int objetivo = objetivos[i];
+            this.objetivos[objetivo] = generacion;
+            xObjetivos[i] = objetivo % ancho;
+            yObjetivos[i] = objetivo / ancho;
+            sectorObjetivo[i] = sectorDe(xObjetivos[i], yObjetivos[i]);
+            Sector sector = sectores[sectorObjetivo[i]];
+            recorrerSector(objetivo, sectorObjetivo[i]);
+            pasosObjetivo[i] = new int[sector.nodos.length];
+            boolean valido = esExtremoValido(objetivo);
+            for (int j = 0; j < sector.nodos.length; j++) {
+                // El camino inverso recorre las mismas celdas: la BFS desde el objetivo mide los dos sentidos
+                pasosObjetivo[i][j] = valido ? pasosLocales(sector.nodos[j], sectorObjetivo[i]) : -1;
+            }
+            pasosDesdeOrigen[i] = valido && sectorObjetivo[i] == sectorOrigen ? pasosLocalesDesde(origen, sectorOrigen) : -1;
+        }
+        abiertos.insertarOActualizar(origen, heuristica(origen, xObjetivos, yObjetivos, escalaHeuristica));
+
+        while (!abiertos.estaVacia()) {
+            int actual = abiertos.extraerMinimo();
+            if (this.objetivos[actual] == generacion) {
+                return actual;
+            }
+            cerrados[actual] = generacion;
+            nodosExpandidos++;
+            int sectorActual = sectorDe(actual % ancho, actual / ancho);
+            Sector sector = sectores[sectorActual];
+            int indice = indiceEnSector(sector, actual);
+
+            if (actual == origen) {
+                // El origen se conecta por BFS con las entradas y los objetivos de su sector
+                recorrerSector(origen, sectorActual);
+                for (int nodo : sector.nodos) {
+                    int pasos = pasosLocales(nodo, sectorActual);
+                    if (pasos >= 0) relajar(actual, nodo, pasos, xObjetivos, yObjetivos, escalaHeuristica);
+                }
+                for (int i = 0; i < objetivos.length; i++) {
+                    if (pasosDesdeOrigen[i] >= 0) {
+                        relajar(actual, objetivos[i], pasosDesdeOrigen[i], xObjetivos, yObjetivos, escalaHeuristica);
+                    }
+                }
+            } else if (indice != -1) {
+                int k = sector.nodos.length;
+                for (int j = 0; j < k; j++) {
+                    int pasos = sector.pasos[indice * k + j];
+                    if (pasos > 0) relajar(actual, sector.nodos[j], pasos, xObjetivos, yObjetivos, escalaHeuristica);
+                }
+                for (int i = 0; i < objetivos.length; i++) {
+                    if (sectorObjetivo[i] == sectorActual && pasosObjetivo[i][indice] >= 0) {
+                        relajar(actual, objetivos[i], pasosObjetivo[i][indice], xObjetivos, yObjetivos, escalaHeuristica);
+                    }
+                }
+            }
+            if (indice != -1) {
+                // Aristas entre entradas enfrentadas de sectores vecinos
+                int x = actual % ancho;
+                int y = actual / ancho;
+                for (int d = 0; d < 4; d++) {
+                    int vx = x + (d == 0 ? 1 : d == 1 ? -1 : 0);
+                    int vy = y + (d == 2 ? 1 : d == 3 ? -1 : 0);
+                    if (vx < 0 || vx >= ancho || vy < 0 || vy >= alto || sectorDe(vx, vy) == sectorActual) {
+                        continue;
+                    }
+                    int vecino = vy * ancho + vx;
+                    if (nodosAbstractos.get(vecino)) {
+                        relajar(actual, vecino, 1, xObjetivos, yObjetivos, escalaHeuristica);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void relajar(int desde, int hasta, int pasos, int[] xObjetivos, int[] yObjetivos, double escala) {
+        if (cerrados[hasta] == generacion) {
+            return;
+        }
+        double distanciaAlternativa = distancias[desde] + pasos * pesoPaso;
+        if (generaciones[hasta] != generacion || distanciaAlternativa < distancias[hasta]) {
+            generaciones[hasta] = generacion;
+            distancias[hasta] = distanciaAlternativa;
+            predecesores[hasta] = desde;
+            abiertos.insertarOActualizar(hasta, distanciaAlternativa + heuristica(hasta, xObjetivos, yObjetivos, escala));
+        }
+    }
+
+    /**
+     * Devuelve los puntos de paso del camino abstracto hasta la celda dada: el origen,
+     * las entradas atravesadas y el destino.
+     */
+    public int[] getPuntosDePaso(int destino) {
+        if (generaciones[destino] != generacion) {
+            return new int[0];
+        }
+        int longitud = 1;
+        for (int nodo = destino; predecesores[nodo] != -1; nodo = predecesores[nodo]) {
+            longitud++;
+        }
+        int[] puntos = new int[longitud];
+        int nodo = destino;
+        for (int i = longitud - 1; i >= 0; i--) {
+            puntos[i] = nodo;
+            nodo = predecesores[nodo];
+        }
+        return puntos;
+    }
+
+    /**
+     * Refina a celdas el tramo entre dos puntos de paso consecutivos. Un tramo une dos celdas
+     * del mismo sector o dos entradas enfrentadas de sectores vecinos, así que la búsqueda es
+     * un BFS que no sale del sector, con las mismas celdas que usó la abstracción.
+     *
+     * @return Celdas del tramo (desde primero), o un arreglo vacío si ya no se conectan
+     */
+    public int[] refinarTramo(int desde, int hasta) {
+        if (desde == hasta) {
+            return new int[] { desde };
+        }
+        int sector = sectorDe(hasta % ancho, hasta / ancho);
+        if (sectorDe(desde % ancho, desde / ancho) != sector) {
+            boolean vecinas = Math.abs(desde % ancho - hasta % ancho) + Math.abs(desde / ancho - hasta / ancho) == 1;
+            return vecinas ? new int[] { desde, hasta } : new int[0];
+        }
+        // BFS inverso desde el final del tramo y descenso desde el principio
+        recorrerSector(hasta, sector);
+        int pasos = pasosLocalesDesde(desde, sector);
+        if (pasos < 0) {
+            return new int[0];
+        }
+        int[] tramo = new int[pasos + 1];
+        tramo[0] = desde;
+        int actual = desde;
+        for (int i = 1; i <= pasos; i++) {
+            int x = actual % ancho;
+            int y = actual / ancho;
+            for (int d = 0; d < 4; d++) {
+                int vx = x + (d == 0 ? 1 : d == 1 ? -1 : 0);
+                int vy = y + (d == 2 ? 1 : d == 3 ? -1 : 0);
+                if (vx >= 0 && vx < ancho && vy >= 0 && vy < alto && sectorDe(vx, vy) == sector
+                        && pasosLocales(celda(vx, vy), sector) == pasos - i) {
+                    actual = celda(vx, vy);
+                    break;
+                }
+            }
+            tramo[i] = actual;
+        }
+        return tramo;
+    }
+
+    /**
+     * Reconstruye el camino completo refinando todos sus tramos. Para avanzar solo unos pasos
+     * conviene usar {@link #getPuntosDePaso(int)} y refinar únicamente el primer tramo.
+     */
+    @Override
+    public int[] reconstruirCamino(int destino) {
+        int[] puntos = getPuntosDePaso(destino);
+        if (puntos.length <= 1) {
+            return puntos;
+        }
+        int[] camino = new int[] { puntos[0] };
+        for (int i = 1; i < puntos.length; i++) {
+            int[] tramo = refinarTramo(puntos[i - 1], puntos[i]);
+            if (tramo.length == 0) {
+                return new int[0];
+            }
+            int anterior = camino.length;
+            camino = Arrays.copyOf(camino, anterior + tramo.length - 1);
+            System.arraycopy(tramo, 1, camino, anterior, tramo.length - 1);
+        }
+        return camino;
+    }
+
+    /**
+     * @return costo del camino abstracto hasta la celda, o Double.MAX_VALUE si no es alcanzable
+     */
+    @Override
+    public double getDistancia(int celda) {
+        return generaciones[celda] == generacion ? distancias[celda] : Double.MAX_VALUE;
+    }
+
+    @Override
+    public int getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    private void iniciarBusqueda(int origen) {
+        if (origen < 0 || origen >= grafo.getCantidadCeldas()) {
+            throw new IllegalArgumentException("La celda origen no pertenece al grafo: " + origen);
+        }
+        abiertos.limpiar();
+        if (++generacion == Integer.MAX_VALUE) {
+            Arrays.fill(generaciones, 0);
+            Arrays.fill(cerrados, 0);
+            Arrays.fill(objetivos, 0);
+            generacion = 1;
+        }
+        this.nodosExpandidos = 0;
+        generaciones[origen] = generacion;
+        distancias[origen] = 0.0;
+        predecesores[origen] = -1;
+    }
+
+    private int indiceEnSector(Sector sector, int celda) {
+        if (!nodosAbstractos.get(celda)) {
+            return -1;
+        }
+        for (int i = 0; i < sector.nodos.length; i++) {
+            if (sector.nodos[i] == celda) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private double heuristica(int celda, int[] xObjetivos, int[] yObjetivos, double escala) {
+        int x = celda % ancho;
+        int y = celda / ancho;
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0; i < xObjetivos.length; i++) {
+            minimo = Math.min(minimo, Math.abs(x - xObjetivos[i]) + Math.abs(y - yObjetivos[i]));
+        }
+        return minimo * escala;
+    }
+
+    private int sectorDe(int x, int y) {
+        return (y / tamanioSector) * sectoresX + (x / tamanioSector);
+    }
+
+    private int celda(int x, int y) {
+        return y * ancho + x;
+    }
+
+    private boolean esTransitable(int celda) {
+        return celdaTransitable != null ? celdaTransitable.test(celda) : !grafo.estaBloqueada(celda);
+    }
+
+    /**
+     * Con una restricción fija, los extremos de una consulta no tienen que cumplirla; sin ella,
+     * un objetivo bloqueado en el grafo no se puede alcanzar.
+     */
+    private boolean esExtremoValido(int celda) {
+        return celdaTransitable != null || !grafo.estaBloqueada(celda);
+    }
+}
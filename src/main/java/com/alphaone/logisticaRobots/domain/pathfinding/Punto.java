@@ -30,6 +30,15 @@ public class Punto {
         return Math.sqrt(Math.pow(this.x - p.x, 2) + Math.pow(this.y - p.y, 2));
     }
 
+    /**
+     * Calcula la distancia Manhattan (cantidad mínima de pasos ortogonales) hasta otro punto
+     * @param p Punto
+     * @return int
+     */
+    public int distanciaManhattan(Punto p) {
+        return Math.abs(this.x - p.x) + Math.abs(this.y - p.y);
+    }
+
     @Override
     public String toString() {
         return "(" + x + "," + y + ")";
@@ -0,0 +1,323 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Replanificador incremental D* Lite para la misión de un robot sobre un {@link GrafoCompacto}.
+ * Busca hacia atrás, desde las celdas objetivo hacia la posición del robot, y conserva los
+ * valores g/rhs entre consultas. Cuando una celda se bloquea o se libera (otro robot se mueve,
+ * se agrega un cofre) solo se corrigen las celdas afectadas por el cambio, en lugar de repetir
+ * la búsqueda completa. Se registra como {@link ObservadorGrafo} y acumula los cambios hasta la
+ * siguiente consulta; hay que llamar a {@link #liberar()} al terminar la misión.
+ * <p>
+ * El estado es disperso: solo las celdas que tocó la búsqueda reciben un índice local, así que
+ * la memoria de cada misión crece con la zona explorada y no con el tamaño de la grilla.
+ * Los cambios en celdas que la búsqueda nunca tocó se ignoran, porque no afectan a ningún valor.
+ * No es seguro para uso concurrente.
+ */
+public final class ReplanificadorDStarLite implements ObservadorGrafo {
+    private static final double INFINITO = Double.POSITIVE_INFINITY;
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final GrafoCompacto grafo;
+    private final IntPredicate celdaPermitida; // restricciones propias de la misión (alcance, robopuertos)
+    private final double escalaHeuristica;
+    private final int[] objetivos;
+
+    // Estado por índice local; indices traduce cada celda tocada a su índice
+    private final Map<Integer, Integer> indices = new HashMap<>();
+    private int[] celdas = new int[CAPACIDAD_INICIAL];
+    private double[] g = new double[CAPACIDAD_INICIAL];
+    private double[] rhs = new double[CAPACIDAD_INICIAL];
+    private byte[] permitidas = new byte[CAPACIDAD_INICIAL]; // 0 sin evaluar, 1 permitida, 2 prohibida
+    private boolean[] esObjetivo = new boolean[CAPACIDAD_INICIAL];
+    private int cantidadLocales;
+    private final ColaPrioridadIndexada abiertos = new ColaPrioridadIndexada(CAPACIDAD_INICIAL);
+
+    private int[] celdasCambiadas = new int[16];
+    private int cantidadCambios;
+    private boolean desbordado; // demasiados cambios acumulados: conviene buscar desde cero
+
+    private int celdaInicio = -1;
+    private int ultimaCeldaInicio = -1;
+    private double km;
+    private int nodosExpandidos;
+
+    /**
+     * @param grafo Grafo sobre el que se planifica
+     * @param objetivos Celdas en las que termina la misión (alcanzar cualquiera basta)
+     * @param celdaPermitida Restricción estática adicional al bloqueo de celdas del grafo
+     * @param escalaHeuristica Costo mínimo de un paso entre celdas vecinas
+     */
+    public ReplanificadorDStarLite(GrafoCompacto grafo, int[] objetivos, IntPredicate celdaPermitida, double escalaHeuristica) {
+        if (objetivos.length == 0) {
+            throw new IllegalArgumentException("La misión debe tener al menos una celda objetivo");
+        }
+        this.grafo = grafo;
+        this.celdaPermitida = celdaPermitida;
+        this.escalaHeuristica = escalaHeuristica;
+        this.objetivos = objetivos.clone();
+        marcarObjetivos();
+        grafo.registrarObservador(this);
+    }
+
+    private void marcarObjetivos() {
+        for (int objetivo : objetivos) {
+            esObjetivo[indiceDe(objetivo)] = true;
+        }
+    }
+
+    /**
+     * Deja de escuchar los cambios del grafo. Debe llamarse cuando la misión termina.
+     */
+    public void liberar() {
+        grafo.removerObservador(this);
+    }
+
+    public int[] getObjetivos() {
+        return objetivos.clone();
+    }
+
+    /**
+     * @return cantidad de celdas que tocó la búsqueda, que determina la memoria de la misión
+     */
+    public int getCeldasTocadas() {
+        return cantidadLocales;
+    }
+
+    @Override
+    public void celdaActualizada(int celda, boolean bloqueada) {
+        if (desbordado || ultimaCeldaInicio == -1 || !indices.containsKey(celda)) {
+            return;
+        }
+        if (cantidadCambios == cantidadLocales) {
+            // Reparar más cambios que celdas tocadas no es más barato que una búsqueda nueva
+            desbordado = true;
+            return;
+        }
+        if (cantidadCambios == celdasCambiadas.length) {
+            celdasCambiadas = Arrays.copyOf(celdasCambiadas, cantidadCambios * 2);
+        }
+        celdasCambiadas[cantidadCambios++] = celda;
+    }
+
+    /**
+     * Devuelve la siguiente celda del camino mínimo desde la posición actual del robot.
+     * La primera consulta hace la búsqueda completa; las siguientes reutilizan el árbol
+     * anterior y solo reparan lo que cambió desde la última consulta.
+     *
+     * @param celdaActual Celda en la que está el robot
+     * @return Celda vecina hacia la que avanzar, la misma celda si ya es objetivo,
+     *         o -1 si ningún objetivo es alcanzable
+     */
+    public int siguientePaso(int celdaActual) {
+        Integer actual = indices.get(celdaActual);
+        if (actual != null && esObjetivo[actual]) {
+            return celdaActual;
+        }
+        nodosExpandidos = 0;
+        if (desbordado) {
+            reiniciar();
+        }
+        if (ultimaCeldaInicio == -1) {
+            celdaInicio = celdaActual;
+            ultimaCeldaInicio = celdaActual;
+            for (int objetivo : objetivos) {
+                int local = indiceDe(objetivo);
+                rhs[local] = 0.0;
+                encolar(local);
+            }
+            cantidadCambios = 0; // la búsqueda inicial ya ve el estado actual del grafo
+        } else {
+            celdaInicio = celdaActual;
+            if (celdaActual != ultimaCeldaInicio) {
+                km += heuristica(ultimaCeldaInicio, celdaActual);
+                ultimaCeldaInicio = celdaActual;
+            }
+            aplicarCambios();
+        }
+
+        int inicio = indiceDe(celdaInicio);
+        calcularCaminoMasCorto(inicio);
+
+        if (rhs[inicio] == INFINITO) {
+            return -1;
+        }
+        int mejor = -1;
+        double mejorCosto = INFINITO;
+        for (int arista = grafo.inicioAristas(celdaInicio), fin = grafo.finAristas(celdaInicio); arista < fin; arista++) {
+            int vecino = grafo.destino(arista);
+            double gVecino = gDe(vecino);
+            if (gVecino == INFINITO) {
+                continue;
+            }
+            double costo = costo(arista, vecino) + gVecino;
+            if (costo < mejorCosto) {
+                mejorCosto = costo;
+                mejor = vecino;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * @return costo del camino restante desde la última celda consultada, o infinito si no hay camino
+     */
+    public double getCostoRestante() {
+        Integer inicio = celdaInicio == -1 ? null : indices.get(celdaInicio);
+        return inicio == null ? INFINITO : rhs[inicio];
+    }
+
+    /**
+     * @return cantidad de nodos expandidos por la última consulta
+     */
+    public int getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    private void reiniciar() {
+        indices.clear();
+        cantidadLocales = 0;
+        abiertos.limpiar();
+        km = 0.0;
+        ultimaCeldaInicio = -1;
+        cantidadCambios = 0;
+        desbordado = false;
+        marcarObjetivos();
+    }
+
+    /**
+     * Devuelve el índice local de la celda, asignándole uno (con g y rhs infinitos) si la
+     * búsqueda todavía no la había tocado.
+     */
+    private int indiceDe(int celda) {
+        Integer local = indices.get(celda);
+        if (local != null) {
+            return local;
+        }
+        if (cantidadLocales == celdas.length) {
+            int capacidad = cantidadLocales * 2;
+            celdas = Arrays.copyOf(celdas, capacidad);
+            g = Arrays.copyOf(g, capacidad);
+            rhs = Arrays.copyOf(rhs, capacidad);
+            permitidas = Arrays.copyOf(permitidas, capacidad);
+            esObjetivo = Arrays.copyOf(esObjetivo, capacidad);
+            abiertos.asegurarCapacidad(capacidad);
+        }
+        int nuevo = cantidadLocales++;
+        celdas[nuevo] = celda;
+        g[nuevo] = INFINITO;
+        rhs[nuevo] = INFINITO;
+        permitidas[nuevo] = 0;
+        esObjetivo[nuevo] = false;
+        indices.put(celda, nuevo);
+        return nuevo;
+    }
+
+    private double gDe(int celda) {
+        Integer local = indices.get(celda);
+        return local == null ? INFINITO : g[local];
+    }
+
+    private void aplicarCambios() {
+        for (int i = 0; i < cantidadCambios; i++) {
+            int celda = celdasCambiadas[i];
+            // Cambió el costo de las aristas que entran a la celda: corregir a sus vecinas
+            for (int arista = grafo.inicioAristas(celda), fin = grafo.finAristas(celda); arista < fin; arista++) {
+                actualizarVertice(indiceDe(grafo.destino(arista)));
+            }
+        }
+        cantidadCambios = 0;
+    }
+
+    private void calcularCaminoMasCorto(int inicio) {
+        while (!abiertos.estaVacia()) {
+            double k1Inicio = k1(inicio);
+            double k2Inicio = k2(inicio);
+            double k1Tope = abiertos.verPrioridadMinima();
+            double k2Tope = abiertos.verDesempateMinimo();
+            boolean topeMenor = k1Tope < k1Inicio || (k1Tope == k1Inicio && k2Tope < k2Inicio);
+            if (!topeMenor && rhs[inicio] == g[inicio]) {
+                break;
+            }
+
+            int u = abiertos.verMinimo();
+            double k1Nueva = k1(u);
+            double k2Nueva = k2(u);
+            if (k1Tope < k1Nueva || (k1Tope == k1Nueva && k2Tope < k2Nueva)) {
+                // La clave quedó vieja por el desplazamiento del robot
+                abiertos.insertarOActualizar(u, k1Nueva, k2Nueva);
+                continue;
+            }
+            abiertos.extraerMinimo();
+            nodosExpandidos++;
+            int celda = celdas[u];
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+            } else {
+                g[u] = INFINITO;
+                actualizarVertice(u);
+            }
+            for (int arista = grafo.inicioAristas(celda), fin = grafo.finAristas(celda); arista < fin; arista++) {
+                actualizarVertice(indiceDe(grafo.destino(arista)));
+            }
+        }
+    }
+
+    private void actualizarVertice(int u) {
+        if (!esObjetivo[u]) {
+            int celda = celdas[u];
+            double minimo = INFINITO;
+            for (int arista = grafo.inicioAristas(celda), fin = grafo.finAristas(celda); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                double gVecino = gDe(vecino);
+                if (gVecino != INFINITO) {
+                    minimo = Math.min(minimo, costo(arista, vecino) + gVecino);
+                }
+            }
+            rhs[u] = minimo;
+        }
+        abiertos.quitar(u);
+        if (g[u] != rhs[u]) {
+            encolar(u);
+        }
+    }
+
+    private void encolar(int local) {
+        abiertos.insertarOActualizar(local, k1(local), k2(local));
+    }
+
+    private double k1(int local) {
+        return Math.min(g[local], rhs[local]) + heuristica(celdaInicio, celdas[local]) + km;
+    }
+
+    private double k2(int local) {
+        return Math.min(g[local], rhs[local]);
+    }
+
+    /**
+     * Costo de la arista hacia una celda con g finito, que por eso ya tiene índice local.
+     */
+    private double costo(int arista, int destino) {
+        if (grafo.estaBloqueada(destino) || !estaPermitida(indices.get(destino))) {
+            return INFINITO;
+        }
+        return grafo.peso(arista);
+    }
+
+    private boolean estaPermitida(int local) {
+        if (permitidas[local] == 0) {
+            permitidas[local] = (byte) (celdaPermitida.test(celdas[local]) ? 1 : 2);
+        }
+        return permitidas[local] == 1;
+    }
+
+    private double heuristica(int desde, int hasta) {
+        int dx = Math.abs(grafo.getX(desde) - grafo.getX(hasta));
+        int dy = Math.abs(grafo.getY(desde) - grafo.getY(hasta));
+        return (dx + dy) * escalaHeuristica;
+    }
+}
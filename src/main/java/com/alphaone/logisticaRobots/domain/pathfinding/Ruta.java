@@ -1,15 +1,36 @@
 package com.alphaone.logisticaRobots.domain.pathfinding;
 
+import java.util.List;
+
 public class Ruta {
 
     private int id;
     private Punto puntoInicio;
     private Punto puntoFin;
+    private List<Punto> puntos; // Celdas recorridas, de inicio a fin
+    private double costo;       // Costo acumulado de las aristas, NaN si solo se conocen los extremos
 
     public Ruta(int id, Punto puntoInicio, Punto puntoFin) {
         this.id = id;
         this.puntoInicio = puntoInicio;
         this.puntoFin = puntoFin;
+        this.puntos = puntoInicio.equals(puntoFin) ? List.of(puntoInicio) : List.of(puntoInicio, puntoFin);
+        this.costo = Double.NaN;
+    }
+
+    public Ruta(int id, List<Punto> puntos, double costo) {
+        if (puntos == null || puntos.isEmpty()) {
+            throw new IllegalArgumentException("La ruta debe tener al menos un punto");
+        }
+        this.id = id;
+        this.puntos = List.copyOf(puntos);
+        this.puntoInicio = this.puntos.get(0);
+        this.puntoFin = this.puntos.get(this.puntos.size() - 1);
+        this.costo = costo;
+    }
+
+    public int getId() {
+        return id;
     }
 
     public Punto getPuntoInicio() {
@@ -19,4 +40,12 @@ public class Ruta {
     public Punto getPuntoFin() {
         return puntoFin;
     }
+
+    public List<Punto> getPuntos() {
+        return puntos;
+    }
+
+    public double getCosto() {
+        return costo;
+    }
 }
@@ -0,0 +1,280 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Conflict-Based Search (CBS) para grupos chicos de robots que se bloquean entre sí.
+ * El nivel alto busca el primer conflicto entre los caminos (dos robots en la misma celda y
+ * ciclo, o intercambiando celdas) y lo resuelve probando dos alternativas: prohibirle esa
+ * celda en ese ciclo a uno u otro robot. El nivel bajo es un A* en espacio-tiempo que respeta
+ * las prohibiciones de cada robot, guiado por el campo de distancias de su destino.
+ * <p>
+ * Encuentra caminos sin conflictos de costo total mínimo, pero su costo crece rápido con la
+ * cantidad de robots; por eso trabaja con un presupuesto de tiempo y devuelve null si lo
+ * agota, para que quien lo llama recurra a otra estrategia.
+ */
+public class SolucionadorCBS {
+    private final GrafoCompacto grafo;
+    private final int horizonte;
+    private final long presupuestoNanos;
+    private long limiteNanos;
+    private int nodosGenerados;
+
+    /**
+     * Prohibiciones de un robot en una rama del árbol de CBS.
+     */
+    private static final class Restricciones {
+        private final Set<Long> celdas = new HashSet<>();   // (celda, ciclo)
+        private final Set<Long> aristas = new HashSet<>();  // (desde, hacia, ciclo)
+        private int ultimoCiclo = -1;
+
+        private Restricciones copiar() {
+            Restricciones copia = new Restricciones();
+            copia.celdas.addAll(celdas);
+            copia.aristas.addAll(aristas);
+            copia.ultimoCiclo = ultimoCiclo;
+            return copia;
+        }
+    }
+
+    private static final class NodoCBS {
+        private final Restricciones[] restricciones;
+        private final int[][] caminos;
+        private final int costo;
+
+        private NodoCBS(Restricciones[] restricciones, int[][] caminos) {
+            this.restricciones = restricciones;
+            this.caminos = caminos;
+            int suma = 0;
+            for (int[] camino : caminos) {
+                suma += camino.length - 1;
+            }
+            this.costo = suma;
+        }
+    }
+
+    /**
+     * @param grafo Grafo sobre el que se mueven los robots
+     * @param horizonte Cantidad máxima de ciclos de cada camino
+     * @param presupuestoMillis Tiempo máximo de una resolución
+     */
+    public SolucionadorCBS(GrafoCompacto grafo, int horizonte, long presupuestoMillis) {
+        if (horizonte <= 0 || presupuestoMillis <= 0) {
+            throw new IllegalArgumentException("El horizonte y el presupuesto de CBS deben ser positivos");
+        }
+        this.grafo = grafo;
+        this.horizonte = horizonte;
+        this.presupuestoNanos = presupuestoMillis * 1_000_000L;
+    }
+
+    /**
+     * Busca caminos sin conflictos para un grupo de robots.
+     *
+     * @param origenes Celda actual de cada robot
+     * @param campos Campo de distancias hacia el destino de cada robot
+     * @param obstaculo Celdas ocupadas por algo que no forma parte del grupo
+     * @return Camino de cada robot (celda por ciclo, empezando en su origen y terminando en un
+     *         objetivo), o null si no hay solución dentro del horizonte o se agotó el presupuesto
+     */
+    public int[][] resolver(int[] origenes, CampoDistancias[] campos, IntPredicate obstaculo) {
+        limiteNanos = System.nanoTime() + presupuestoNanos;
+        nodosGenerados = 0;
+        int cantidad = origenes.length;
+
+        Restricciones[] iniciales = new Restricciones[cantidad];
+        int[][] caminos = new int[cantidad][];
+        for (int i = 0; i < cantidad; i++) {
+            iniciales[i] = new Restricciones();
+            caminos[i] = buscarCamino(origenes[i], campos[i], obstaculo, iniciales[i]);
+            if (caminos[i] == null) {
+                return null;
+            }
+        }
+
+        PriorityQueue<NodoCBS> abiertos = new PriorityQueue<>((a, b) -> Integer.compare(a.costo, b.costo));
+        abiertos.add(new NodoCBS(iniciales, caminos));
+        while (!abiertos.isEmpty()) {
+            if (System.nanoTime() > limiteNanos) {
+                return null;
+            }
+            NodoCBS nodo = abiertos.poll();
+            int[] conflicto = buscarConflicto(nodo.caminos);
+            if (conflicto == null) {
+                return nodo.caminos;
+            }
+            // conflicto = { robotA, robotB, ciclo, celdaA, celdaB, esArista }
+            for (int lado = 0; lado < 2; lado++) {
+                int robot = conflicto[lado];
+                Restricciones[] restricciones = nodo.restricciones.clone();
+                restricciones[robot] = restricciones[robot].copiar();
+                int ciclo = conflicto[2];
+                if (conflicto[5] == 1) {
+                    // Prohibir que el robot cruce la arista en el sentido en que la cruzaba
+                    int desde = lado == 0 ? conflicto[3] : conflicto[4];
+                    int hacia = lado == 0 ? conflicto[4] : conflicto[3];
+                    restricciones[robot].aristas.add(claveArista(desde, hacia, ciclo));
+                } else {
+                    restricciones[robot].celdas.add(claveCelda(conflicto[3], ciclo));
+                }
+                restricciones[robot].ultimoCiclo = Math.max(restricciones[robot].ultimoCiclo, ciclo);
+
+                int[] camino = buscarCamino(origenes[robot], campos[robot], obstaculo, restricciones[robot]);
+                if (camino == null) {
+                    if (System.nanoTime() > limiteNanos) {
+                        return null;
+                    }
+                    continue;
+                }
+                int[][] hijos = nodo.caminos.clone();
+                hijos[robot] = camino;
+                abiertos.add(new NodoCBS(restricciones, hijos));
+                nodosGenerados++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return { robotA, robotB, ciclo, celda(s), esArista } del primer conflicto, o null si no hay
+     */
+    private int[] buscarConflicto(int[][] caminos) {
+        int ultimoCiclo = 0;
+        for (int[] camino : caminos) {
+            ultimoCiclo = Math.max(ultimoCiclo, camino.length - 1);
+        }
+        for (int ciclo = 1; ciclo <= ultimoCiclo; ciclo++) {
+            for (int a = 0; a < caminos.length; a++) {
+                for (int b = a + 1; b < caminos.length; b++) {
+                    int celdaA = posicion(caminos[a], ciclo);
+                    int celdaB = posicion(caminos[b], ciclo);
+                    if (celdaA == celdaB) {
+                        return new int[] { a, b, ciclo, celdaA, celdaB, 0 };
+                    }
+                    int anteriorA = posicion(caminos[a], ciclo - 1);
+                    int anteriorB = posicion(caminos[b], ciclo - 1);
+                    if (anteriorA == celdaB && anteriorB == celdaA) {
+                        return new int[] { a, b, ciclo, anteriorA, celdaA, 1 };
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Los robots se quedan en la última celda de su camino.
+     */
+    private static int posicion(int[] camino, int ciclo) {
+        return camino[Math.min(ciclo, camino.length - 1)];
+    }
+
+    /**
+     * A* en espacio-tiempo hasta un objetivo donde el robot pueda quedarse sin violar
+     * ninguna prohibición posterior.
+     */
+    private int[] buscarCamino(int origen, CampoDistancias campo, IntPredicate obstaculo, Restricciones restricciones) {
+        int cantidadCeldas = grafo.getCantidadCeldas();
+        Map<Long, Integer> costos = new HashMap<>();
+        Map<Long, Long> predecesores = new HashMap<>();
+        PriorityQueue<long[]> abiertos = new PriorityQueue<>((a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[2], a[2]));
+
+        long inicio = origen; // ciclo 0
+        costos.put(inicio, 0);
+        abiertos.add(new long[] { inicio, heuristica(origen, campo), 0 });
+        int revisados = 0;
+        while (!abiertos.isEmpty()) {
+            if ((++revisados & 0xFF) == 0 && System.nanoTime() > limiteNanos) {
+                return null;
+            }
+            long[] entrada = abiertos.poll();
+            long estado = entrada[0];
+            int costo = (int) entrada[2];
+            if (costos.get(estado) != costo) {
+                continue; // Entrada vieja de la cola
+            }
+            int celda = (int) (estado % cantidadCeldas);
+            int ciclo = (int) (estado / cantidadCeldas);
+            if (campo.getPasos(celda) == 0 && puedeQuedarse(celda, ciclo, restricciones)) {
+                return reconstruir(estado, predecesores, cantidadCeldas);
+            }
+            if (ciclo == horizonte) {
+                continue;
+            }
+            // Esperar o moverse a una vecina
+            intentar(celda, celda, ciclo, costo, estado, origen, campo, obstaculo, restricciones, costos, predecesores, abiertos);
+            for (int arista = grafo.inicioAristas(celda), fin = grafo.finAristas(celda); arista < fin; arista++) {
+                intentar(celda, grafo.destino(arista), ciclo, costo, estado, origen, campo, obstaculo, restricciones, costos, predecesores, abiertos);
+            }
+        }
+        return null;
+    }
+
+    private void intentar(int celda, int vecina, int ciclo, int costo, long estado, int origen, CampoDistancias campo,
+                          IntPredicate obstaculo, Restricciones restricciones,
+                          Map<Long, Integer> costos, Map<Long, Long> predecesores, PriorityQueue<long[]> abiertos) {
+        if (vecina != origen && (campo.getPasos(vecina) < 0 || obstaculo.test(vecina))) {
+            return;
+        }
+        int siguienteCiclo = ciclo + 1;
+        if (restricciones.celdas.contains(claveCelda(vecina, siguienteCiclo))
+                || restricciones.aristas.contains(claveArista(celda, vecina, siguienteCiclo))) {
+            return;
+        }
+        long siguiente = (long) siguienteCiclo * grafo.getCantidadCeldas() + vecina;
+        int nuevoCosto = costo + 1;
+        Integer anterior = costos.get(siguiente);
+        if (anterior == null || nuevoCosto < anterior) {
+            costos.put(siguiente, nuevoCosto);
+            predecesores.put(siguiente, estado);
+            abiertos.add(new long[] { siguiente, nuevoCosto + heuristica(vecina, campo), nuevoCosto });
+        }
+    }
+
+    private boolean puedeQuedarse(int celda, int ciclo, Restricciones restricciones) {
+        for (int posterior = ciclo + 1; posterior <= restricciones.ultimoCiclo; posterior++) {
+            if (restricciones.celdas.contains(claveCelda(celda, posterior))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long heuristica(int celda, CampoDistancias campo) {
+        return Math.max(0, campo.getPasos(celda));
+    }
+
+    private int[] reconstruir(long estado, Map<Long, Long> predecesores, int cantidadCeldas) {
+        List<Integer> celdas = new ArrayList<>();
+        for (Long actual = estado; actual != null; actual = predecesores.get(actual)) {
+            celdas.add((int) (actual % cantidadCeldas));
+        }
+        int[] camino = new int[celdas.size()];
+        for (int i = 0; i < camino.length; i++) {
+            camino[i] = celdas.get(camino.length - 1 - i);
+        }
+        return camino;
+    }
+
+    private long claveCelda(int celda, int ciclo) {
+        return (long) ciclo * grafo.getCantidadCeldas() + celda;
+    }
+
+    private long claveArista(int desde, int hacia, int ciclo) {
+        long cantidadCeldas = grafo.getCantidadCeldas();
+        return ((long) ciclo * cantidadCeldas + desde) * cantidadCeldas + hacia;
+    }
+
+    /**
+     * @return nodos del árbol de conflictos generados en la última resolución
+     */
+    public int getNodosGenerados() {
+        return nodosGenerados;
+    }
+}
@@ -0,0 +1,93 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Subasta de tareas entre postores. Cada postor arma sus ofertas por su cuenta (solo sus
+ * tareas más baratas, así que el volumen de ofertas crece con la cantidad de postores y no
+ * con postores x tareas) y el subastador las adjudica de la más barata a la más cara,
+ * saltando las de postores o tareas ya adjudicados. El resultado no depende del orden en que
+ * llegan las ofertas: los empates se resuelven por tarea y luego por postor.
+ */
+public final class Subasta {
+
+    private Subasta() {
+    }
+
+    /**
+     * Oferta de un postor por una tarea.
+     */
+    public static final class Oferta {
+        private final int postor;
+        private final int tarea;
+        private final double costo;
+
+        public Oferta(int postor, int tarea, double costo) {
+            this.postor = postor;
+            this.tarea = tarea;
+            this.costo = costo;
+        }
+
+        public int getPostor() {
+            return postor;
+        }
+
+        public int getTarea() {
+            return tarea;
+        }
+
+        public double getCosto() {
+            return costo;
+        }
+    }
+
+    private static final Comparator<Oferta> ORDEN_ADJUDICACION = Comparator.comparingDouble(Oferta::getCosto)
+            .thenComparingInt(Oferta::getTarea)
+            .thenComparingInt(Oferta::getPostor);
+
+    /**
+     * Arma las ofertas de un postor: sus tareas de menor costo, descartando las de costo infinito.
+     *
+     * @param costos Costo del postor para cada tarea
+     * @param maximo Cantidad máxima de ofertas
+     */
+    public static List<Oferta> ofertar(int postor, double[] costos, int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("La cantidad máxima de ofertas debe ser positiva");
+        }
+        List<Oferta> ofertas = new ArrayList<>();
+        for (int tarea = 0; tarea < costos.length; tarea++) {
+            if (costos[tarea] != Double.POSITIVE_INFINITY) {
+                ofertas.add(new Oferta(postor, tarea, costos[tarea]));
+            }
+        }
+        ofertas.sort(ORDEN_ADJUDICACION);
+        return ofertas.size() > maximo ? new ArrayList<>(ofertas.subList(0, maximo)) : ofertas;
+    }
+
+    /**
+     * Adjudica cada tarea como mucho a un postor y cada postor como mucho a una tarea.
+     *
+     * @param ofertas Ofertas de todos los postores
+     * @param cantidadTareas Cantidad de tareas subastadas
+     * @return Postor ganador de cada tarea, o -1 si nadie la ganó
+     */
+    public static int[] adjudicar(List<Oferta> ofertas, int cantidadTareas) {
+        int[] ganadores = new int[cantidadTareas];
+        Arrays.fill(ganadores, -1);
+        List<Oferta> ordenadas = new ArrayList<>(ofertas);
+        ordenadas.sort(ORDEN_ADJUDICACION);
+        BitSet adjudicados = new BitSet();
+        for (Oferta oferta : ordenadas) {
+            if (ganadores[oferta.tarea] == -1 && !adjudicados.get(oferta.postor)) {
+                ganadores[oferta.tarea] = oferta.postor;
+                adjudicados.set(oferta.postor);
+            }
+        }
+        return ganadores;
+    }
+}
@@ -0,0 +1,167 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de reservas espacio-temporal: registra qué robot ocupará cada celda en cada ciclo
+ * futuro, contado desde el momento de la planificación. Dos recorridos solo chocan si usan la
+ * misma celda en el mismo ciclo o si dos robots intercambian celdas entre ciclos consecutivos;
+ * pasar por la misma celda en ciclos distintos no es un conflicto. Un recorrido que choca
+ * puede salir con unos ciclos de demora, esperando en su celda inicial.
+ * Cada consulta y cada reserva cuestan O(1) por celda del recorrido. Solo se reservan los
+ * ciclos dentro del horizonte: más allá, la estimación de tiempos ya no es confiable.
+ */
+public class TablaReservas {
+    private final int cantidadCeldas;
+    private final int horizonte;
+    private final Map<Long, RobotLogistico> reservas = new HashMap<>();
+    private final Map<RobotLogistico, List<Long>> clavesPorRobot = new IdentityHashMap<>();
+
+    /**
+     * @param cantidadCeldas Cantidad de celdas de la grilla
+     * @param horizonte Cantidad de ciclos futuros que se reservan
+     */
+    public TablaReservas(int cantidadCeldas, int horizonte) {
+        if (horizonte <= 0) {
+            throw new IllegalArgumentException("El horizonte de reservas debe ser positivo");
+        }
+        this.cantidadCeldas = cantidadCeldas;
+        this.horizonte = horizonte;
+    }
+
+    private long clave(int celda, int ciclo) {
+        return (long) ciclo * cantidadCeldas + celda;
+    }
+
+    /**
+     * @return robot que reservó la celda en el ciclo, o null si está libre
+     */
+    public RobotLogistico getReserva(int celda, int ciclo) {
+        return reservas.get(clave(celda, ciclo));
+    }
+
+    /**
+     * Verifica si un recorrido choca con las reservas de otros robots. La posición i del
+     * recorrido es la celda que el robot ocupa en el ciclo i; el ciclo 0 es su posición actual
+     * y no se verifica, porque los robots ya están donde están.
+     *
+     * @param robot Robot que haría el recorrido
+     * @param recorrido Celda ocupada en cada ciclo
+     * @return true si hay un conflicto con otro robot
+     */
+    public boolean hayConflicto(RobotLogistico robot, int[] recorrido) {
+        return hayConflicto(robot, 0, recorrido, 0);
+    }
+
+    /**
+     * Busca la menor demora de salida con la que el recorrido no choca con otros robots.
+     *
+     * @return Ciclos que el robot espera en su celda inicial, o -1 si choca con cualquier demora permitida
+     */
+    public int buscarDemora(RobotLogistico robot, int[] recorrido, int demoraMaxima) {
+        return buscarDemoraDesde(robot, 0, recorrido, demoraMaxima);
+    }
+
+    /**
+     * Como {@link #buscarDemora}, para un recorrido que empieza en un ciclo dado, contra
+     * reservas hechas con {@link #reservarDesde}.
+     */
+    public int buscarDemoraDesde(RobotLogistico robot, int cicloInicial, int[] recorrido, int demoraMaxima) {
+        for (int demora = 0; demora <= demoraMaxima; demora++) {
+            if (!hayConflicto(robot, cicloInicial, recorrido, demora)) {
+                return demora;
+            }
+        }
+        return -1;
+    }
+
+    private boolean hayConflicto(RobotLogistico robot, int cicloInicial, int[] recorrido, int demora) {
+        int ultimoCiclo = Math.min(recorrido.length - 1 + demora, horizonte);
+        for (int ciclo = 1; ciclo <= ultimoCiclo; ciclo++) {
+            int celda = celdaEnCiclo(recorrido, demora, ciclo);
+            RobotLogistico otro = getReserva(celda, cicloInicial + ciclo);
+            if (otro != null && otro != robot) {
+                return true;
+            }
+            // Intercambio: el otro robot viene en sentido contrario por la misma arista
+            int celdaAnterior = celdaEnCiclo(recorrido, demora, ciclo - 1);
+            RobotLogistico enSentidoContrario = getReserva(celdaAnterior, cicloInicial + ciclo);
+            if (celdaAnterior != celda && enSentidoContrario != null && enSentidoContrario != robot
+                    && getReserva(celda, cicloInicial + ciclo - 1) == enSentidoContrario) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int celdaEnCiclo(int[] recorrido, int demora, int ciclo) {
+        return recorrido[Math.max(0, ciclo - demora)];
+    }
+
+    /**
+     * Reserva las celdas de un recorrido para el robot, reemplazando sus reservas anteriores.
+     */
+    public void reservar(RobotLogistico robot, int[] recorrido) {
+        reservar(robot, recorrido, 0);
+    }
+
+    /**
+     * Reserva un recorrido que sale con demora: el robot ocupa su celda inicial durante los
+     * primeros ciclos.
+     */
+    public void reservar(RobotLogistico robot, int[] recorrido, int demora) {
+        reservarDesde(robot, 0, recorrido, demora, Math.min(recorrido.length - 1 + demora, horizonte));
+    }
+
+    /**
+     * Reserva un recorrido que empieza en un ciclo dado, para quien lleva el tiempo absoluto de
+     * la simulación. Tras la última celda del recorrido, el robot la sigue ocupando hasta el
+     * ciclo final inclusive. Reemplaza las reservas anteriores del robot.
+     */
+    public void reservarDesde(RobotLogistico robot, int cicloInicial, int[] recorrido, int cicloFinal) {
+        reservarDesde(robot, cicloInicial, recorrido, 0, cicloFinal);
+    }
+
+    /**
+     * Como {@link #reservarDesde(RobotLogistico, int, int[], int)}, para un recorrido que sale
+     * con demora: el robot ocupa su celda inicial durante los primeros ciclos.
+     */
+    public void reservarDesde(RobotLogistico robot, int cicloInicial, int[] recorrido, int demora, int cicloFinal) {
+        liberar(robot);
+        List<Long> claves = new ArrayList<>();
+        for (int ciclo = cicloInicial; ciclo <= cicloFinal; ciclo++) {
+            long clave = clave(recorrido[Math.min(Math.max(0, ciclo - cicloInicial - demora), recorrido.length - 1)], ciclo);
+            if (reservas.putIfAbsent(clave, robot) == null) {
+                claves.add(clave);
+            }
+        }
+        clavesPorRobot.put(robot, claves);
+    }
+
+    /**
+     * Libera todas las reservas del robot.
+     */
+    public void liberar(RobotLogistico robot) {
+        List<Long> claves = clavesPorRobot.remove(robot);
+        if (claves != null) {
+            for (Long clave : claves) {
+                reservas.remove(clave);
+            }
+        }
+    }
+
+    public void limpiar() {
+        reservas.clear();
+        clavesPorRobot.clear();
+    }
+
+    public int getCantidadReservas() {
+        return reservas.size();
+    }
+}
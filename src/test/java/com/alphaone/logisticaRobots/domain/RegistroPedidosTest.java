@@ -0,0 +1,104 @@
+package com.alphaone.logisticaRobots.domain;
+
+import com.alphaone.logisticaRobots.domain.pathfinding.Punto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el registro mantenga las colas y los contadores al día cuando los pedidos
+ * cambian de estado, que los devuelva en el orden en que los asigna el planificador y que
+ * incorpore los pedidos agregados directamente a la lista.
+ */
+public class RegistroPedidosTest {
+    private final Item item = new Item("TestItem", "TestItem");
+    private final CofreLogistico origen = new CofreLogistico("C1", new Punto(2, 2), 10);
+    private final CofreLogistico destino = new CofreLogistico("C2", new Punto(5, 5), 10);
+
+    private Pedido pedido(Pedido.PrioridadPedido prioridad) {
+        return new Pedido(item, 1, origen, destino, prioridad);
+    }
+
+    @Test
+    void testColasYContadoresSiguenLosCambiosDeEstado() {
+        Pedido media = pedido(Pedido.PrioridadPedido.MEDIA);
+        Pedido alta = pedido(Pedido.PrioridadPedido.ALTA);
+        Pedido baja = pedido(Pedido.PrioridadPedido.BAJA);
+        RegistroPedidos registro = new RegistroPedidos(new ArrayList<>(List.of(media, alta, baja)));
+
+        assertEquals(3, registro.getCantidad(Pedido.EstadoPedido.NUEVO));
+        assertTrue(registro.hayPendientes());
+
+        alta.marcarEnProceso();
+        assertEquals(List.of(baja, media), registro.getPedidos(Pedido.EstadoPedido.NUEVO));
+        assertEquals(1, registro.getCantidad(Pedido.EstadoPedido.EN_PROCESO));
+
+        alta.marcarCompletado();
+        media.marcarFallido();
+        baja.marcarFallido();
+        assertTrue(registro.getPedidos(Pedido.EstadoPedido.NUEVO).isEmpty());
+        assertFalse(registro.hayPendientes());
+        assertEquals(1, registro.getCantidad(Pedido.EstadoPedido.COMPLETADO));
+        assertEquals(List.of(baja, media), registro.getPedidos(Pedido.EstadoPedido.FALLIDO));
+        assertEquals(List.of(media, alta, baja), registro.getPedidos());
+    }
+
+    @Test
+    void testOrdenEntrePrioridadesEsElDelPlanificador() {
+        // De mayor a menor ordinal y, con la misma prioridad, en el orden en que se registraron
+        Pedido alta = pedido(Pedido.PrioridadPedido.ALTA);
+        Pedido noAplica = pedido(Pedido.PrioridadPedido.NO_APLICA);
+        Pedido media = pedido(Pedido.PrioridadPedido.MEDIA);
+        Pedido baja = pedido(Pedido.PrioridadPedido.BAJA);
+        Pedido otraMedia = pedido(Pedido.PrioridadPedido.MEDIA);
+        Pedido sinPrioridad = pedido(null);
+        RegistroPedidos registro = new RegistroPedidos(new ArrayList<>(List.of(alta, noAplica, media, baja, otraMedia, sinPrioridad)));
+
+        assertEquals(List.of(noAplica, sinPrioridad, baja, media, otraMedia, alta), registro.getPedidos(Pedido.EstadoPedido.NUEVO));
+    }
+
+    @Test
+    void testSiguienteNuevoSigueElMismoOrden() {
+        Pedido alta = pedido(Pedido.PrioridadPedido.ALTA);
+        Pedido media = pedido(Pedido.PrioridadPedido.MEDIA);
+        Pedido noAplica = pedido(Pedido.PrioridadPedido.NO_APLICA);
+        Pedido otraMedia = pedido(Pedido.PrioridadPedido.MEDIA);
+        RegistroPedidos registro = new RegistroPedidos(new ArrayList<>(List.of(alta, media, noAplica, otraMedia)));
+
+        // Asignar o fallar cada pedido lo saca de NUEVO y deja el siguiente al frente
+        List<Pedido> recorridos = new ArrayList<>();
+        for (Pedido pedido = registro.siguienteNuevo(); pedido != null; pedido = registro.siguienteNuevo()) {
+            recorridos.add(pedido);
+            if (recorridos.size() % 2 == 0) {
+                pedido.marcarFallido();
+            } else {
+                pedido.marcarEnProceso();
+            }
+        }
+        assertEquals(List.of(noAplica, media, otraMedia, alta), recorridos);
+
+        // Un pedido agregado directamente a la lista también aparece
+        Pedido agregado = pedido(Pedido.PrioridadPedido.BAJA);
+        registro.getPedidos().add(agregado);
+        assertSame(agregado, registro.siguienteNuevo());
+    }
+
+    @Test
+    void testIncorporaPedidosAgregadosALaLista() {
+        List<Pedido> lista = new ArrayList<>();
+        RegistroPedidos registro = new RegistroPedidos(lista);
+        Pedido primero = pedido(Pedido.PrioridadPedido.BAJA);
+        registro.agregar(primero);
+        Pedido segundo = pedido(Pedido.PrioridadPedido.BAJA);
+        lista.add(segundo);
+
+        assertEquals(List.of(primero, segundo), registro.getPedidos(Pedido.EstadoPedido.NUEVO, Pedido.PrioridadPedido.BAJA));
+        segundo.marcarEnProceso();
+        assertEquals(1, registro.getCantidad(Pedido.EstadoPedido.NUEVO));
+
+        assertThrows(IllegalStateException.class, () -> new RegistroPedidos(new ArrayList<>(List.of(primero))));
+    }
+}
@@ -0,0 +1,50 @@
+package com.alphaone.logisticaRobots.domain;
+
+import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisionActiva;
+import com.alphaone.logisticaRobots.domain.pathfinding.GrillaEspacial;
+import com.alphaone.logisticaRobots.domain.pathfinding.Punto;
+import com.alphaone.logisticaRobots.infrastructure.logging.LoggerMovimientosRobots;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que un robot espere en su celda hasta el ciclo de salida que le reservó el
+ * planificador y recién entonces empiece el pedido.
+ */
+public class RobotLogisticoDemoraSalidaTest {
+
+    @Test
+    void testEsperaHastaElCicloDeSalida() {
+        LoggerMovimientosRobots.getInstancia("test");
+        Item item = new Item("TestItem", "TestItem");
+        Robopuerto base = new Robopuerto("RP1", new Punto(0, 1), 30.0, 5);
+        CofreLogistico origen = new CofreLogistico("C1", new Punto(6, 1), 10);
+        CofreLogistico destino = new CofreLogistico("C2", new Punto(9, 1), 10);
+        origen.getInventario().agregar(item, 5);
+        origen.setComportamiento(item, new ComportamientoProvisionActiva());
+        RobotLogistico robot = new RobotLogistico(1, new Punto(1, 1), base, 100, 10);
+
+        Set<RobotLogistico> robots = new HashSet<>(List.of(robot));
+        RedLogistica red = new RedLogistica(new HashSet<>(List.of(base)), new GrillaEspacial(new Punto(0, 0), 12, 3),
+                new HashSet<>(List.of(origen, destino)), robots, new ArrayList<>());
+        Pedido pedido = new Pedido(item, 1, origen, destino, Pedido.PrioridadPedido.ALTA);
+        robot.agregarPedido(pedido, null, 3);
+
+        // Toma el pedido en el ciclo 0 y espera en su celda hasta el ciclo 3
+        for (int ciclo = 0; ciclo < 3; ciclo++) {
+            red.simularCiclo(ciclo);
+            assertEquals(new Punto(1, 1), robot.getPosicion(), "Ciclo " + ciclo);
+        }
+        assertEquals(EstadoRobot.EN_MISION, robot.getEstado());
+        assertEquals(100, robot.getBateriaActual(), "Esperar no consume batería");
+
+        red.simularCiclo(3);
+        assertNotEquals(new Punto(1, 1), robot.getPosicion(), "En el ciclo de salida da su primer paso");
+    }
+}
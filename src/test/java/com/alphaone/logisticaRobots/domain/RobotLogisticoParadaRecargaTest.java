@@ -0,0 +1,85 @@
+package com.alphaone.logisticaRobots.domain;
+
+import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisionActiva;
+import com.alphaone.logisticaRobots.domain.pathfinding.GrillaEspacial;
+import com.alphaone.logisticaRobots.domain.pathfinding.Punto;
+import com.alphaone.logisticaRobots.infrastructure.logging.LoggerMovimientosRobots;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que un robot sin batería suficiente para el pedido se desvíe a recargar en el
+ * tramo planificado (antes o después de cargar los ítems), espere PASIVO hasta completar la
+ * batería y después entregue el pedido.
+ */
+public class RobotLogisticoParadaRecargaTest {
+    private static final int MAXIMO_CICLOS = 100;
+
+    private final Item item = new Item("TestItem", "TestItem");
+    private final Robopuerto base = new Robopuerto("RP1", new Punto(0, 1), 30.0, 5);
+    private final CofreLogistico origen = new CofreLogistico("C1", new Punto(9, 1), 10);
+    private final CofreLogistico destino = new CofreLogistico("C2", new Punto(17, 1), 10);
+
+    @BeforeEach
+    void setUp() {
+        LoggerMovimientosRobots.getInstancia("test");
+        origen.getInventario().agregar(item, 5);
+        origen.setComportamiento(item, new ComportamientoProvisionActiva());
+    }
+
+    /**
+     * Corre la simulación hasta que el pedido termina y devuelve si el robot estuvo PASIVO en
+     * la parada con o sin los ítems cargados.
+     */
+    private boolean[] simular(RobotLogistico robot, Robopuerto parada, Pedido pedido) {
+        Set<Robopuerto> robopuertos = new HashSet<>(List.of(base, parada));
+        Set<CofreLogistico> cofres = new HashSet<>(List.of(origen, destino));
+        Set<RobotLogistico> robots = new HashSet<>(List.of(robot));
+        RedLogistica red = new RedLogistica(robopuertos, new GrillaEspacial(new Punto(0, 0), 20, 3), cofres, robots,
+                new ArrayList<>(List.of(pedido)));
+
+        boolean[] recargo = new boolean[2]; // [sin carga, con carga]
+        for (int ciclo = 0; ciclo < MAXIMO_CICLOS && !pedido.estaCompletado() && !pedido.estaFallido(); ciclo++) {
+            red.simularCiclo(ciclo);
+            if (robot.getEstado() == EstadoRobot.PASIVO && robot.getPosicion().equals(parada.getPosicion())) {
+                recargo[robot.getCargaActual().containsKey(item) ? 1 : 0] = true;
+            }
+        }
+        assertTrue(pedido.estaCompletado(), "El pedido debe completarse después de recargar");
+        assertEquals(1, destino.getInventario().getCantidad(item));
+        return recargo;
+    }
+
+    @Test
+    void testSeDetieneARecargarAntesDeCargar() {
+        // No llega al origen sin bajar de la reserva, pero sí al robopuerto que está en el camino
+        Robopuerto parada = new Robopuerto("RP2", new Punto(4, 1), 30.0, 5);
+        RobotLogistico robot = new RobotLogistico(1, new Punto(1, 1), base, 60, 10);
+        robot.consumirBateria(40);
+        Pedido pedido = new Pedido(item, 1, origen, destino, Pedido.PrioridadPedido.ALTA);
+
+        boolean[] recargo = simular(robot, parada, pedido);
+        assertTrue(recargo[0], "Debe recargar antes de cargar los ítems");
+        assertFalse(recargo[1]);
+    }
+
+    @Test
+    void testSeDetieneARecargarDespuesDeCargar() {
+        // Llega al origen pero no le alcanza para el destino: recarga ya cargado, a mitad de camino
+        Robopuerto parada = new Robopuerto("RP2", new Punto(12, 1), 30.0, 5);
+        RobotLogistico robot = new RobotLogistico(1, new Punto(6, 1), base, 60, 10);
+        robot.consumirBateria(30);
+        Pedido pedido = new Pedido(item, 1, origen, destino, Pedido.PrioridadPedido.ALTA);
+
+        boolean[] recargo = simular(robot, parada, pedido);
+        assertFalse(recargo[0]);
+        assertTrue(recargo[1], "Debe recargar después de cargar los ítems");
+    }
+}
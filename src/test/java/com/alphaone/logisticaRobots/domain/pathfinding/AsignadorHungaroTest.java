@@ -0,0 +1,76 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el método húngaro encuentre la asignación de costo mínimo comparándolo con
+ * probar todas las permutaciones, también con matrices rectangulares y pares prohibidos.
+ */
+class AsignadorHungaroTest {
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    void testCoincideConFuerzaBruta() {
+        Random random = new Random(11);
+        for (int prueba = 0; prueba < 200; prueba++) {
+            int filas = 1 + random.nextInt(5);
+            int columnas = 1 + random.nextInt(5);
+            double[][] costos = new double[filas][columnas];
+            for (int i = 0; i < filas; i++) {
+                for (int j = 0; j < columnas; j++) {
+                    costos[i][j] = random.nextInt(8) == 0 ? INF : random.nextInt(50);
+                }
+            }
+            int[] asignacion = AsignadorHungaro.resolver(costos);
+
+            boolean[] usadas = new boolean[columnas];
+            int pares = 0;
+            double total = 0.0;
+            for (int i = 0; i < filas; i++) {
+                if (asignacion[i] != -1) {
+                    assertFalse(usadas[asignacion[i]], "Columna asignada dos veces");
+                    assertNotEquals(INF, costos[i][asignacion[i]]);
+                    usadas[asignacion[i]] = true;
+                    pares++;
+                    total += costos[i][asignacion[i]];
+                }
+            }
+            double[] mejor = mejorAsignacion(costos, 0, new boolean[columnas]);
+            assertEquals(mejor[0], pares, "Cantidad de pares en la prueba " + prueba);
+            assertEquals(mejor[1], total, 1e-9, "Costo total en la prueba " + prueba);
+        }
+    }
+
+    @Test
+    void testMatrizVacia() {
+        assertEquals(0, AsignadorHungaro.resolver(new double[0][0]).length);
+        assertArrayEquals(new int[] { -1, -1 }, AsignadorHungaro.resolver(new double[2][0]));
+    }
+
+    /**
+     * @return {máxima cantidad de pares permitidos, menor costo con esa cantidad}
+     */
+    private double[] mejorAsignacion(double[][] costos, int fila, boolean[] usadas) {
+        if (fila == costos.length) {
+            return new double[] { 0, 0.0 };
+        }
+        double[] mejor = mejorAsignacion(costos, fila + 1, usadas); // La fila queda sin asignar
+        for (int j = 0; j < usadas.length; j++) {
+            if (!usadas[j] && costos[fila][j] != INF) {
+                usadas[j] = true;
+                double[] resto = mejorAsignacion(costos, fila + 1, usadas);
+                usadas[j] = false;
+                double pares = resto[0] + 1;
+                double total = resto[1] + costos[fila][j];
+                if (pares > mejor[0] || (pares == mejor[0] && total < mejor[1])) {
+                    mejor = new double[] { pares, total };
+                }
+            }
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,81 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara Jump Point Search con Dijkstra: sobre grillas con obstáculos al azar ambos deben
+ * encontrar caminos del mismo costo, y en un piso abierto JPS debe expandir menos nodos.
+ */
+class BuscadorJPSTest {
+
+    private static final int ANCHO = 30;
+    private static final int ALTO = 20;
+
+    private GrafoCompacto grillaConObstaculos(long semilla, double densidad) {
+        Random random = new Random(semilla);
+        boolean[] bloqueadas = new boolean[ANCHO * ALTO];
+        for (int celda = 0; celda < bloqueadas.length; celda++) {
+            bloqueadas[celda] = random.nextDouble() < densidad;
+        }
+        GrillaEspacial grilla = new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO);
+        return GrafoCompacto.desdeGrilla(grilla, celda -> !bloqueadas[celda], 2.0);
+    }
+
+    @Test
+    void testMismoCostoQueDijkstra() {
+        for (long semilla = 1; semilla <= 20; semilla++) {
+            GrafoCompacto grafo = grillaConObstaculos(semilla, 0.3);
+            MotorBusqueda dijkstra = new MotorBusqueda(grafo);
+            BuscadorJPS jps = new BuscadorJPS(grafo);
+            Random random = new Random(semilla * 31);
+
+            for (int consulta = 0; consulta < 20; consulta++) {
+                int origen = random.nextInt(grafo.getCantidadCeldas());
+                int[] objetivos = { random.nextInt(grafo.getCantidadCeldas()), random.nextInt(grafo.getCantidadCeldas()) };
+
+                dijkstra.calcularDesde(origen);
+                double esperado = Math.min(dijkstra.getDistancia(objetivos[0]), dijkstra.getDistancia(objetivos[1]));
+
+                int alcanzado = jps.buscarHastaObjetivos(origen, objetivos, 2.0);
+                if (esperado == Double.MAX_VALUE) {
+                    assertEquals(-1, alcanzado, "JPS no debe encontrar un camino inexistente");
+                    continue;
+                }
+                assertEquals(esperado, jps.getDistancia(alcanzado), "Semilla " + semilla + ", consulta " + consulta);
+                verificarCamino(grafo, jps.reconstruirCamino(alcanzado), origen, alcanzado, esperado);
+            }
+        }
+    }
+
+    private void verificarCamino(GrafoCompacto grafo, int[] camino, int origen, int destino, double costo) {
+        assertEquals(origen, camino[0]);
+        assertEquals(destino, camino[camino.length - 1]);
+        assertEquals(costo, (camino.length - 1) * grafo.getPesoPaso());
+        for (int i = 1; i < camino.length; i++) {
+            int distancia = Math.abs(grafo.getX(camino[i]) - grafo.getX(camino[i - 1]))
+                    + Math.abs(grafo.getY(camino[i]) - grafo.getY(camino[i - 1]));
+            assertEquals(1, distancia, "El camino debe avanzar de a una celda ortogonal");
+            assertFalse(grafo.estaBloqueada(camino[i]));
+        }
+    }
+
+    @Test
+    void testExpandeMenosNodosEnPisoAbierto() {
+        GrafoCompacto grafo = grillaConObstaculos(7, 0.0);
+        MotorBusqueda aEstrella = new MotorBusqueda(grafo);
+        BuscadorJPS jps = new BuscadorJPS(grafo);
+        int origen = grafo.indiceDe(0, 0);
+        int[] objetivos = { grafo.indiceDe(ANCHO - 1, ALTO - 1) };
+
+        aEstrella.buscarHastaObjetivos(origen, objetivos, 2.0);
+        jps.buscarHastaObjetivos(origen, objetivos, 2.0);
+
+        assertEquals(aEstrella.getDistancia(objetivos[0]), jps.getDistancia(objetivos[0]));
+        assertTrue(jps.getNodosExpandidos() < aEstrella.getNodosExpandidos(),
+                "JPS expandió " + jps.getNodosExpandidos() + " nodos y A* " + aEstrella.getNodosExpandidos());
+    }
+}
@@ -0,0 +1,134 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el campo de distancias coincida con Dijkstra, que seguirlo (paso a paso o con
+ * el camino completo) lleve al objetivo esquivando celdas ocupadas y que la caché respete su presupuesto de memoria
+ * y construya cada campo una sola vez sin frenar a quienes piden otros.
+ */
+class CampoDistanciasTest {
+
+    private static final int ANCHO = 25;
+    private static final int ALTO = 20;
+
+    @Test
+    void testSeguirElCampoLlegaPorElCaminoMinimo() {
+        Random random = new Random(11);
+        boolean[] fijas = new boolean[ANCHO * ALTO];
+        for (int celda = 0; celda < fijas.length; celda++) {
+            fijas[celda] = random.nextDouble() < 0.2;
+        }
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> !fijas[celda], 1.0);
+        int objetivo = grafo.indiceDe(12, 10);
+        fijas[objetivo] = false;
+        grafo.liberar(objetivo);
+        CampoDistancias campo = new CampoDistancias(grafo, new int[] { objetivo }, celda -> !fijas[celda]);
+
+        MotorBusqueda dijkstra = new MotorBusqueda(grafo);
+        dijkstra.calcularDesde(objetivo);
+        for (int celda = 0; celda < grafo.getCantidadCeldas(); celda++) {
+            if (fijas[celda]) continue;
+            double distancia = dijkstra.getDistancia(celda);
+            assertEquals(distancia == Double.MAX_VALUE ? -1 : (int) distancia, campo.getPasos(celda), "Celda " + celda);
+        }
+
+        for (int origen = 0; origen < grafo.getCantidadCeldas(); origen += 7) {
+            if (campo.getPasos(origen) <= 0) continue;
+            int celda = origen;
+            int pasos = 0;
+            while (celda != objetivo) {
+                celda = campo.siguientePaso(celda);
+                assertNotEquals(-1, celda);
+                pasos++;
+            }
+            assertEquals(campo.getPasos(origen), pasos);
+
+            int[] camino = campo.caminoDesde(origen);
+            assertEquals(pasos + 1, camino.length, "El camino guardado tiene el largo mínimo");
+            assertEquals(objetivo, camino[camino.length - 1]);
+            for (int i = 1; i < camino.length; i++) {
+                assertEquals(campo.getPasos(camino[i - 1]) - 1, campo.getPasos(camino[i]));
+            }
+        }
+    }
+
+    @Test
+    void testEsquivaVecinaOcupadaYDevuelveMenosUnoSiNoHayAlternativa() {
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> true, 1.0);
+        int objetivo = grafo.indiceDe(5, 5);
+        CampoDistancias campo = new CampoDistancias(grafo, new int[] { objetivo }, celda -> true);
+
+        int origen = grafo.indiceDe(3, 3);
+        grafo.bloquear(grafo.indiceDe(4, 3));
+        assertEquals(grafo.indiceDe(3, 4), campo.siguientePaso(origen));
+
+        int enLinea = grafo.indiceDe(5, 3);
+        grafo.bloquear(grafo.indiceDe(5, 4));
+        assertEquals(-1, campo.siguientePaso(enLinea), "La única vecina que acerca está ocupada");
+        assertEquals(objetivo, campo.siguientePaso(objetivo));
+    }
+
+    @Test
+    void testCacheRespetaPresupuesto() {
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> true, 1.0);
+        long tamanioCampo = 4L * grafo.getCantidadCeldas();
+        CacheCamposDistancias cache = new CacheCamposDistancias(2 * tamanioCampo);
+        int[] creados = new int[1];
+
+        CampoDistancias primero = cache.obtener(0, destino -> { creados[0]++; return new CampoDistancias(grafo, new int[] { destino }, c -> true); });
+        cache.obtener(1, destino -> { creados[0]++; return new CampoDistancias(grafo, new int[] { destino }, c -> true); });
+        assertSame(primero, cache.obtener(0, destino -> fail("Debe reutilizar el campo en caché")));
+
+        // El destino 1 es el menos usado y se descarta al superar el presupuesto
+        cache.obtener(2, destino -> { creados[0]++; return new CampoDistancias(grafo, new int[] { destino }, c -> true); });
+        assertEquals(2, cache.getCantidadCampos());
+        assertTrue(cache.getBytesEnUso() <= 2 * tamanioCampo);
+        assertSame(primero, cache.obtener(0, destino -> fail("El destino 0 se usó recientemente")));
+        assertEquals(3, creados[0]);
+
+        cache.invalidar();
+        assertEquals(0, cache.getCantidadCampos());
+    }
+
+    @Test
+    void testCacheConstruyeFueraDelLockYUnaVezPorDestino() throws Exception {
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> true, 1.0);
+        CacheCamposDistancias cache = new CacheCamposDistancias(Long.MAX_VALUE);
+        CountDownLatch construyendo = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+        AtomicInteger creados = new AtomicInteger();
+
+        // Un hilo queda construyendo el destino 0 hasta que se le avise
+        CompletableFuture<CampoDistancias> lento = CompletableFuture.supplyAsync(() -> cache.obtener(0, destino -> {
+            creados.incrementAndGet();
+            construyendo.countDown();
+            try {
+                seguir.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new CampoDistancias(grafo, new int[] { destino }, c -> true);
+        }));
+        assertTrue(construyendo.await(5, TimeUnit.SECONDS));
+        CompletableFuture<CampoDistancias> mismoDestino = CompletableFuture.supplyAsync(
+                () -> cache.obtener(0, destino -> fail("Debe esperar al campo que ya se está construyendo")));
+
+        // Mientras tanto, otro destino se construye sin esperar
+        assertNotNull(cache.obtener(1, destino -> new CampoDistancias(grafo, new int[] { destino }, c -> true)));
+
+        seguir.countDown();
+        CampoDistancias campo = lento.get(5, TimeUnit.SECONDS);
+        assertSame(campo, mismoDestino.get(5, TimeUnit.SECONDS));
+        assertEquals(1, creados.get());
+        assertEquals(2, cache.getCantidadCampos());
+    }
+}
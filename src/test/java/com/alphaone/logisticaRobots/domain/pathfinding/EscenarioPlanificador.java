@@ -0,0 +1,96 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Item;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RegistroPedidos;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisionActiva;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Red de prueba para los tests del planificador: una grilla con un robopuerto que la cubre
+ * entera, cofres, robots y pedidos de un mismo ítem. Armar dos veces el mismo escenario da
+ * dos redes independientes con el mismo contenido, para comparar modos del planificador.
+ */
+final class EscenarioPlanificador {
+    final Item item = new Item("TestItem", "TestItem");
+    final Robopuerto robopuerto;
+    final Set<CofreLogistico> cofres = new LinkedHashSet<>();
+    final Set<RobotLogistico> robots = new LinkedHashSet<>();
+    final List<Pedido> pedidos = new ArrayList<>();
+    private final int ancho;
+    private final int alto;
+
+    EscenarioPlanificador(int ancho, int alto, Punto posicionRobopuerto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        this.robopuerto = new Robopuerto("RP1", posicionRobopuerto, ancho + alto, 5);
+    }
+
+    /**
+     * Cofre que ofrece el ítem, con el stock dado.
+     */
+    CofreLogistico origen(String id, int x, int y, int stock) {
+        return origen(id, x, y, item, stock);
+    }
+
+    /**
+     * Cofre que ofrece otro ítem: el planificador elige el origen por ítem, así que pedidos de
+     * ítems distintos salen de cofres distintos.
+     */
+    CofreLogistico origen(String id, int x, int y, Item itemOfrecido, int stock) {
+        CofreLogistico cofre = cofre(id, x, y);
+        cofre.getInventario().agregar(itemOfrecido, stock);
+        cofre.setComportamiento(itemOfrecido, new ComportamientoProvisionActiva());
+        return cofre;
+    }
+
+    CofreLogistico cofre(String id, int x, int y) {
+        CofreLogistico cofre = new CofreLogistico(id, new Punto(x, y), 10);
+        cofres.add(cofre);
+        return cofre;
+    }
+
+    RobotLogistico robot(int x, int y) {
+        return robot(x, y, 100);
+    }
+
+    RobotLogistico robot(int x, int y, int bateriaMaxima) {
+        RobotLogistico robot = new RobotLogistico(robots.size() + 1, new Punto(x, y), robopuerto, bateriaMaxima, 10);
+        robots.add(robot);
+        return robot;
+    }
+
+    Pedido pedido(CofreLogistico origen, CofreLogistico destino, Pedido.PrioridadPedido prioridad) {
+        return pedido(item, origen, destino, prioridad);
+    }
+
+    Pedido pedido(Item itemPedido, CofreLogistico origen, CofreLogistico destino, Pedido.PrioridadPedido prioridad) {
+        Pedido pedido = new Pedido(itemPedido, 1, origen, destino, prioridad);
+        pedidos.add(pedido);
+        return pedido;
+    }
+
+    Planificador crearPlanificador() {
+        return new Planificador(new LinkedHashSet<>(List.of(robopuerto)), new GrillaEspacial(new Punto(0, 0), ancho, alto),
+                cofres, robots, new RegistroPedidos(pedidos));
+    }
+
+    /**
+     * @return id del robot que tiene el pedido pendiente, o 0 si ninguno
+     */
+    int robotAsignado(Pedido pedido) {
+        for (RobotLogistico robot : robots) {
+            if (robot.getPedidosPendientes().contains(pedido)) {
+                return robot.getId();
+            }
+        }
+        return 0;
+    }
+}
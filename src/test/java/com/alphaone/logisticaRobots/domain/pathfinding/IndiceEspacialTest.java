@@ -0,0 +1,63 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el índice por cubetas devuelva lo mismo que recorrer todos los elementos, tanto
+ * para el más cercano como para los que están dentro de un radio, y que siga al elemento
+ * cuando cambia de posición.
+ */
+class IndiceEspacialTest {
+
+    @Test
+    void testCoincideConRecorrerTodos() {
+        Random random = new Random(17);
+        List<Robopuerto> robopuertos = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            robopuertos.add(new Robopuerto("RP" + i, new Punto(random.nextInt(100) - 20, random.nextInt(60) - 10), 5.0, 1));
+        }
+        IndiceEspacial<Robopuerto> indice = new IndiceEspacial<>(8, robopuertos);
+
+        for (int consulta = 0; consulta < 300; consulta++) {
+            Punto punto = new Punto(random.nextInt(140) - 40, random.nextInt(100) - 30);
+            Robopuerto esperado = null;
+            double distanciaMinima = Double.MAX_VALUE;
+            List<Robopuerto> cercanos = new ArrayList<>();
+            for (Robopuerto robopuerto : robopuertos) {
+                double distancia = robopuerto.getPosicion().distanciaHacia(punto);
+                if (distancia < distanciaMinima) {
+                    distanciaMinima = distancia;
+                    esperado = robopuerto;
+                }
+                if (distancia <= 12.5) {
+                    cercanos.add(robopuerto);
+                }
+            }
+            assertSame(esperado, indice.masCercano(punto), "Punto " + punto);
+            assertEquals(cercanos, indice.getDentroDeRadio(punto, 12.5), "Punto " + punto);
+        }
+    }
+
+    @Test
+    void testSigueAlElementoQueSeMueve() {
+        Robopuerto movil = new Robopuerto("RP1", new Punto(0, 0), 5.0, 1);
+        IndiceEspacial<Robopuerto> indice = new IndiceEspacial<>(4);
+        indice.agregar(movil);
+
+        movil.setPosicion(new Punto(30, 30));
+        indice.actualizar(movil);
+
+        assertTrue(indice.getEn(new Punto(0, 0)).isEmpty());
+        assertTrue(indice.hayEn(new Punto(30, 30)));
+        indice.quitar(movil);
+        assertNull(indice.masCercano(new Punto(30, 30)));
+        assertEquals(0, indice.getCantidad());
+    }
+}
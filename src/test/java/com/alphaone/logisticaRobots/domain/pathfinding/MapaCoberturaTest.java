@@ -0,0 +1,43 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el mapa de cobertura coincida con recorrer los robopuertos, también después de
+ * quitar uno, y que los puntos fuera de la grilla se resuelvan igual.
+ */
+class MapaCoberturaTest {
+
+    @Test
+    void testCoincideConRecorrerLosRobopuertos() {
+        GrillaEspacial grilla = new GrillaEspacial(new Punto(0, 0), 30, 20);
+        Random random = new Random(5);
+        List<Robopuerto> robopuertos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            robopuertos.add(new Robopuerto("RP" + i, new Punto(random.nextInt(30), random.nextInt(20)), 2.5 + random.nextInt(6), 1));
+        }
+        MapaCobertura mapa = new MapaCobertura(grilla, robopuertos);
+        verificar(mapa, robopuertos);
+
+        Robopuerto quitado = robopuertos.remove(1);
+        mapa.quitar(quitado);
+        verificar(mapa, robopuertos);
+    }
+
+    private void verificar(MapaCobertura mapa, List<Robopuerto> robopuertos) {
+        for (int y = -3; y < 23; y++) {
+            for (int x = -3; x < 33; x++) {
+                Punto punto = new Punto(x, y);
+                boolean esperado = robopuertos.stream().anyMatch(robopuerto -> robopuerto.estaEnCobertura(punto));
+                assertEquals(esperado, mapa.estaCubierto(punto), "Punto " + punto);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el motor de búsqueda basado en montículo calcule las distancias correctas
+ * sobre el grafo compacto de una grilla con obstáculos y que pueda reutilizarse entre búsquedas.
+ */
+class MotorBusquedaTest {
+
+    private static final int ANCHO = 5;
+    private static final int ALTO = 5;
+
+    private GrafoCompacto grafo;
+
+    @BeforeEach
+    void setUp() {
+        // Grilla 5x5 con una pared vertical en x=2 salvo en y=4
+        GrillaEspacial grilla = new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO);
+        grafo = GrafoCompacto.desdeGrilla(grilla, celda -> !esPared(celda % ANCHO, celda / ANCHO), 1.0);
+    }
+
+    private boolean esPared(int x, int y) {
+        return x == 2 && y < 4;
+    }
+
+    private int celda(int x, int y) {
+        return grafo.indiceDe(x, y);
+    }
+
+    @Test
+    void testDistanciasRodeandoObstaculo() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        motor.calcularDesde(celda(0, 0));
+
+        assertEquals(0.0, motor.getDistancia(celda(0, 0)));
+        assertEquals(4.0, motor.getDistancia(celda(0, 4)));
+        // Debe rodear la pared por y=4: (0,0)->(0,4)->(4,4)->(4,0)
+        assertEquals(12.0, motor.getDistancia(celda(4, 0)));
+        assertFalse(motor.esAlcanzado(celda(2, 0)), "Las celdas de pared no son alcanzables");
+        assertEquals(-1, motor.getPredecesor(celda(0, 0)));
+    }
+
+    @Test
+    void testReutilizacionEntreBusquedas() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        motor.calcularDesde(celda(0, 0));
+        motor.calcularDesde(celda(4, 0));
+
+        assertEquals(0.0, motor.getDistancia(celda(4, 0)));
+        assertEquals(12.0, motor.getDistancia(celda(0, 0)));
+        assertEquals(4.0, motor.getDistancia(celda(4, 4)));
+    }
+
+    @Test
+    void testCuentaSoloNodosAlcanzables() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        motor.calcularDesde(celda(1, 1));
+
+        int alcanzados = 0;
+        for (int celda = 0; celda < grafo.getCantidadCeldas(); celda++) {
+            if (motor.esAlcanzado(celda)) {
+                alcanzados++;
+            }
+        }
+        // 25 celdas menos las 4 de pared
+        assertEquals(21, alcanzados);
+    }
+
+    @Test
+    void testAEstrellaSeDetieneEnElObjetivoMasCercano() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        int[] objetivos = { celda(4, 0), celda(0, 3) };
+
+        int alcanzado = motor.buscarHastaObjetivos(celda(0, 0), objetivos, 1.0);
+
+        assertEquals(celda(0, 3), alcanzado);
+        assertEquals(3.0, motor.getDistancia(alcanzado));
+        int[] camino = motor.reconstruirCamino(alcanzado);
+        assertEquals(4, camino.length);
+        assertEquals(celda(0, 0), camino[0]);
+        assertTrue(motor.getNodosExpandidos() < 21, "A* no debe expandir toda la grilla");
+    }
+
+    @Test
+    void testBloquearYLiberarCeldaSinReconstruir() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        int[] cambios = new int[1];
+        grafo.registrarObservador((celda, bloqueada) -> cambios[0]++);
+
+        // Cerrar el único paso de la pared deja el lado derecho incomunicado
+        assertTrue(grafo.bloquear(celda(2, 4)));
+        assertFalse(grafo.bloquear(celda(2, 4)), "Bloquear dos veces no es un cambio");
+        motor.calcularDesde(celda(0, 0));
+        assertFalse(motor.esAlcanzado(celda(4, 0)));
+
+        // Al liberarlo vuelve a usarse el camino por y=4
+        assertTrue(grafo.liberar(celda(2, 4)));
+        motor.calcularDesde(celda(0, 0));
+        assertEquals(12.0, motor.getDistancia(celda(4, 0)));
+        assertEquals(2, cambios[0]);
+    }
+
+    @Test
+    void testVariosOrigenesConCostoInicial() {
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        // (0,0) empieza con costo 10 y (4,0) con costo 2: a (0,4) se llega antes desde (4,0)
+        motor.calcularDesdeVarios(new int[] { celda(0, 0), celda(4, 0) }, new double[] { 10.0, 2.0 },
+                new int[] { celda(0, 4), celda(1, 0) });
+
+        assertEquals(10.0, motor.getDistancia(celda(0, 4)));
+        assertEquals(celda(4, 0), motor.getRaiz(celda(0, 4)));
+        assertEquals(11.0, motor.getDistancia(celda(1, 0)));
+        assertEquals(celda(0, 0), motor.getRaiz(celda(1, 0)));
+    }
+}
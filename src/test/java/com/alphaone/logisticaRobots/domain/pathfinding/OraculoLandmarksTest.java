@@ -0,0 +1,71 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las cotas de los landmarks nunca superen la distancia real, aunque se bloqueen
+ * celdas después de construir el oráculo, y que como heurística de A* no cambien los costos.
+ */
+class OraculoLandmarksTest {
+
+    private static final int ANCHO = 40;
+    private static final int ALTO = 30;
+
+    @Test
+    void testCotaAdmisibleConBloqueosPosteriores() {
+        Random random = new Random(5);
+        boolean[] fijas = new boolean[ANCHO * ALTO];
+        for (int celda = 0; celda < fijas.length; celda++) {
+            fijas[celda] = random.nextDouble() < 0.25;
+        }
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> !fijas[celda], 2.0);
+        int[] esquinas = { 0, ANCHO - 1, ANCHO * (ALTO - 1), ANCHO * ALTO - 1 };
+        OraculoLandmarks oraculo = new OraculoLandmarks(grafo, esquinas, celda -> !fijas[celda], 8);
+
+        // Obstáculos móviles que el oráculo no conoce
+        for (int i = 0; i < 100; i++) {
+            grafo.bloquear(random.nextInt(grafo.getCantidadCeldas()));
+        }
+        MotorBusqueda dijkstra = new MotorBusqueda(grafo);
+        for (int consulta = 0; consulta < 100; consulta++) {
+            int origen = random.nextInt(grafo.getCantidadCeldas());
+            int destino = random.nextInt(grafo.getCantidadCeldas());
+            if (fijas[origen] || fijas[destino]) {
+                continue;
+            }
+            dijkstra.calcularDesde(origen);
+            double real = dijkstra.getDistancia(destino);
+            double manhattan = 2.0 * (Math.abs(grafo.getX(origen) - grafo.getX(destino)) + Math.abs(grafo.getY(origen) - grafo.getY(destino)));
+            double cota = oraculo.cotaInferior(origen, destino);
+            assertTrue(cota >= manhattan, "La cota no debe ser peor que Manhattan");
+            if (real != Double.MAX_VALUE) {
+                assertTrue(cota <= real, "Cota " + cota + " mayor que la distancia real " + real);
+            }
+        }
+    }
+
+    @Test
+    void testHeuristicaConLandmarksMantieneCostos() {
+        // Pared en x=20 con un único paso en y=29: Manhattan subestima mucho el rodeo
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO),
+                celda -> celda % ANCHO != 20 || celda / ANCHO == ALTO - 1, 1.0);
+        int[] esquinas = { 0, ANCHO - 1, ANCHO * (ALTO - 1), ANCHO * ALTO - 1 };
+        OraculoLandmarks oraculo = new OraculoLandmarks(grafo, esquinas, celda -> !grafo.estaBloqueada(celda), 8);
+        int origen = grafo.indiceDe(19, 0);
+        int[] objetivos = { grafo.indiceDe(21, 0) };
+
+        MotorBusqueda manhattan = new MotorBusqueda(grafo);
+        MotorBusqueda conLandmarks = new MotorBusqueda(grafo);
+        conLandmarks.setOraculo(oraculo);
+        manhattan.buscarHastaObjetivos(origen, objetivos, 1.0);
+        conLandmarks.buscarHastaObjetivos(origen, objetivos, 1.0);
+
+        assertEquals(manhattan.getDistancia(objetivos[0]), conLandmarks.getDistancia(objetivos[0]));
+        assertTrue(conLandmarks.getNodosExpandidos() < manhattan.getNodosExpandidos(),
+                "Con landmarks expandió " + conLandmarks.getNodosExpandidos() + " nodos y con Manhattan " + manhattan.getNodosExpandidos());
+    }
+}
@@ -0,0 +1,92 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Item;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la asignación por lote dentro del planificador: que reparta los pedidos entre los
+ * robots libres minimizando el costo total aunque de a uno se elegiría otro reparto, que la
+ * prioridad decida qué pedido se queda con el único robot, y que un par que no pasa la
+ * confirmación quede para la asignación de a uno.
+ */
+class PlanificadorAsignacionLoteTest {
+
+    /**
+     * Dos pedidos de ítems distintos con los orígenes en la fila de arriba: el robot 1 está
+     * junto al primero y a dos pasos del segundo, el robot 2 a tres pasos del primero y a ocho
+     * del segundo.
+     */
+    private static EscenarioPlanificador escenarioCruzado() {
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Item otroItem = new Item("OtroItem", "OtroItem");
+        escenario.pedido(escenario.origen("O1", 4, 0, 5), escenario.cofre("D1", 4, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.pedido(otroItem, escenario.origen("O2", 9, 0, otroItem, 5), escenario.cofre("D2", 9, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(6, 2);
+        escenario.robot(0, 2);
+        return escenario;
+    }
+
+    @Test
+    void testMinimizaElCostoTotalDelReparto() {
+        // De a uno, el primer pedido se lleva al robot más cercano y el segundo al que queda
+        EscenarioPlanificador porPedido = escenarioCruzado();
+        porPedido.crearPlanificador().ejecutarRutas();
+        assertEquals(1, porPedido.robotAsignado(porPedido.pedidos.get(0)));
+        assertEquals(2, porPedido.robotAsignado(porPedido.pedidos.get(1)));
+
+        // Por lote se cruzan: 3 + 2 pasos hasta los orígenes en lugar de 1 + 8
+        EscenarioPlanificador porLote = escenarioCruzado();
+        Planificador planificador = porLote.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_LOTE);
+        assertTrue(planificador.ejecutarRutas());
+        assertEquals(2, porLote.robotAsignado(porLote.pedidos.get(0)));
+        assertEquals(1, porLote.robotAsignado(porLote.pedidos.get(1)));
+
+        // Cada par confirmado reservó su recorrido desde la celda del robot
+        GrafoCompacto grafo = planificador.getGrafoCompacto();
+        for (RobotLogistico robot : porLote.robots) {
+            Punto posicion = robot.getPosicion();
+            assertSame(robot, planificador.getTablaReservas().getReserva(grafo.indiceDe(posicion.getX(), posicion.getY()), 0));
+        }
+        for (Pedido pedido : porLote.pedidos) {
+            assertEquals(Pedido.EstadoPedido.EN_PROCESO, pedido.getEstado());
+        }
+    }
+
+    @Test
+    void testLaPrioridadDecideQuienSeQuedaConElUnicoRobot() {
+        // El pedido de baja prioridad está al lado del robot y el de alta, más lejos
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Item otroItem = new Item("OtroItem", "OtroItem");
+        Pedido baja = escenario.pedido(escenario.origen("O1", 2, 0, 5), escenario.cofre("D1", 2, 5), Pedido.PrioridadPedido.BAJA);
+        Pedido alta = escenario.pedido(otroItem, escenario.origen("O2", 8, 0, otroItem, 5), escenario.cofre("D2", 8, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(1, 2);
+
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_LOTE);
+        planificador.ejecutarRutas();
+        assertEquals(1, escenario.robotAsignado(alta));
+        assertEquals(0, escenario.robotAsignado(baja));
+        // Sin robots libres el otro pedido espera, no falla
+        assertEquals(Pedido.EstadoPedido.NUEVO, baja.getEstado());
+    }
+
+    @Test
+    void testUnParQueNoSeConfirmaQuedaParaLaAsignacionDeAUno() {
+        // El robot 1 está junto al origen y el lote lo elige, pero su batería no alcanza para el recorrido
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Pedido pedido = escenario.pedido(escenario.origen("O1", 2, 0, 5), escenario.cofre("D1", 2, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(1, 2, 12);
+        escenario.robot(12, 2);
+
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_LOTE);
+        assertTrue(planificador.ejecutarRutas());
+        assertEquals(2, escenario.robotAsignado(pedido));
+        assertEquals(Pedido.EstadoPedido.EN_PROCESO, pedido.getEstado());
+    }
+}
@@ -0,0 +1,94 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.Item;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica la asignación por subasta dentro del planificador: que adjudique de la oferta más
+ * barata a la más cara, igual con los robots ofertando en paralelo, que la prioridad decida
+ * qué pedido se queda con el único robot, y que un par que no pasa la confirmación quede
+ * para la asignación de a uno.
+ */
+class PlanificadorAsignacionSubastaTest {
+
+    /**
+     * Dos pedidos de ítems distintos con los orígenes en la fila de arriba: el robot 1 está
+     * junto al primero y a dos pasos del segundo, el robot 2 a tres pasos del primero y a ocho
+     * del segundo.
+     */
+    private static EscenarioPlanificador escenarioCruzado() {
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Item otroItem = new Item("OtroItem", "OtroItem");
+        escenario.pedido(escenario.origen("O1", 4, 0, 5), escenario.cofre("D1", 4, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.pedido(otroItem, escenario.origen("O2", 9, 0, otroItem, 5), escenario.cofre("D2", 9, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(6, 2);
+        escenario.robot(0, 2);
+        return escenario;
+    }
+
+    private static int[] subastar(EscenarioPlanificador escenario, int hilos) {
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_SUBASTA);
+        if (hilos > 0) {
+            planificador.activarEvaluacionParalela(hilos);
+        }
+        try {
+            assertTrue(planificador.ejecutarRutas());
+        } finally {
+            planificador.desactivarEvaluacionParalela();
+        }
+        GrafoCompacto grafo = planificador.getGrafoCompacto();
+        for (RobotLogistico robot : escenario.robots) {
+            Punto posicion = robot.getPosicion();
+            assertSame(robot, planificador.getTablaReservas().getReserva(grafo.indiceDe(posicion.getX(), posicion.getY()), 0),
+                    "Cada par confirmado reserva su recorrido desde la celda del robot");
+        }
+        return new int[] { escenario.robotAsignado(escenario.pedidos.get(0)), escenario.robotAsignado(escenario.pedidos.get(1)) };
+    }
+
+    @Test
+    void testAdjudicaDeLaOfertaMasBarataALaMasCara() {
+        // La oferta más barata es la del robot 1 por el primer pedido; el segundo queda para el robot 2
+        assertArrayEquals(new int[] { 1, 2 }, subastar(escenarioCruzado(), 0));
+    }
+
+    @Test
+    void testOfertarEnParaleloNoCambiaLaAdjudicacion() {
+        assertArrayEquals(subastar(escenarioCruzado(), 0), subastar(escenarioCruzado(), 2));
+    }
+
+    @Test
+    void testLaPrioridadDecideQuienSeQuedaConElUnicoRobot() {
+        // El pedido de baja prioridad está al lado del robot y el de alta, más lejos
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Item otroItem = new Item("OtroItem", "OtroItem");
+        Pedido baja = escenario.pedido(escenario.origen("O1", 2, 0, 5), escenario.cofre("D1", 2, 5), Pedido.PrioridadPedido.BAJA);
+        Pedido alta = escenario.pedido(otroItem, escenario.origen("O2", 8, 0, otroItem, 5), escenario.cofre("D2", 8, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(1, 2);
+
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_SUBASTA);
+        planificador.ejecutarRutas();
+        assertEquals(1, escenario.robotAsignado(alta));
+        assertEquals(Pedido.EstadoPedido.NUEVO, baja.getEstado());
+    }
+
+    @Test
+    void testUnParQueNoSeConfirmaQuedaParaLaAsignacionDeAUno() {
+        // El robot 1 gana la subasta por estar junto al origen, pero su batería no alcanza para el recorrido
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 6, new Punto(19, 5));
+        Pedido pedido = escenario.pedido(escenario.origen("O1", 2, 0, 5), escenario.cofre("D1", 2, 5), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(1, 2, 12);
+        escenario.robot(12, 2);
+
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoAsignacion(ModoAsignacion.POR_SUBASTA);
+        assertTrue(planificador.ejecutarRutas());
+        assertEquals(2, escenario.robotAsignado(pedido));
+        assertEquals(Pedido.EstadoPedido.EN_PROCESO, pedido.getEstado());
+    }
+}
@@ -0,0 +1,67 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que evaluar a los robots con dos búsquedas inversas elija, dentro del planificador,
+ * el mismo robot con un recorrido del mismo costo que evaluarlos de a uno, y que un destino
+ * inalcanzable deje el pedido sin robot en lugar de romper la evaluación.
+ */
+class PlanificadorBusquedaInversaTest {
+
+    private static EscenarioPlanificador escenario() {
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 12, new Punto(10, 0));
+        CofreLogistico origen = escenario.origen("O1", 6, 5, 5);
+        CofreLogistico otroOrigen = escenario.origen("O2", 14, 8, 5);
+        CofreLogistico destino = escenario.cofre("D1", 16, 3);
+        escenario.robot(1, 1);
+        escenario.robot(9, 6);
+        escenario.robot(18, 10);
+        escenario.robot(3, 10);
+        escenario.pedido(origen, destino, Pedido.PrioridadPedido.ALTA);
+        escenario.pedido(otroOrigen, destino, Pedido.PrioridadPedido.MEDIA);
+        return escenario;
+    }
+
+    private static int[] asignar(EscenarioPlanificador escenario, ModoEvaluacionRobots modo) {
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoEvaluacionRobots(modo);
+        planificador.ejecutarRutas();
+        int[] resultado = new int[escenario.pedidos.size() + 1];
+        for (int i = 0; i < escenario.pedidos.size(); i++) {
+            resultado[i] = escenario.robotAsignado(escenario.pedidos.get(i));
+        }
+        // En la grilla cada paso cuesta lo mismo: recorridos del mismo costo reservan las mismas celdas-ciclo
+        resultado[escenario.pedidos.size()] = planificador.getTablaReservas().getCantidadReservas();
+        return resultado;
+    }
+
+    @Test
+    void testEligeElMismoRobotYCostoQuePorRobot() {
+        int[] porRobot = asignar(escenario(), ModoEvaluacionRobots.POR_ROBOT);
+        assertNotEquals(0, porRobot[0]);
+        assertNotEquals(0, porRobot[1]);
+        assertArrayEquals(porRobot, asignar(escenario(), ModoEvaluacionRobots.BUSQUEDA_INVERSA));
+    }
+
+    @Test
+    void testDestinoInalcanzableNoAsignaRobot() {
+        // Una pared de cofres deja al destino del otro lado, con adyacentes libres pero sin camino
+        EscenarioPlanificador escenario = new EscenarioPlanificador(12, 6, new Punto(1, 0));
+        for (int y = 0; y < 6; y++) {
+            escenario.cofre("P" + y, 6, y);
+        }
+        Pedido pedido = escenario.pedido(escenario.origen("O1", 3, 3, 5), escenario.cofre("D1", 9, 3), Pedido.PrioridadPedido.ALTA);
+        escenario.robot(1, 1);
+
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setModoEvaluacionRobots(ModoEvaluacionRobots.BUSQUEDA_INVERSA);
+        assertFalse(planificador.ejecutarRutas());
+        assertEquals(0, escenario.robotAsignado(pedido));
+        assertTrue(pedido.estaFallido());
+    }
+}
@@ -0,0 +1,49 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que dos robots cuyos caminos se cruzan en la misma celda y el mismo ciclo lleguen
+ * a sus destinos sin ocupar nunca la misma celda: uno de ellos espera o rodea.
+ */
+class PlanificadorCooperativoTest {
+
+    @Test
+    void testRobotsQueSeCruzanNoChocan() {
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), 3, 3), celda -> true, 1.0);
+        PlanificadorCooperativo cooperativo = new PlanificadorCooperativo(grafo, 4);
+        Robopuerto robopuerto = new Robopuerto("RP1", new Punto(0, 0), 10.0, 1);
+        RobotLogistico[] robots = {
+                new RobotLogistico(1, new Punto(0, 1), robopuerto, 100, 10),
+                new RobotLogistico(2, new Punto(1, 0), robopuerto, 100, 10)
+        };
+        int[] posiciones = { grafo.indiceDe(0, 1), grafo.indiceDe(1, 0) };
+        int[] destinos = { grafo.indiceDe(2, 1), grafo.indiceDe(1, 2) };
+        CampoDistancias[] campos = {
+                new CampoDistancias(grafo, new int[] { destinos[0] }, celda -> true),
+                new CampoDistancias(grafo, new int[] { destinos[1] }, celda -> true)
+        };
+        for (int posicion : posiciones) {
+            grafo.bloquear(posicion);
+        }
+
+        for (int ciclo = 0; ciclo < 8; ciclo++) {
+            cooperativo.iniciarCiclo(ciclo);
+            for (int i = 0; i < robots.length; i++) {
+                if (posiciones[i] == destinos[i]) continue;
+                int paso = cooperativo.siguientePaso(robots[i], posiciones[i], destinos[i], campos[i]);
+                assertNotEquals(-1, paso, "El robot " + (i + 1) + " debe tener un plan en el ciclo " + ciclo);
+                assertFalse(paso != posiciones[i] && grafo.estaBloqueada(paso), "El paso no puede entrar a una celda ocupada");
+                grafo.liberar(posiciones[i]);
+                posiciones[i] = paso;
+                grafo.bloquear(paso);
+            }
+            assertNotEquals(posiciones[0], posiciones[1]);
+        }
+        assertArrayEquals(destinos, posiciones, "Ambos robots deben llegar a destino");
+    }
+}
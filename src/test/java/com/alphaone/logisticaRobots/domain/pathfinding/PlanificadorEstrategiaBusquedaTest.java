@@ -0,0 +1,105 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que buscar las rutas con Jump Point Search dentro del planificador dé el mismo
+ * resultado que el A* por defecto: cada pedido queda con el mismo robot y los recorridos
+ * reservados tienen el mismo costo. Con el seguimiento de rutas, además, los robots deben dar
+ * los mismos pasos que recalculándolos en cada ciclo.
+ */
+class PlanificadorEstrategiaBusquedaTest {
+
+    /**
+     * Robots y cofres a ambos lados de una pared de cofres con dos huecos, para que las rutas
+     * tengan que rodearla.
+     */
+    private static EscenarioPlanificador escenario() {
+        EscenarioPlanificador escenario = new EscenarioPlanificador(20, 12, new Punto(10, 0));
+        for (int y = 2; y < 12; y++) {
+            if (y != 5 && y != 9) {
+                escenario.cofre("P" + y, 8, y);
+            }
+        }
+        CofreLogistico origen = escenario.origen("O1", 4, 6, 5);
+        CofreLogistico destino = escenario.cofre("D1", 15, 8);
+        CofreLogistico otroDestino = escenario.cofre("D2", 13, 3);
+        escenario.robot(1, 1);
+        escenario.robot(17, 10);
+        escenario.robot(2, 11);
+        escenario.pedido(origen, destino, Pedido.PrioridadPedido.ALTA);
+        escenario.pedido(origen, otroDestino, Pedido.PrioridadPedido.MEDIA);
+        return escenario;
+    }
+
+    private static int[] asignar(EscenarioPlanificador escenario, EstrategiaBusqueda estrategia) {
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setEstrategiaBusqueda(estrategia);
+        assertTrue(planificador.ejecutarRutas());
+        int[] resultado = new int[escenario.pedidos.size() + 1];
+        for (int i = 0; i < escenario.pedidos.size(); i++) {
+            resultado[i] = escenario.robotAsignado(escenario.pedidos.get(i));
+        }
+        // En la grilla cada paso cuesta lo mismo: recorridos del mismo costo reservan las mismas celdas-ciclo
+        resultado[escenario.pedidos.size()] = planificador.getTablaReservas().getCantidadReservas();
+        return resultado;
+    }
+
+    @Test
+    void testJumpPointSearchAsignaIgualQueAEstrella() {
+        int[] aEstrella = asignar(escenario(), EstrategiaBusqueda.A_ESTRELLA);
+        assertNotEquals(0, aEstrella[0]);
+        assertNotEquals(0, aEstrella[1]);
+        assertArrayEquals(aEstrella, asignar(escenario(), EstrategiaBusqueda.JUMP_POINT_SEARCH));
+    }
+
+    /**
+     * Asigna los pedidos y mueve a cada robot asignado hasta el origen, pidiéndole al
+     * planificador un paso por ciclo.
+     *
+     * @return los pasos de cada robot, en el orden de los pedidos
+     */
+    private static List<List<Punto>> recorrer(EscenarioPlanificador escenario, EstrategiaBusqueda estrategia, boolean seguimientoRutas) {
+        Planificador planificador = escenario.crearPlanificador();
+        planificador.setEstrategiaBusqueda(estrategia);
+        planificador.setSeguimientoRutas(seguimientoRutas);
+        assertTrue(planificador.ejecutarRutas());
+        List<List<Punto>> recorridos = new ArrayList<>();
+        for (Pedido pedido : escenario.pedidos) {
+            RobotLogistico robot = escenario.robots.stream()
+                    .filter(r -> r.getPedidosPendientes().contains(pedido)).findFirst().orElseThrow();
+            Punto origen = pedido.getCofreOrigen().getPosicion();
+            List<Punto> pasos = new ArrayList<>();
+            for (Punto paso = planificador.calcularSiguientePaso(robot, origen); paso != null; paso = planificador.calcularSiguientePaso(robot, origen)) {
+                assertEquals(1, robot.getPosicion().distanciaHacia(paso), 1e-9, "Cada paso avanza a una celda vecina");
+                if (seguimientoRutas) {
+                    // La ruta guardada es lo que le falta recorrer: empieza en la celda del robot y sigue por el paso
+                    List<Punto> ruta = planificador.getRutaPlanificada(robot, origen);
+                    assertEquals(robot.getPosicion(), ruta.get(0));
+                    assertEquals(paso, ruta.get(1));
+                }
+                robot.setPosicion(paso);
+                pasos.add(paso);
+                assertTrue(pasos.size() < 100, "El robot debe llegar al origen");
+            }
+            recorridos.add(pasos);
+        }
+        return recorridos;
+    }
+
+    @Test
+    void testSeguirLaRutaDaLosMismosPasosQueRecalcularlos() {
+        List<List<Punto>> recalculando = recorrer(escenario(), EstrategiaBusqueda.A_ESTRELLA, false);
+        assertFalse(recalculando.get(0).isEmpty());
+        assertFalse(recalculando.get(1).isEmpty());
+        assertEquals(recalculando, recorrer(escenario(), EstrategiaBusqueda.JUMP_POINT_SEARCH, true));
+    }
+}
@@ -0,0 +1,95 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Item;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RegistroPedidos;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisionActiva;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que evaluar a los robots candidatos en paralelo no cambie el resultado: con la
+ * evaluación secuencial, con un hilo y con varios, cada pedido queda asignado al mismo robot
+ * y la tabla de reservas queda igual, aun con robots empatados en puntuación.
+ */
+class PlanificadorEvaluacionParalelaTest {
+    private static final int ANCHO = 30;
+    private static final int ALTO = 20;
+    private static final int CICLOS_RESERVADOS = 64;
+
+    /**
+     * Arma la misma red desde cero, corre una pasada de asignación y devuelve, por pedido, el
+     * id del robot asignado seguido del id del robot que reservó cada celda en cada ciclo.
+     */
+    private int[] asignar(int hilos) {
+        Item item = new Item("TestItem", "TestItem");
+        Robopuerto robopuerto = new Robopuerto("RP1", new Punto(15, 10), 50.0, 5);
+        List<CofreLogistico> origenes = new ArrayList<>();
+        List<Pedido> lista = new ArrayList<>();
+        Set<CofreLogistico> cofres = new LinkedHashSet<>();
+        for (int i = 0; i < 3; i++) {
+            CofreLogistico origen = new CofreLogistico("O" + i, new Punto(5 + 10 * i, 4), 10);
+            origen.getInventario().agregar(item, 5);
+            origen.setComportamiento(item, new ComportamientoProvisionActiva());
+            CofreLogistico destino = new CofreLogistico("D" + i, new Punto(5 + 10 * i, 16), 10);
+            origenes.add(origen);
+            cofres.add(origen);
+            cofres.add(destino);
+            lista.add(new Pedido(item, 1, origen, destino, Pedido.PrioridadPedido.values()[i % 3]));
+        }
+        // Robots simétricos respecto de los cofres, para que haya empates de puntuación
+        Set<RobotLogistico> robots = new LinkedHashSet<>();
+        int[][] posiciones = { { 2, 8 }, { 8, 8 }, { 12, 8 }, { 18, 8 }, { 22, 8 }, { 28, 8 }, { 10, 2 }, { 20, 2 } };
+        for (int i = 0; i < posiciones.length; i++) {
+            robots.add(new RobotLogistico(i + 1, new Punto(posiciones[i][0], posiciones[i][1]), robopuerto, 100, 10));
+        }
+
+        Planificador planificador = new Planificador(new LinkedHashSet<>(List.of(robopuerto)),
+                new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), cofres, robots, new RegistroPedidos(lista));
+        if (hilos > 0) {
+            planificador.activarEvaluacionParalela(hilos);
+        }
+        try {
+            planificador.ejecutarRutas();
+        } finally {
+            planificador.desactivarEvaluacionParalela();
+        }
+
+        GrafoCompacto grafo = planificador.getGrafoCompacto();
+        TablaReservas reservas = planificador.getTablaReservas();
+        int[] resultado = new int[lista.size() + grafo.getCantidadCeldas() * CICLOS_RESERVADOS];
+        for (int i = 0; i < lista.size(); i++) {
+            for (RobotLogistico robot : robots) {
+                if (robot.getPedidosPendientes().contains(lista.get(i))) {
+                    resultado[i] = robot.getId();
+                }
+            }
+            assertNotEquals(0, resultado[i], "El pedido " + i + " debe quedar asignado");
+        }
+        for (int ciclo = 0; ciclo < CICLOS_RESERVADOS; ciclo++) {
+            for (int celda = 0; celda < grafo.getCantidadCeldas(); celda++) {
+                RobotLogistico robot = reservas.getReserva(celda, ciclo);
+                resultado[lista.size() + ciclo * grafo.getCantidadCeldas() + celda] = robot == null ? 0 : robot.getId();
+            }
+        }
+        return resultado;
+    }
+
+    @Test
+    void testEvaluacionParalelaEligeLoMismoQueLaSecuencial() {
+        int[] secuencial = asignar(0);
+        assertTrue(Arrays.stream(secuencial).skip(3).anyMatch(id -> id != 0), "Debe haber recorridos reservados");
+        assertArrayEquals(secuencial, asignar(1), "Con un hilo");
+        assertArrayEquals(secuencial, asignar(4), "Con varios hilos");
+    }
+}
@@ -0,0 +1,96 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Item;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RegistroPedidos;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import com.alphaone.logisticaRobots.domain.comportamiento.ComportamientoProvisionActiva;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el planificador solo corra una pasada de asignación cuando hubo algún evento
+ * desde la anterior, y que sin eventos devuelva el resultado de la última pasada.
+ */
+class PlanificadorEventosTest {
+    private final Item item = new Item("TestItem", "TestItem");
+    private final CofreLogistico origen = new CofreLogistico("C1", new Punto(3, 3), 10);
+    private final CofreLogistico destino = new CofreLogistico("C2", new Punto(8, 8), 10);
+    private final Robopuerto robopuerto = new Robopuerto("RP1", new Punto(0, 0), 20.0, 5);
+    private final RobotLogistico robot = new RobotLogistico(1, new Punto(1, 0), robopuerto, 100, 10);
+    private final List<Pedido> lista = new ArrayList<>();
+    private Planificador planificador;
+
+    @BeforeEach
+    void setUp() {
+        origen.setComportamiento(item, new ComportamientoProvisionActiva());
+        planificador = new Planificador(new LinkedHashSet<>(List.of(robopuerto)), new GrillaEspacial(new Punto(0, 0), 10, 10),
+                new LinkedHashSet<>(List.of(origen, destino)), new LinkedHashSet<>(List.of(robot)), new RegistroPedidos(lista));
+    }
+
+    private Pedido pedido() {
+        return new Pedido(item, 1, origen, destino, Pedido.PrioridadPedido.MEDIA);
+    }
+
+    /**
+     * Corre una pasada con eventos pendientes y verifica que la siguiente, sin eventos, no haga nada.
+     */
+    private void assertCorreUnaPasada(String evento) {
+        int pasadas = planificador.getCantidadPasadas();
+        assertTrue(planificador.hayEventosPendientes(), evento);
+        planificador.ejecutarRutas();
+        assertEquals(pasadas + 1, planificador.getCantidadPasadas(), evento);
+        assertFalse(planificador.hayEventosPendientes(), evento);
+        planificador.ejecutarRutas();
+        assertEquals(pasadas + 1, planificador.getCantidadPasadas(), evento);
+    }
+
+    @Test
+    void testSinEventosDevuelveElResultadoAnteriorSinAsignar() {
+        // Sin stock en el origen el pedido falla y la pasada devuelve false
+        Pedido sinStock = pedido();
+        lista.add(sinStock);
+        assertFalse(planificador.ejecutarRutas());
+        assertEquals(1, planificador.getCantidadPasadas());
+        assertTrue(sinStock.estaFallido());
+
+        // Cargar stock sin avisar no es un evento: no se asigna nada y se repite el resultado
+        origen.getInventario().agregar(item, 5);
+        assertFalse(planificador.hayEventosPendientes());
+        assertFalse(planificador.ejecutarRutas());
+        assertEquals(1, planificador.getCantidadPasadas());
+        assertTrue(robot.getPedidosPendientes().isEmpty());
+    }
+
+    @Test
+    void testCadaEventoProvocaUnaPasada() {
+        origen.getInventario().agregar(item, 5);
+        assertCorreUnaPasada("Primera pasada");
+
+        Pedido nuevo = pedido();
+        planificador.notificarPedidoNuevo(nuevo);
+        assertCorreUnaPasada("Pedido nuevo");
+
+        planificador.notificarPedidoFallido(nuevo);
+        assertCorreUnaPasada("Pedido fallido en ejecución");
+
+        planificador.notificarRobotLibre(robot);
+        assertCorreUnaPasada("Robot liberado");
+
+        planificador.notificarCambioStock(origen);
+        assertCorreUnaPasada("Cambio de stock");
+
+        Pedido agregadoALaLista = pedido();
+        lista.add(agregadoALaLista);
+        assertCorreUnaPasada("Pedido agregado directamente a la lista");
+        assertTrue(robot.getPedidosPendientes().contains(agregadoALaLista), "La pasada debe asignar el pedido agregado");
+    }
+}
@@ -0,0 +1,108 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la búsqueda jerárquica encuentre los mismos destinos alcanzables que Dijkstra,
+ * con un costo cercano al óptimo, que se actualice al bloquearse celdas y que, con una
+ * restricción fija, ignore la ocupación del grafo y refine tramos por celdas permitidas.
+ */
+class PlanificadorJerarquicoTest {
+
+    private static final int ANCHO = 60;
+    private static final int ALTO = 60;
+
+    @Test
+    void testCostoCercanoAlOptimo() {
+        Random random = new Random(3);
+        boolean[] bloqueadas = new boolean[ANCHO * ALTO];
+        for (int celda = 0; celda < bloqueadas.length; celda++) {
+            bloqueadas[celda] = random.nextDouble() < 0.2;
+        }
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> !bloqueadas[celda], 1.0);
+        PlanificadorJerarquico jerarquico = new PlanificadorJerarquico(grafo, 10);
+        MotorBusqueda dijkstra = new MotorBusqueda(grafo);
+
+        for (int consulta = 0; consulta < 50; consulta++) {
+            int origen = random.nextInt(grafo.getCantidadCeldas());
+            int objetivo = random.nextInt(grafo.getCantidadCeldas());
+            dijkstra.calcularDesde(origen);
+            double optimo = dijkstra.getDistancia(objetivo);
+
+            int alcanzado = jerarquico.buscarHastaObjetivos(origen, new int[] { objetivo }, 1.0);
+            if (optimo == Double.MAX_VALUE) {
+                assertEquals(-1, alcanzado);
+                continue;
+            }
+            assertEquals(objetivo, alcanzado, "Consulta " + consulta);
+            double costo = jerarquico.getDistancia(alcanzado);
+            assertTrue(costo >= optimo && costo <= optimo * 1.5 + 10, "Costo " + costo + " frente a óptimo " + optimo);
+
+            int[] camino = jerarquico.reconstruirCamino(alcanzado);
+            assertEquals(origen, camino[0]);
+            assertEquals(objetivo, camino[camino.length - 1]);
+        }
+    }
+
+    @Test
+    void testReconstruyeSectoresAlBloquearUnPaso() {
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> celda % ANCHO != 30 || celda / ANCHO == 59, 1.0);
+        PlanificadorJerarquico jerarquico = new PlanificadorJerarquico(grafo, 10);
+        int origen = grafo.indiceDe(0, 0);
+        int[] objetivo = { grafo.indiceDe(59, 0) };
+
+        // Solo se puede cruzar la pared x=30 por y=59
+        assertEquals(objetivo[0], jerarquico.buscarHastaObjetivos(origen, objetivo, 1.0));
+        double costo = jerarquico.getDistancia(objetivo[0]);
+        assertTrue(costo >= 177.0 && costo <= 177.0 * 1.1, "Costo " + costo);
+
+        grafo.bloquear(grafo.indiceDe(30, 59));
+        assertEquals(-1, jerarquico.buscarHastaObjetivos(origen, objetivo, 1.0));
+
+        grafo.liberar(grafo.indiceDe(30, 59));
+        assertEquals(objetivo[0], jerarquico.buscarHastaObjetivos(origen, objetivo, 1.0));
+    }
+
+    @Test
+    void testConRestriccionFijaIgnoraLaOcupacionYRefinaPorCeldasPermitidas() {
+        // Pared fija en x=30 salvo en y=59; el robopuerto de salida (0, 0) no es celda de paso
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO), celda -> true, 1.0);
+        int robopuerto = grafo.indiceDe(0, 0);
+        boolean[] obstaculos = new boolean[ANCHO * ALTO];
+        for (int y = 0; y < 59; y++) {
+            obstaculos[grafo.indiceDe(30, y)] = true;
+        }
+        IntPredicate fija = celda -> celda != robopuerto && !obstaculos[celda];
+        PlanificadorJerarquico jerarquico = new PlanificadorJerarquico(grafo, 10, fija);
+        int[] objetivo = { grafo.indiceDe(59, 0) };
+
+        assertEquals(objetivo[0], jerarquico.buscarHastaObjetivos(robopuerto, objetivo, 1.0));
+        double costo = jerarquico.getDistancia(objetivo[0]);
+
+        // Un robot que ocupa el paso no cambia la abstracción
+        grafo.bloquear(grafo.indiceDe(30, 59));
+        assertEquals(objetivo[0], jerarquico.buscarHastaObjetivos(robopuerto, objetivo, 1.0));
+        assertEquals(costo, jerarquico.getDistancia(objetivo[0]));
+
+        int[] puntos = jerarquico.getPuntosDePaso(objetivo[0]);
+        int[] tramo = jerarquico.refinarTramo(puntos[0], puntos[1]);
+        assertEquals(puntos[0], tramo[0]);
+        assertEquals(puntos[1], tramo[tramo.length - 1]);
+        int[] camino = jerarquico.reconstruirCamino(objetivo[0]);
+        assertEquals(costo, camino.length - 1.0);
+        for (int i = 1; i < camino.length; i++) {
+            assertEquals(1, Math.abs(grafo.getX(camino[i]) - grafo.getX(camino[i - 1])) + Math.abs(grafo.getY(camino[i]) - grafo.getY(camino[i - 1])));
+            assertTrue(fija.test(camino[i]), "Celda no permitida en el camino: " + camino[i]);
+        }
+
+        // Un cambio de obstáculo fijo avisado sí se ve en la siguiente consulta
+        obstaculos[grafo.indiceDe(30, 59)] = true;
+        jerarquico.celdaActualizada(grafo.indiceDe(30, 59), true);
+        assertEquals(-1, jerarquico.buscarHastaObjetivos(robopuerto, objetivo, 1.0));
+    }
+}
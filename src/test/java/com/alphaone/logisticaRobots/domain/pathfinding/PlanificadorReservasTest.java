@@ -0,0 +1,56 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.CofreLogistico;
+import com.alphaone.logisticaRobots.domain.Pedido;
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que las reservas de los robots en misión sigan vigentes en las pasadas siguientes,
+ * contadas en ciclos absolutos, que un recorrido que choca con ellas con cualquier demora de
+ * salida permitida se rechace, y que terminar la misión las libere.
+ */
+class PlanificadorReservasTest {
+
+    @Test
+    void testLasReservasEnCursoSobrevivenEntrePasadas() {
+        // Pasillo en y = 1 entre dos filas de cofres; el robopuerto ocupa un hueco de la fila de abajo
+        EscenarioPlanificador escenario = new EscenarioPlanificador(12, 3, new Punto(6, 2));
+        CofreLogistico origen = escenario.origen("O1", 2, 0, 5);
+        CofreLogistico destinoLejano = escenario.cofre("D1", 8, 0);
+        CofreLogistico destinoCercano = escenario.cofre("D2", 3, 0);
+        for (int x = 0; x < 12; x++) {
+            if (x != 2 && x != 3 && x != 8) {
+                escenario.cofre("N" + x, x, 0);
+            }
+            if (x != 6) {
+                escenario.cofre("S" + x, x, 2);
+            }
+        }
+        RobotLogistico haciaElEste = escenario.robot(1, 1);
+        RobotLogistico haciaElOeste = escenario.robot(10, 1);
+        Planificador planificador = escenario.crearPlanificador();
+
+        // El primer robot recorre el pasillo hacia el este desde el ciclo 0
+        Pedido primero = escenario.pedido(origen, destinoLejano, Pedido.PrioridadPedido.ALTA);
+        planificador.iniciarCiclo(0);
+        planificador.ejecutarRutas();
+        assertEquals(haciaElEste.getId(), escenario.robotAsignado(primero));
+        haciaElEste.procesarSiguientePedido(0);
+
+        // En el ciclo 1 el otro robot iría hacia el oeste por el mismo pasillo: salir más tarde no evita cruzarse
+        Pedido segundo = escenario.pedido(origen, destinoCercano, Pedido.PrioridadPedido.ALTA);
+        planificador.iniciarCiclo(1);
+        planificador.ejecutarRutas();
+        assertEquals(0, escenario.robotAsignado(segundo), "La reserva de la pasada anterior debe seguir vigente");
+        assertSame(haciaElEste, planificador.getTablaReservas().getReserva(planificador.getGrafoCompacto().indiceDe(6, 1), 5));
+
+        // Al terminar la misión se liberan sus reservas y el pasillo queda libre
+        planificador.finalizarMision(haciaElEste);
+        Pedido tercero = escenario.pedido(origen, destinoCercano, Pedido.PrioridadPedido.ALTA);
+        planificador.ejecutarRutas();
+        assertEquals(haciaElOeste.getId(), escenario.robotAsignado(tercero));
+    }
+}
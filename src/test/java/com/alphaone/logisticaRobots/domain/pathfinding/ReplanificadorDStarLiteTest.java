@@ -0,0 +1,85 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que D* Lite siga el camino mínimo, que ante el bloqueo de una celda repare el
+ * camino con el mismo costo que una búsqueda desde cero, y que su estado crezca con la zona
+ * explorada y no con el tamaño de la grilla.
+ */
+class ReplanificadorDStarLiteTest {
+
+    private static final int ANCHO = 10;
+    private static final int ALTO = 10;
+
+    private GrafoCompacto grafo;
+
+    @BeforeEach
+    void setUp() {
+        GrillaEspacial grilla = new GrillaEspacial(new Punto(0, 0), ANCHO, ALTO);
+        grafo = GrafoCompacto.desdeGrilla(grilla, celda -> true, 1.0);
+    }
+
+    private int celda(int x, int y) {
+        return grafo.indiceDe(x, y);
+    }
+
+    @Test
+    void testSigueElCaminoMinimoHastaElObjetivo() {
+        ReplanificadorDStarLite replanificador = new ReplanificadorDStarLite(grafo, new int[] { celda(9, 9) }, celda -> true, 1.0);
+
+        int actual = celda(0, 0);
+        int pasos = 0;
+        while (actual != celda(9, 9)) {
+            actual = replanificador.siguientePaso(actual);
+            assertNotEquals(-1, actual);
+            pasos++;
+        }
+        assertEquals(18, pasos);
+        replanificador.liberar();
+    }
+
+    @Test
+    void testReparaElCaminoAlBloquearseUnaCelda() {
+        ReplanificadorDStarLite replanificador = new ReplanificadorDStarLite(grafo, new int[] { celda(9, 0) }, celda -> true, 1.0);
+        assertEquals(celda(1, 0), replanificador.siguientePaso(celda(0, 0)));
+        assertEquals(9.0, replanificador.getCostoRestante());
+        int expansionesIniciales = replanificador.getNodosExpandidos();
+
+        // Pared en x=5 salvo en y=9: el camino debe rodearla
+        for (int y = 0; y < 9; y++) {
+            grafo.bloquear(celda(5, y));
+        }
+        replanificador.siguientePaso(celda(1, 0));
+
+        MotorBusqueda motor = new MotorBusqueda(grafo);
+        motor.calcularDesde(celda(1, 0));
+        assertEquals(motor.getDistancia(celda(9, 0)), replanificador.getCostoRestante());
+
+        // Un cambio lejos del camino no debe obligar a repetir la búsqueda
+        grafo.bloquear(celda(0, 9));
+        replanificador.siguientePaso(celda(1, 0));
+        assertTrue(replanificador.getNodosExpandidos() < expansionesIniciales);
+        replanificador.liberar();
+    }
+
+    @Test
+    void testElEstadoCreceConLaZonaExplorada() {
+        GrafoCompacto grande = GrafoCompacto.desdeGrilla(new GrillaEspacial(new Punto(0, 0), 1000, 1000), celda -> true, 1.0);
+        ReplanificadorDStarLite replanificador = new ReplanificadorDStarLite(grande, new int[] { grande.indiceDe(510, 500) }, celda -> true, 1.0);
+        assertEquals(grande.indiceDe(501, 500), replanificador.siguientePaso(grande.indiceDe(500, 500)));
+        assertEquals(10.0, replanificador.getCostoRestante());
+        assertTrue(replanificador.getCeldasTocadas() < 1000, "Celdas tocadas: " + replanificador.getCeldasTocadas());
+
+        // Un cambio en una celda que la búsqueda nunca tocó no se acumula
+        int tocadas = replanificador.getCeldasTocadas();
+        grande.bloquear(grande.indiceDe(0, 0));
+        replanificador.siguientePaso(grande.indiceDe(501, 500));
+        assertEquals(0, replanificador.getNodosExpandidos());
+        assertEquals(tocadas, replanificador.getCeldasTocadas());
+        replanificador.liberar();
+    }
+}
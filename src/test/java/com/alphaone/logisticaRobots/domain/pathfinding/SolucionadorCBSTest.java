@@ -0,0 +1,42 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que CBS destrabe a dos robots que tienen que intercambiar posiciones en un pasillo
+ * con un único hueco lateral: uno de ellos se aparta y ninguno ocupa la celda del otro.
+ */
+class SolucionadorCBSTest {
+
+    @Test
+    void testIntercambioEnPasilloConHueco() {
+        // Pasillo en y = 0 de x = 0 a 4, con un hueco en (2, 1)
+        GrillaEspacial grilla = new GrillaEspacial(new Punto(0, 0), 5, 2);
+        GrafoCompacto grafo = GrafoCompacto.desdeGrilla(grilla, celda -> celda < 5 || celda == 7, 1.0);
+        int izquierda = grafo.indiceDe(0, 0);
+        int derecha = grafo.indiceDe(4, 0);
+        CampoDistancias[] campos = {
+                new CampoDistancias(grafo, new int[] { derecha }, celda -> true),
+                new CampoDistancias(grafo, new int[] { izquierda }, celda -> true)
+        };
+        SolucionadorCBS solucionador = new SolucionadorCBS(grafo, 20, 1_000);
+
+        int[][] caminos = solucionador.resolver(new int[] { izquierda, derecha }, campos, celda -> false);
+
+        assertNotNull(caminos, "Debe encontrar una solución");
+        assertEquals(derecha, caminos[0][caminos[0].length - 1]);
+        assertEquals(izquierda, caminos[1][caminos[1].length - 1]);
+        int ciclos = Math.max(caminos[0].length, caminos[1].length);
+        for (int ciclo = 1; ciclo < ciclos; ciclo++) {
+            int celda0 = caminos[0][Math.min(ciclo, caminos[0].length - 1)];
+            int celda1 = caminos[1][Math.min(ciclo, caminos[1].length - 1)];
+            int anterior0 = caminos[0][Math.min(ciclo - 1, caminos[0].length - 1)];
+            int anterior1 = caminos[1][Math.min(ciclo - 1, caminos[1].length - 1)];
+            assertNotEquals(celda0, celda1, "Misma celda en el ciclo " + ciclo);
+            assertFalse(celda0 == anterior1 && celda1 == anterior0, "Intercambio en el ciclo " + ciclo);
+        }
+        assertTrue(solucionador.getNodosGenerados() > 0, "Tuvo que resolver al menos un conflicto");
+    }
+}
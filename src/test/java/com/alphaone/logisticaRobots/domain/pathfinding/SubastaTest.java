@@ -0,0 +1,47 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que cada postor oferte solo por sus tareas más baratas y que el subastador adjudique
+ * de la oferta más barata a la más cara sin repetir postor ni tarea, sin importar el orden de llegada.
+ */
+class SubastaTest {
+    private static final double INF = Double.POSITIVE_INFINITY;
+
+    @Test
+    void testOfertaPorLasTareasMasBaratas() {
+        List<Subasta.Oferta> ofertas = Subasta.ofertar(0, new double[] { 5, INF, 1, 3, 2 }, 3);
+        assertEquals(3, ofertas.size());
+        assertEquals(2, ofertas.get(0).getTarea());
+        assertEquals(4, ofertas.get(1).getTarea());
+        assertEquals(3, ofertas.get(2).getTarea());
+        assertThrows(IllegalArgumentException.class, () -> Subasta.ofertar(0, new double[] { 1 }, 0));
+    }
+
+    @Test
+    void testAdjudicaSinRepetirPostoresNiTareas() {
+        // El postor 0 es el más barato para las dos tareas: gana la 0 y la 1 queda para el postor 1
+        List<Subasta.Oferta> ofertas = new ArrayList<>();
+        ofertas.addAll(Subasta.ofertar(0, new double[] { 1, 2 }, 2));
+        ofertas.addAll(Subasta.ofertar(1, new double[] { 4, 6 }, 2));
+        ofertas.addAll(Subasta.ofertar(2, new double[] { INF, 7 }, 2));
+        assertArrayEquals(new int[] { 0, 1 }, Subasta.adjudicar(ofertas, 2));
+
+        Collections.reverse(ofertas);
+        assertArrayEquals(new int[] { 0, 1 }, Subasta.adjudicar(ofertas, 2));
+    }
+
+    @Test
+    void testTareaSinOfertasQuedaSinAdjudicar() {
+        List<Subasta.Oferta> ofertas = Subasta.ofertar(0, new double[] { 3, 3, INF }, 1);
+        // Ante igual costo gana la tarea de menor índice
+        assertArrayEquals(new int[] { 0, -1, -1 }, Subasta.adjudicar(ofertas, 3));
+    }
+}
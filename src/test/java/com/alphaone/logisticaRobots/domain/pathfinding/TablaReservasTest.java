@@ -0,0 +1,66 @@
+package com.alphaone.logisticaRobots.domain.pathfinding;
+
+import com.alphaone.logisticaRobots.domain.RobotLogistico;
+import com.alphaone.logisticaRobots.domain.Robopuerto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la tabla de reservas solo detecte conflictos cuando dos robots coinciden en
+ * celda y ciclo (o se cruzan por la misma arista) y que una demora de salida los evite.
+ */
+class TablaReservasTest {
+
+    private TablaReservas tabla;
+    private RobotLogistico robot1;
+    private RobotLogistico robot2;
+
+    @BeforeEach
+    void setUp() {
+        tabla = new TablaReservas(100, 50);
+        Robopuerto robopuerto = new Robopuerto("RP1", new Punto(0, 0), 10.0, 1);
+        robot1 = new RobotLogistico(1, new Punto(0, 0), robopuerto, 100, 10);
+        robot2 = new RobotLogistico(2, new Punto(0, 0), robopuerto, 100, 10);
+    }
+
+    @Test
+    void testMismaCeldaEnCiclosDistintosNoEsConflicto() {
+        tabla.reservar(robot1, new int[] { 0, 1, 2, 3 });
+
+        assertFalse(tabla.hayConflicto(robot2, new int[] { 5, 4, 3 }), "Pasa por la celda 3 antes que el otro robot");
+        assertTrue(tabla.hayConflicto(robot2, new int[] { 5, 4, 3, 3 }), "Ocupa la celda 3 en el mismo ciclo");
+        assertTrue(tabla.hayConflicto(robot2, new int[] { 2, 1 }), "Se cruzan por la arista 1-2");
+        assertFalse(tabla.hayConflicto(robot1, new int[] { 0, 1, 2, 3 }), "Sus propias reservas no le molestan");
+    }
+
+    @Test
+    void testDemoraEvitaConflictoYLiberarQuitaReservas() {
+        tabla.reservar(robot1, new int[] { 10, 11, 12, 13 });
+        int[] recorrido = { 21, 11, 12 };
+
+        assertEquals(1, tabla.buscarDemora(robot2, recorrido, 3));
+        tabla.reservar(robot2, recorrido, 1);
+        assertSame(robot2, tabla.getReserva(21, 1), "Espera en su celda inicial");
+        assertSame(robot2, tabla.getReserva(11, 2));
+
+        tabla.liberar(robot1);
+        assertNull(tabla.getReserva(11, 1));
+        assertEquals(4, tabla.getCantidadReservas());
+    }
+
+    @Test
+    void testDemoraDesdeUnCicloAbsoluto() {
+        // El otro robot reservó en la pasada del ciclo 10 y sigue en misión en el ciclo 12
+        tabla.reservarDesde(robot1, 10, new int[] { 10, 11, 12, 13 }, 13);
+        int[] recorrido = { 22, 13, 32 };
+
+        assertEquals(0, tabla.buscarDemora(robot2, recorrido, 3), "Contado desde el ciclo 0 no se cruzan");
+        assertEquals(1, tabla.buscarDemoraDesde(robot2, 12, recorrido, 3), "En el ciclo 14 la celda 13 ya quedó libre");
+        tabla.reservarDesde(robot2, 12, recorrido, 1, 15);
+        assertSame(robot2, tabla.getReserva(22, 13), "Espera en su celda inicial");
+        assertSame(robot2, tabla.getReserva(13, 14));
+        assertSame(robot2, tabla.getReserva(32, 15));
+    }
+}